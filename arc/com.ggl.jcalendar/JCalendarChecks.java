@@ -0,0 +1,1166 @@
+package com.ggl.jcalendar;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.InvalidParameterException;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.chrono.AbstractChronology;
+import java.time.chrono.ChronoLocalDate;
+import java.time.chrono.ChronoPeriod;
+import java.time.chrono.Chronology;
+import java.time.chrono.Era;
+import java.time.chrono.HijrahChronology;
+import java.time.chrono.IsoChronology;
+import java.time.chrono.IsoEra;
+import java.time.chrono.MinguoChronology;
+import java.time.chrono.ThaiBuddhistChronology;
+import java.time.format.TextStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.Temporal;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalAdjusters;
+import java.time.temporal.TemporalField;
+import java.time.temporal.TemporalUnit;
+import java.time.temporal.ValueRange;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+import javax.swing.SwingUtilities;
+
+import com.ggl.jcalendar.model.CalendarModel;
+import com.ggl.jcalendar.model.ChronologyTable;
+import com.ggl.jcalendar.model.DateTextService;
+import com.ggl.jcalendar.model.DateSelectionModel;
+import com.ggl.jcalendar.model.DateValidator;
+import com.ggl.jcalendar.model.DayAnnotationProvider;
+import com.ggl.jcalendar.model.DayDataIndex;
+import com.ggl.jcalendar.model.DayDataWriter;
+import com.ggl.jcalendar.model.HolidayCalendar;
+import com.ggl.jcalendar.model.InMemoryDateValidator;
+import com.ggl.jcalendar.model.MonthGrid;
+import com.ggl.jcalendar.model.ShortDateParser;
+import com.ggl.jcalendar.view.CalendarSpec;
+import com.ggl.jcalendar.view.DateValidationLoader;
+import com.ggl.jcalendar.view.DayAnnotationLoader;
+import com.ggl.jcalendar.view.DayGridComponent;
+
+/**
+ * <p>
+ * <code>JCalendarChecks</code> checks the behavior of the <code>JCalendar</code>
+ * models and components that can be checked without a display. Each failed
+ * check is printed, and the exit status is 1 if any check failed.
+ * </p>
+ *
+ * <pre>
+ * <code>
+ *    java -cp classes com.ggl.jcalendar.JCalendarChecks
+ * </code>
+ * </pre>
+ */
+public class JCalendarChecks {
+
+	private int checkCount;
+
+	private final List<String> failures;
+
+	public static void main(String[] args) throws Exception {
+		JCalendarChecks checks = new JCalendarChecks();
+		checks.run();
+		System.exit(checks.printResults() ? 0 : 1);
+	}
+
+	public JCalendarChecks() {
+		this.checkCount = 0;
+		this.failures = new ArrayList<>();
+	}
+
+	public void run() throws Exception {
+		checkDateSelectionModel();
+		checkDayGridPaging();
+		checkShortDateParser();
+		checkDateValidationLoader();
+		checkDayAnnotationLoader();
+		checkHolidayCalendar();
+		checkCalendarModel();
+		checkCalendarSpec();
+		checkDayDataIndex();
+		checkChronologyTable();
+		checkDateTextService();
+	}
+
+	private void checkDateSelectionModel() {
+		DateSelectionModel multiple = new DateSelectionModel(
+				DateSelectionModel.Mode.MULTIPLE);
+		int first = MonthGrid.epochDay(2023, 2, 5);
+		multiple.select(first, null);
+		multiple.select(first - 1000, null);
+		multiple.select(first + 1000, null);
+		check("MULTIPLE selects 3 dates", multiple.getSelectedCount() == 3);
+		check("MULTIPLE grows the bitmap backwards",
+				multiple.isSelected(first - 1000) && multiple.isSelected(first));
+		check("nextSelectedEpochDay walks the dates in order",
+				multiple.nextSelectedEpochDay(DateSelectionModel.NO_DATE)
+						== first - 1000
+						&& multiple.nextSelectedEpochDay(first - 999) == first
+						&& multiple.nextSelectedEpochDay(first + 1) == first + 1000
+						&& multiple.nextSelectedEpochDay(first + 1001)
+								== DateSelectionModel.NO_DATE);
+		multiple.select(first, null);
+		check("MULTIPLE toggles a date off", !multiple.isSelected(first)
+				&& multiple.getSelectedCount() == 2);
+
+		DateSelectionModel range = new DateSelectionModel(
+				DateSelectionModel.Mode.RANGE);
+		int last = first + 200;
+		range.select(last, null);
+		check("RANGE selects the anchor", range.getSelectedCount() == 1);
+		range.select(first, null);
+		check("RANGE selects the whole range",
+				range.getSelectedCount() == last - first + 1);
+		IntPredicate evenDays = new IntPredicate() {
+			@Override
+			public boolean test(int epochDay) {
+				return (epochDay & 1) == 0;
+			}
+		};
+		range.select(first, null);
+		range.select(last, evenDays);
+		int evenCount = 0;
+		boolean evenOnly = true;
+		for (int epochDay = first; epochDay <= last; epochDay++) {
+			if (evenDays.test(epochDay)) {
+				evenCount++;
+			} else if (range.isSelected(epochDay)) {
+				evenOnly = false;
+			}
+		}
+		check("RANGE skips the days that can't be selected",
+				evenOnly && range.getSelectedCount() == evenCount);
+
+		MonthGrid february = CalendarModel.getDefault().getMonthGrid(2023, 2, 0);
+		DateSelectionModel single = new DateSelectionModel(
+				DateSelectionModel.Mode.SINGLE);
+		single.select(first, null);
+		check("getSelectionMask maps a date to its cell",
+				single.getSelectionMask(february) == 1L << 7);
+		single.select(MonthGrid.epochDay(2023, 3, 1), null);
+		check("getSelectionMask ignores the blank cells",
+				single.getSelectionMask(february) == 0L);
+		check("SINGLE keeps one date", single.getSelectedCount() == 1
+				&& LocalDate.of(2023, 3, 1).equals(single.getFirstSelectedDate()));
+	}
+
+	/**
+	 * This method pages from February to March 2023 with the 5th of February
+	 * selected, then with the 10th of February pending. Both months start on a
+	 * Wednesday, so only the selection tells cell 7 apart, and only the
+	 * pending border tells cell 12 apart.
+	 */
+	private void checkDayGridPaging() {
+		CalendarModel model = CalendarModel.getDefault();
+		DateSelectionModel selection = new DateSelectionModel(
+				DateSelectionModel.Mode.MULTIPLE);
+		selection.select(MonthGrid.epochDay(2023, 2, 5), null);
+
+		RecordingDayGridComponent grid = new RecordingDayGridComponent();
+		grid.setSize(280, 210);
+		grid.setDateSelectionModel(selection);
+		grid.setMonthGrid(model.getMonthGrid(2023, 2, 0));
+
+		grid.repaints.clear();
+		grid.setMonthGrid(model.getMonthGrid(2023, 3, 0));
+		check("paging repaints a cell that is no longer selected",
+				grid.isRepainted(7));
+		check("paging repaints the changed day numbers", grid.isRepainted(31));
+		check("paging doesn't repaint the unchanged cells",
+				!grid.isRepainted(8));
+
+		grid.repaints.clear();
+		grid.setMonthGrid(model.getMonthGrid(2023, 2, 0));
+		check("paging back repaints the selected cell", grid.isRepainted(7));
+
+		grid.addPendingEpochDay(MonthGrid.epochDay(2023, 2, 10));
+		grid.repaints.clear();
+		grid.setMonthGrid(model.getMonthGrid(2023, 3, 0));
+		check("paging repaints the cell of a pending day", grid.isRepainted(12));
+
+		int firstDay = MonthGrid.epochDay(1900, 1, 1);
+		int lastDay = MonthGrid.epochDay(2199, 12, 31);
+		grid.addPendingEpochDay(firstDay);
+		grid.addPendingEpochDay(lastDay);
+		grid.removePendingEpochDay(lastDay);
+		check("pending days far apart are kept apart",
+				grid.isPendingEpochDay(firstDay) && !grid.isPendingEpochDay(lastDay)
+						&& !grid.isPendingEpochDay(MonthGrid.epochDay(2000, 1, 1)));
+
+		grid.addPendingEpochDay(MonthGrid.epochDay(2023, 3, 10));
+		grid.repaints.clear();
+		grid.clearPendingEpochDays();
+		check("clearing the pending days repaints their cells",
+				grid.isRepainted(12) && !grid.isRepainted(13)
+						&& !grid.isPendingEpochDay(firstDay)
+						&& !grid.isPendingEpochDay(MonthGrid.epochDay(2023, 2, 10)));
+	}
+
+	private void checkShortDateParser() {
+		check("a typed date is parsed", ShortDateParser.parse("7/16/21", null)
+				== MonthGrid.epochDay(2021, 7, 16));
+		check("a four digit year and dashes are parsed",
+				ShortDateParser.parse(" 7-16-1921 ", null)
+						== MonthGrid.epochDay(1921, 7, 16));
+		check("a date being typed is incomplete",
+				ShortDateParser.parse("", null) == ShortDateParser.INCOMPLETE
+						&& ShortDateParser.parse("7/1", null)
+								== ShortDateParser.INCOMPLETE
+						&& ShortDateParser.parse("7/16/2", null)
+								== ShortDateParser.INCOMPLETE
+						&& ShortDateParser.parse("7/16/202", null)
+								== ShortDateParser.INCOMPLETE);
+		check("a date that can't be completed is invalid",
+				ShortDateParser.parse("13/", null) == ShortDateParser.INVALID
+						&& ShortDateParser.parse("2/30", null)
+								== ShortDateParser.INVALID
+						&& ShortDateParser.parse("0/", null)
+								== ShortDateParser.INVALID
+						&& ShortDateParser.parse("7/16/20211", null)
+								== ShortDateParser.INVALID
+						&& ShortDateParser.parse("7/x", null)
+								== ShortDateParser.INVALID);
+		check("29 February needs a leap year",
+				ShortDateParser.parse("2/29/00", null)
+						== MonthGrid.epochDay(2000, 2, 29)
+						&& ShortDateParser.parse("2/29/01", null)
+								== ShortDateParser.INVALID);
+
+		CalendarModel birthDates = CalendarModel.builder()
+				.setLatestDate(LocalDate.of(2021, 7, 16)).build();
+		check("a two digit year is in the last century when only that's allowed",
+				ShortDateParser.parse("5/3/70", birthDates)
+						== MonthGrid.epochDay(1970, 5, 3));
+		check("a two digit year is in this century when that's allowed",
+				ShortDateParser.parse("5/3/20", birthDates)
+						== MonthGrid.epochDay(2020, 5, 3));
+	}
+
+	private void checkDateValidationLoader() throws Exception {
+		LocalDate date = LocalDate.of(2023, 2, 5);
+		int epochDay = (int) date.toEpochDay();
+
+		InMemoryDateValidator validator = new InMemoryDateValidator(0L);
+		validator.reject(date.plusDays(1L));
+		DateValidationLoader loader = new DateValidationLoader(validator, 1000);
+		check("the validator accepts a date", validate(loader, epochDay)
+				&& validator.getCallCount() == 1);
+		check("a verdict is cached", isCached(loader, epochDay));
+		check("a cached verdict isn't asked for again",
+				validate(loader, epochDay) && validator.getCallCount() == 1);
+		check("the validator rejects a date", !validate(loader, epochDay + 1));
+		check("a rejection is cached", isCached(loader, epochDay + 1)
+				&& !validate(loader, epochDay + 1)
+				&& validator.getCallCount() == 2);
+
+		boolean[] rangeVerdicts = validateRange(loader, epochDay, epochDay + 9)
+				.get(5L, TimeUnit.SECONDS);
+		check("a range is validated with one call",
+				validator.getCallCount() == 3 && rangeVerdicts.length == 10
+						&& rangeVerdicts[0] && !rangeVerdicts[1]
+						&& rangeVerdicts[9]);
+		DateValidator dayValidator = new DateValidator() {
+			@Override
+			public boolean isValid(LocalDate date) {
+				return date.getDayOfMonth() != 6;
+			}
+		};
+		check("the default range method asks about each day",
+				Arrays.equals(new boolean[] { true, false, true },
+						dayValidator.areValid(date, date.plusDays(2L))));
+		DateValidationLoader shortLoader = new DateValidationLoader(
+				new DateValidator() {
+					@Override
+					public boolean isValid(LocalDate date) {
+						return true;
+					}
+
+					@Override
+					public boolean[] areValid(LocalDate firstDate,
+							LocalDate lastDate) {
+						return new boolean[] { true };
+					}
+				}, 1000);
+		check("a range answer of the wrong length rejects the range",
+				Arrays.equals(new boolean[3], validateRange(shortLoader, epochDay,
+						epochDay + 2).get(5L, TimeUnit.SECONDS)));
+
+		InMemoryDateValidator slowValidator = new InMemoryDateValidator(1000L);
+		DateValidationLoader slowLoader = new DateValidationLoader(slowValidator,
+				50);
+		final AtomicInteger deliveries = new AtomicInteger();
+		long startNanos = System.nanoTime();
+		boolean timedOut = !validate(slowLoader, epochDay, deliveries);
+		long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000L;
+		check("a slow verdict times out", timedOut && elapsedMillis < 900L);
+		TimeUnit.MILLISECONDS.sleep(1200L);
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				// Flushes any late delivery
+			}
+		});
+		check("a late verdict isn't delivered", deliveries.get() == 1);
+		check("a timed out verdict isn't cached", 
+				!isCached(slowLoader, epochDay));
+
+		check("two more slow verdicts time out",
+				!validate(slowLoader, epochDay + 1)
+						&& !validate(slowLoader, epochDay + 2));
+		slowValidator.setLatencyMillis(0L);
+		int callCount = slowValidator.getCallCount();
+		startNanos = System.nanoTime();
+		check("a timed out date is asked again", validate(slowLoader, epochDay)
+				&& slowValidator.getCallCount() == callCount + 1);
+		elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000L;
+		check("timed out calls don't keep the pool threads", 
+				elapsedMillis < 500L);
+
+		final AtomicInteger failingCalls = new AtomicInteger();
+		DateValidationLoader failingLoader = new DateValidationLoader(
+				new DateValidator() {
+					@Override
+					public boolean isValid(LocalDate date) {
+						if (failingCalls.incrementAndGet() == 1) {
+							throw new IllegalStateException("Backend down");
+						}
+						return true;
+					}
+				}, 1000);
+		check("an exception rejects the date", !validate(failingLoader, epochDay)
+				&& !isCached(failingLoader, epochDay));
+		check("a date is asked again after an exception",
+				validate(failingLoader, epochDay) && failingCalls.get() == 2);
+
+		final CountDownLatch release = new CountDownLatch(1);
+		final AtomicInteger blockedCalls = new AtomicInteger();
+		DateValidator blockedValidator = new DateValidator() {
+			@Override
+			public boolean isValid(LocalDate date) {
+				blockedCalls.incrementAndGet();
+				boolean interrupted = false;
+				while (release.getCount() > 0L) {
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						interrupted = true;
+					}
+				}
+				if (interrupted) {
+					Thread.currentThread().interrupt();
+				}
+				return true;
+			}
+		};
+		DateValidationLoader busyLoader = new DateValidationLoader(
+				blockedValidator, 100);
+		List<CompletableFuture<Boolean>> busyVerdicts = validateAll(busyLoader,
+				epochDay, 3);
+		check("a call waiting in the queue times out",
+				!busyVerdicts.get(2).get(5L, TimeUnit.SECONDS)
+						&& !busyVerdicts.get(0).get(5L, TimeUnit.SECONDS));
+
+		final DateValidationLoader queuedLoader = new DateValidationLoader(
+				blockedValidator, 5000);
+		List<CompletableFuture<Boolean>> queuedVerdicts = validateAll(
+				queuedLoader, epochDay + 10, 65);
+		check("a date is rejected at once while the queue is full",
+				!queuedVerdicts.get(63).isDone() && queuedVerdicts.get(64).isDone()
+						&& !queuedVerdicts.get(64).get()
+						&& !isCached(queuedLoader, epochDay + 74));
+
+		cancelWaitingCalls(queuedLoader, epochDay + 10, epochDay + 20);
+		CompletableFuture<boolean[]> replacedRange = validateRange(queuedLoader,
+				epochDay + 15, epochDay + 25);
+		CompletableFuture<boolean[]> pagedRange = validateRange(queuedLoader,
+				epochDay + 100, epochDay + 102);
+		cancelWaitingCalls(queuedLoader, epochDay + 10, epochDay + 20);
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				// Flushes the delivery of the cancelled range call
+			}
+		});
+		boolean pagedOut = pagedRange.isDone();
+		CompletableFuture<boolean[]> keptRange = validateRange(queuedLoader,
+				epochDay + 18, epochDay + 40);
+		cancelWaitingCalls(queuedLoader, epochDay + 10, epochDay + 20);
+		release.countDown();
+		int cancelled = 0;
+		int accepted = 0;
+		for (int index = 0; index < 64; index++) {
+			Boolean valid = queuedVerdicts.get(index).get(5L, TimeUnit.SECONDS);
+			if (valid == null) {
+				cancelled++;
+			} else if (valid) {
+				accepted++;
+			}
+		}
+		boolean[] keptVerdicts = keptRange.get(5L, TimeUnit.SECONDS);
+		check("paging cancels the waiting calls of the days out of view",
+				cancelled == 53 && accepted == 11
+						&& blockedCalls.get() == 13 + 23);
+		check("a new range call replaces a waiting one",
+				replacedRange.get(5L, TimeUnit.SECONDS) == null);
+		check("paging keeps only a waiting range call in view",
+				pagedOut && pagedRange.get() == null
+						&& keptVerdicts.length == 23 && keptVerdicts[0]
+						&& keptVerdicts[22]);
+		check("a cancelled date is asked again",
+				validate(queuedLoader, epochDay + 30)
+						&& blockedCalls.get() == 13 + 23 + 1);
+	}
+
+	/**
+	 * This method pages through 30 months while the provider is blocked, like
+	 * a slow backend during rapid paging. Only the two running loads and the
+	 * loads of the last month and its neighbors should reach the provider.
+	 */
+	private void checkDayAnnotationLoader() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		final AtomicInteger calls = new AtomicInteger();
+		final DayAnnotationLoader loader = new DayAnnotationLoader(
+				new DayAnnotationProvider() {
+					@Override
+					public String[] getAnnotations(int year, int month) {
+						calls.incrementAndGet();
+						try {
+							release.await();
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+						return new String[] { year + "-" + month };
+					}
+				});
+
+		final CompletableFuture<String[]> lastMonth = new CompletableFuture<>();
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				for (int month = 0; month < 30; month++) {
+					final boolean last = (month == 29);
+					loader.load(2020 + month / 12, month % 12 + 1,
+							new Consumer<String[]>() {
+								@Override
+								public void accept(String[] annotations) {
+									if (last) {
+										lastMonth.complete(annotations);
+									}
+								}
+							});
+				}
+			}
+		});
+		release.countDown();
+
+		String[] annotations = lastMonth.get(5L, TimeUnit.SECONDS);
+		check("the month paged to gets its annotations", 
+				"2022-6".equals(annotations[0]));
+		check("rapid paging doesn't queue a load per month", calls.get() <= 5);
+	}
+
+	/**
+	 * This method checks the annual rules in years inside and outside the
+	 * bitmaps built with the calendar, 1900 to 2099, and the merging of
+	 * overlapping, adjacent and nested blackouts in June 2023.
+	 */
+	private void checkHolidayCalendar() {
+		HolidayCalendar holidays = HolidayCalendar.builder("Checks")
+				.addDayOfWeekInMonth(Month.MAY, -1, DayOfWeek.MONDAY)
+				.addAnnualHoliday(Month.JULY, 4)
+				.addBlackout(LocalDate.of(2023, 6, 1), LocalDate.of(2023, 6, 20))
+				.addBlackout(LocalDate.of(2023, 6, 3), LocalDate.of(2023, 6, 4))
+				.addBlackout(LocalDate.of(2023, 6, 6), LocalDate.of(2023, 6, 7))
+				.addBlackout(LocalDate.of(2023, 6, 10), LocalDate.of(2023, 6, 15))
+				.addBlackout(LocalDate.of(2023, 6, 21), LocalDate.of(2023, 6, 22))
+				.addBlackout(LocalDate.of(2023, 6, 25), LocalDate.of(2023, 6, 26))
+				.build();
+		check("the last Monday of a May with five Mondays is excluded",
+				holidays.isExcluded(LocalDate.of(2023, 5, 29))
+						&& !holidays.isExcluded(LocalDate.of(2023, 5, 22)));
+		check("the last Monday of a May with four Mondays is excluded",
+				holidays.isExcluded(LocalDate.of(2024, 5, 27))
+						&& !holidays.isExcluded(LocalDate.of(2024, 5, 20)));
+
+		int excludedCount = 0;
+		LocalDate date = LocalDate.of(2023, 5, 31);
+		while (date.getMonthValue() < 7) {
+			if (holidays.isExcluded(date)) {
+				excludedCount++;
+			}
+			date = date.plusDays(1L);
+		}
+		check("overlapping and adjacent blackouts are merged",
+				excludedCount == 24
+						&& holidays.isExcluded(LocalDate.of(2023, 6, 9))
+						&& holidays.isExcluded(LocalDate.of(2023, 6, 22))
+						&& !holidays.isExcluded(LocalDate.of(2023, 6, 23))
+						&& holidays.isExcluded(LocalDate.of(2023, 6, 26)));
+
+		check("the annual rules hold in the prebuilt years",
+				hasAnnualHolidaysOnly(holidays, 1900)
+						&& hasAnnualHolidaysOnly(holidays, 2024)
+						&& hasAnnualHolidaysOnly(holidays, 2099));
+		check("the annual rules hold outside the prebuilt years",
+				hasAnnualHolidaysOnly(holidays, 1899)
+						&& hasAnnualHolidaysOnly(holidays, 2100)
+						&& hasAnnualHolidaysOnly(holidays, 2150));
+	}
+
+	/**
+	 * This method returns whether the only excluded days of a year are July 4
+	 * and the last Monday of May.
+	 */
+	private static boolean hasAnnualHolidaysOnly(HolidayCalendar holidays,
+			int year) {
+		LocalDate memorialDay = LocalDate.of(year, 5, 1)
+				.with(TemporalAdjusters.lastInMonth(DayOfWeek.MONDAY));
+		LocalDate independenceDay = LocalDate.of(year, 7, 4);
+		LocalDate date = LocalDate.of(year, 1, 1);
+		while (date.getYear() == year) {
+			boolean holiday = date.equals(memorialDay)
+					|| date.equals(independenceDay);
+			if (holidays.isExcluded(date) != holiday) {
+				return false;
+			}
+			date = date.plusDays(1L);
+		}
+		return true;
+	}
+
+	/**
+	 * This method checks the month bounds and the clamp of a model whose
+	 * earliest and latest dates are in the middle of their months, and the
+	 * month arithmetic against <code>LocalDate</code>.
+	 */
+	private void checkCalendarModel() {
+		CalendarModel model = CalendarModel.builder()
+				.setEarliestDate(LocalDate.of(1995, 3, 15))
+				.setLatestDate(LocalDate.of(2040, 9, 15)).build();
+		check("the months of the earliest and latest dates are in bounds",
+				model.isMonthInBounds(1995, 3) && model.isMonthInBounds(2040, 9)
+						&& model.isMonthInBounds(LocalDate.of(1995, 3, 1))
+						&& model.isMonthInBounds(LocalDate.of(2040, 9, 30)));
+		check("the month before the earliest date is out of bounds",
+				!model.isMonthInBounds(1995, 2)
+						&& !model.isMonthInBounds(LocalDate.of(1995, 2, 28)));
+		check("the month after the latest date is out of bounds",
+				!model.isMonthInBounds(2040, 10)
+						&& !model.isMonthInBounds(LocalDate.of(2040, 10, 1)));
+
+		LocalDate date = LocalDate.of(2000, 1, 1);
+		check("clamp moves a date inside the bounds",
+				LocalDate.of(1995, 3, 15).equals(model.clamp(
+						LocalDate.of(1995, 3, 1)))
+						&& LocalDate.of(2040, 9, 15).equals(model.clamp(
+								LocalDate.of(2041, 1, 1)))
+						&& model.clamp(date) == date);
+		LocalDate first = LocalDate.of(1, 1, 1);
+		LocalDate last = LocalDate.of(9999, 12, 31);
+		check("clamp keeps a date when there are no bounds",
+				CalendarModel.getDefault().clamp(first) == first
+						&& CalendarModel.getDefault().clamp(last) == last);
+
+		boolean matches = true;
+		LocalDate day = LocalDate.of(1899, 12, 28);
+		while (day.getYear() < 1902) {
+			for (int months = -25; months <= 25; months++) {
+				if (model.plusMonths((int) day.toEpochDay(), months)
+						!= day.plusMonths(months).toEpochDay()) {
+					matches = false;
+				}
+			}
+			day = day.plusDays(day.getYear() == 1900 ? 365L : 1L);
+		}
+		check("plusMonths matches LocalDate and cuts the day to the month",
+				matches);
+		int epochDay = MonthGrid.epochDay(2023, 1, 31);
+		long farMonths = 5_500_000L * 12L;
+		check("plusMonths reaches the far years whose days fit in an int",
+				model.plusMonths(epochDay, farMonths) == LocalDate.of(2023, 1, 31)
+						.plusMonths(farMonths).toEpochDay());
+		boolean overflows = false;
+		try {
+			model.plusMonths(epochDay, 6_000_000L * 12L);
+		} catch (ArithmeticException e) {
+			overflows = true;
+		}
+		check("plusMonths rejects a day that doesn't fit in an int", overflows);
+	}
+
+	/**
+	 * This method builds specs from fresh colors, fonts and arrays, so only
+	 * value equality can make them equal, and changes one setting at a time.
+	 */
+	private void checkCalendarSpec() {
+		HolidayCalendar holidays = HolidayCalendar.builder("Checks")
+				.addAnnualHoliday(Month.JULY, 4).build();
+		CalendarSpec spec = createSpecBuilder(holidays).build();
+		CalendarSpec same = createSpecBuilder(holidays).build();
+		check("specs built alike are equal", spec.equals(same)
+				&& same.equals(spec) && spec.hashCode() == same.hashCode());
+
+		checkUnequal(spec, "panel background color", createSpecBuilder(holidays)
+				.setPanelBackGroundColor(new Color(255, 255, 241)));
+		checkUnequal(spec, "panel foreground color", createSpecBuilder(holidays)
+				.setPanelForegroundColor(new Color(0, 0, 129)));
+		checkUnequal(spec, "day highlight color", createSpecBuilder(holidays)
+				.setDayHighlightColor(new Color(255, 201, 0)));
+		checkUnequal(spec, "font", createSpecBuilder(holidays)
+				.setFont(new Font(Font.DIALOG, Font.BOLD, 15)));
+		checkUnequal(spec, "start day of the week", createSpecBuilder(holidays)
+				.setDayNames(DayOfWeek.SUNDAY, createDayNames("Mon")));
+		checkUnequal(spec, "day names", createSpecBuilder(holidays)
+				.setDayNames(DayOfWeek.MONDAY, createDayNames("Mo")));
+		String[] monthNames = createMonthNames();
+		monthNames[11] = "Dez";
+		checkUnequal(spec, "month names", createSpecBuilder(holidays)
+				.setMonthNames(monthNames));
+		checkUnequal(spec, "chronology", createSpecBuilder(holidays)
+				.setChronology(ThaiBuddhistChronology.INSTANCE)
+				.setMonthNames(createMonthNames()));
+		checkUnequal(spec, "days to exclude", createSpecBuilder(holidays)
+				.setDaysToExclude(DayOfWeek.SATURDAY));
+		checkUnequal(spec, "holiday calendar", createSpecBuilder(holidays)
+				.setHolidayCalendar(null));
+		checkUnequal(spec, "earliest date", createSpecBuilder(holidays)
+				.setEarliestDate(LocalDate.of(2000, 1, 2)));
+		checkUnequal(spec, "latest date", createSpecBuilder(holidays)
+				.setLatestDate(LocalDate.of(2030, 12, 30)));
+		checkUnequal(spec, "calendar model", createSpecBuilder(holidays)
+				.setCalendarModel(CalendarModel.getDefault()));
+		checkUnequal(spec, "selection mode", createSpecBuilder(holidays)
+				.setSelectionMode(DateSelectionModel.Mode.RANGE));
+
+		CalendarSpec nullColors = createSpecBuilder(holidays)
+				.setPanelBackGroundColor(null).setPanelForegroundColor(null)
+				.setDayHighlightColor(null).build();
+		CalendarSpec sameNullColors = createSpecBuilder(holidays)
+				.setPanelBackGroundColor(null).setPanelForegroundColor(null)
+				.setDayHighlightColor(null).build();
+		check("specs with null colors can be compared",
+				nullColors.equals(sameNullColors)
+						&& nullColors.hashCode() == sameNullColors.hashCode()
+						&& !nullColors.equals(spec) && !spec.equals(nullColors));
+	}
+
+	private void checkUnequal(CalendarSpec spec, String setting,
+			CalendarSpec.Builder changed) {
+		CalendarSpec other = changed.build();
+		check("a different " + setting + " makes the specs unequal",
+				!spec.equals(other) && !other.equals(spec));
+	}
+
+	private static CalendarSpec.Builder createSpecBuilder(
+			HolidayCalendar holidays) {
+		return CalendarSpec.builder()
+				.setPanelBackGroundColor(new Color(255, 255, 240))
+				.setPanelForegroundColor(new Color(0, 0, 128))
+				.setDayHighlightColor(new Color(255, 200, 0))
+				.setFont(new Font(Font.DIALOG, Font.BOLD, 14))
+				.setDayNames(DayOfWeek.MONDAY, createDayNames("Mon"))
+				.setMonthNames(createMonthNames())
+				.setDaysToExclude(DayOfWeek.SUNDAY)
+				.setHolidayCalendar(holidays)
+				.setEarliestDate(LocalDate.of(2000, 1, 1))
+				.setLatestDate(LocalDate.of(2030, 12, 31))
+				.setSelectionMode(DateSelectionModel.Mode.MULTIPLE);
+	}
+
+	private static String[] createDayNames(String monday) {
+		return new String[] { monday, "Tue", "Wed", "Thu", "Fri", "Sat", "Sun" };
+	}
+
+	private static String[] createMonthNames() {
+		return new String[] { "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul",
+				"Aug", "Sep", "Oct", "Nov", "Dec" };
+	}
+
+	/**
+	 * This method writes a day data file from 1 February 2023, and reads it
+	 * while it's written, overwritten and grown.
+	 */
+	private void checkDayDataIndex() throws IOException {
+		Path directory = Files.createTempDirectory("checks");
+		Path path = directory.resolve("checks.jcdi");
+		Path badPath = directory.resolve("bad.jcdi");
+		int firstEpochDay = MonthGrid.epochDay(2023, 2, 1);
+		try (DayDataWriter writer = DayDataWriter.create(path,
+				LocalDate.of(2023, 2, 1))) {
+			writer.put(firstEpochDay + 2, 3, 10, 0);
+			writer.put(firstEpochDay + 9, 5, 5, 0);
+			writer.put(firstEpochDay + 10, 9, 0, 0);
+			writer.put(firstEpochDay + 11, 0, 0, DayDataIndex.FLAG_CLOSED);
+			writer.put(firstEpochDay + 13, 0, 0,
+					0x8000 | DayDataIndex.FLAG_CLOSED);
+
+			try (DayDataIndex index = DayDataIndex.open(path)) {
+				check("a day is read back",
+						index.getCount(firstEpochDay + 2) == 3
+								&& index.getCapacity(firstEpochDay + 2) == 10);
+				check("the days of a gap are empty",
+						index.getDayCount() == 14
+								&& index.getCount(firstEpochDay + 1) == 0
+								&& index.getCapacity(firstEpochDay + 1) == 0
+								&& !index.isClosed(firstEpochDay + 1));
+				check("a day before the first day is empty and open",
+						index.getCount(firstEpochDay - 1) == 0
+								&& index.getFlags(firstEpochDay - 1) == 0
+								&& !index.isClosed(firstEpochDay - 1));
+				check("the flags are read unsigned",
+						index.getFlags(firstEpochDay + 13)
+								== (0x8000 | DayDataIndex.FLAG_CLOSED));
+
+				writer.put(firstEpochDay + 2, 7, 10, 0);
+				check("a day overwritten in place is read at once",
+						index.getCount(firstEpochDay + 2) == 7);
+
+				// February 2023 starts on a Wednesday, in cell 3
+				CalendarModel model = CalendarModel.getDefault();
+				MonthGrid february = model.getMonthGrid(2023, 2, 0);
+				check("a closed flag and a reached capacity close a day",
+						index.getClosedMask(february)
+								== (1L << 12 | 1L << 14 | 1L << 16));
+
+				writer.put(MonthGrid.epochDay(2023, 3, 20), 0, 0,
+						DayDataIndex.FLAG_CLOSED);
+				index.refresh();
+				MonthGrid march = model.getMonthGrid(2023, 3, 0);
+				check("the appended days are read after a refresh",
+						index.getDayCount() == 48
+								&& index.getClosedMask(march) == 1L << 22);
+			}
+
+			boolean rejected = false;
+			try {
+				writer.put(firstEpochDay - 1, 1, 0, 0);
+			} catch (InvalidParameterException e) {
+				rejected = true;
+			}
+			check("a day before the first day isn't written", rejected);
+
+			Files.write(badPath, "JCDX0000000000000000".getBytes("US-ASCII"));
+			check("a file with a bad header isn't opened",
+					isRejected(badPath));
+			Files.write(badPath, "JCDI".getBytes("US-ASCII"));
+			check("a file shorter than the header isn't opened",
+					isRejected(badPath));
+		} finally {
+			Files.deleteIfExists(path);
+			Files.deleteIfExists(badPath);
+			Files.delete(directory);
+		}
+	}
+
+	private static boolean isRejected(Path path) {
+		try (DayDataIndex index = DayDataIndex.open(path)) {
+			return false;
+		} catch (IOException e) {
+			return true;
+		}
+	}
+
+	private void checkChronologyTable() {
+		ChronologyTable iso = ChronologyTable.of(IsoChronology.INSTANCE);
+		check("the ISO table covers 1900 to 2199",
+				iso.getFirstYear() == 1900 && iso.getLastYear() == 2199
+						&& iso.getMonthCount() == 300 * 12
+						&& hasChronologyMonths(iso));
+		ChronologyTable thai = ChronologyTable.of(ThaiBuddhistChronology.INSTANCE);
+		check("the Thai Buddhist table covers 1900 to 2199 ISO",
+				thai.getFirstYear() == 2443 && thai.getLastYear() == 2742
+						&& hasChronologyMonths(thai));
+		check("the Minguo table has the months of the chronology",
+				hasChronologyMonths(ChronologyTable.of(MinguoChronology.INSTANCE)));
+		ChronologyTable hijrah = ChronologyTable.of(HijrahChronology.INSTANCE);
+		check("the Hijrah table is cut to the supported years",
+				hijrah.getFirstEpochDay() == HijrahChronology.INSTANCE
+						.date(hijrah.getFirstYear(), 1, 1).toEpochDay()
+						&& hasChronologyMonths(hijrah));
+
+		boolean rejected = false;
+		try {
+			ChronologyTable.of(new ThirteenMonthChronology());
+		} catch (InvalidParameterException e) {
+			rejected = true;
+		} catch (DateTimeException e) {
+			// The 13th month was read as an ISO month
+		}
+		check("a chronology with more than 12 months is rejected", rejected);
+	}
+
+	/**
+	 * This method returns whether the first day, the length and the month
+	 * index of every month of a table match the dates of its chronology.
+	 */
+	private static boolean hasChronologyMonths(ChronologyTable table) {
+		Chronology chronology = table.getChronology();
+		int monthIndex = 0;
+		for (int year = table.getFirstYear(); year <= table.getLastYear();
+				year++) {
+			for (int month = 1; month <= table.getMonthsInYear(year); month++) {
+				ChronoLocalDate date = chronology.date(year, month, 1);
+				int firstEpochDay = table.getFirstEpochDay(monthIndex);
+				int lastEpochDay = firstEpochDay
+						+ table.lengthOfMonth(monthIndex) - 1;
+				if (table.getMonthIndex(year, month) != monthIndex
+						|| table.getYear(monthIndex) != year
+						|| table.getMonth(monthIndex) != month
+						|| firstEpochDay != date.toEpochDay()
+						|| table.lengthOfMonth(monthIndex) != date.lengthOfMonth()
+						|| table.getMonthIndex(firstEpochDay) != monthIndex
+						|| table.getMonthIndex(lastEpochDay) != monthIndex) {
+					return false;
+				}
+				monthIndex++;
+			}
+		}
+		return monthIndex == table.getMonthCount();
+	}
+
+	private void checkDateTextService() {
+		DateTextService us = DateTextService.getInstance(Locale.US);
+		DateTextService france = DateTextService.getInstance(Locale.FRANCE);
+		check("each locale has one shared service",
+				us == DateTextService.getInstance(Locale.US) && us != france
+						&& us.getLocale().equals(Locale.US)
+						&& france.getLocale().equals(Locale.FRANCE));
+		check("the day names rotate to the start of the week",
+				hasDayNames(us, Locale.US) && hasDayNames(france, Locale.FRANCE));
+		check("the month names start with January",
+				us.getMonthNames()[0].equals("January")
+						&& us.getMonthName(12).equals("December")
+						&& france.getMonthNames()[6].equals("juillet"));
+
+		LocalDate date = LocalDate.of(2021, 7, 16);
+		String text = us.format(date, "EEEE, MMMM d, yyyy");
+		check("a date formats with the locale of its service",
+				text.equals("Friday, July 16, 2021")
+						&& france.format(date, "EEEE d MMMM yyyy")
+								.equals("vendredi 16 juillet 2021")
+						&& france.format(date, "MMMM").equals("juillet")
+						&& us.format(date, "MMMM").equals("July"));
+		check("a formatted date is reused from the cache",
+				us.format(LocalDate.of(2021, 7, 16), "EEEE, MMMM d, yyyy") == text);
+
+		LocalDate sameSlot = date.plusDays(512);
+		check("dates in the same cache slot keep their own text",
+				us.format(sameSlot, "M/d/yy").equals("12/10/22")
+						&& us.format(date, "M/d/yy").equals("7/16/21")
+						&& us.format(sameSlot, "M/d/yy").equals("12/10/22"));
+	}
+
+	private static boolean hasDayNames(DateTextService service, Locale locale) {
+		for (DayOfWeek startDayOfWeek : DayOfWeek.values()) {
+			String[] dayNames = service.getDayNames(startDayOfWeek);
+			if (dayNames.length != 7) {
+				return false;
+			}
+			for (int index = 0; index < dayNames.length; index++) {
+				String dayName = startDayOfWeek.plus(index)
+						.getDisplayName(TextStyle.SHORT, locale);
+				if (!dayNames[index].equals(dayName)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private static boolean validate(DateValidationLoader loader, int epochDay)
+			throws Exception {
+		return validate(loader, epochDay, new AtomicInteger());
+	}
+
+	/**
+	 * This method validates a date on the Event Dispatch Thread, and waits for
+	 * the verdict.
+	 */
+	private static boolean validate(final DateValidationLoader loader,
+			final int epochDay, final AtomicInteger deliveries) throws Exception {
+		final CompletableFuture<Boolean> verdict = new CompletableFuture<>();
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				loader.validate(epochDay, new Consumer<Boolean>() {
+					@Override
+					public void accept(Boolean valid) {
+						deliveries.incrementAndGet();
+						verdict.complete(valid);
+					}
+				});
+			}
+		});
+		return verdict.get(5L, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * This method validates a run of dates on the Event Dispatch Thread, and
+	 * returns their verdicts, which may still be on their way.
+	 */
+	private static List<CompletableFuture<Boolean>> validateAll(
+			final DateValidationLoader loader, final int firstEpochDay,
+			final int count) throws Exception {
+		final List<CompletableFuture<Boolean>> verdicts = new ArrayList<>();
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				for (int index = 0; index < count; index++) {
+					final CompletableFuture<Boolean> verdict =
+							new CompletableFuture<>();
+					verdicts.add(verdict);
+					loader.validate(firstEpochDay + index, new Consumer<Boolean>() {
+						@Override
+						public void accept(Boolean valid) {
+							verdict.complete(valid);
+						}
+					});
+				}
+			}
+		});
+		return verdicts;
+	}
+
+	/**
+	 * This method validates a range of dates on the Event Dispatch Thread, and
+	 * returns its verdicts, which may still be on their way.
+	 */
+	private static CompletableFuture<boolean[]> validateRange(
+			final DateValidationLoader loader, final int firstEpochDay,
+			final int lastEpochDay) throws Exception {
+		final CompletableFuture<boolean[]> verdicts = new CompletableFuture<>();
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				loader.validateRange(firstEpochDay, lastEpochDay,
+						new Consumer<boolean[]>() {
+							@Override
+							public void accept(boolean[] valid) {
+								verdicts.complete(valid);
+							}
+						});
+			}
+		});
+		return verdicts;
+	}
+
+	private static void cancelWaitingCalls(final DateValidationLoader loader,
+			final int firstEpochDay, final int lastEpochDay) throws Exception {
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				loader.cancelWaitingCalls(firstEpochDay, lastEpochDay);
+			}
+		});
+	}
+
+	private static boolean isCached(final DateValidationLoader loader,
+			final int epochDay) throws Exception {
+		final boolean[] cached = new boolean[1];
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				cached[0] = loader.isCached(epochDay);
+			}
+		});
+		return cached[0];
+	}
+
+	private void check(String name, boolean condition) {
+		checkCount++;
+		if (!condition) {
+			failures.add(name);
+		}
+	}
+
+	private boolean printResults() {
+		for (String failure : failures) {
+			System.out.println("FAILED: " + failure);
+		}
+		System.out.println(String.format("%d checks, %d failed", checkCount,
+				failures.size()));
+		return failures.isEmpty();
+	}
+
+	/**
+	 * <code>ThirteenMonthChronology</code> is the ISO calendar with a 13th
+	 * month in the range of its month of the year field, like the Coptic and
+	 * Ethiopic calendars.
+	 */
+	private static class ThirteenMonthChronology extends AbstractChronology {
+
+		@Override
+		public String getId() {
+			return "ThirteenMonth";
+		}
+
+		@Override
+		public String getCalendarType() {
+			return null;
+		}
+
+		@Override
+		public ChronoLocalDate date(int prolepticYear, int month,
+				int dayOfMonth) {
+			return new ThirteenMonthDate(this, LocalDate.of(prolepticYear, month,
+					dayOfMonth));
+		}
+
+		@Override
+		public ChronoLocalDate dateYearDay(int prolepticYear, int dayOfYear) {
+			return new ThirteenMonthDate(this, LocalDate.ofYearDay(prolepticYear,
+					dayOfYear));
+		}
+
+		@Override
+		public ChronoLocalDate dateEpochDay(long epochDay) {
+			return new ThirteenMonthDate(this, LocalDate.ofEpochDay(epochDay));
+		}
+
+		@Override
+		public ChronoLocalDate date(TemporalAccessor temporal) {
+			return dateEpochDay(temporal.getLong(ChronoField.EPOCH_DAY));
+		}
+
+		@Override
+		public boolean isLeapYear(long prolepticYear) {
+			return IsoChronology.INSTANCE.isLeapYear(prolepticYear);
+		}
+
+		@Override
+		public int prolepticYear(Era era, int yearOfEra) {
+			return IsoChronology.INSTANCE.prolepticYear(era, yearOfEra);
+		}
+
+		@Override
+		public Era eraOf(int eraValue) {
+			return IsoEra.of(eraValue);
+		}
+
+		@Override
+		public List<Era> eras() {
+			return Arrays.<Era>asList(IsoEra.values());
+		}
+
+		@Override
+		public ValueRange range(ChronoField field) {
+			return (field == ChronoField.MONTH_OF_YEAR) ? ValueRange.of(1, 13)
+					: IsoChronology.INSTANCE.range(field);
+		}
+
+	}
+
+	/**
+	 * <code>ThirteenMonthDate</code> is an ISO date of the
+	 * <code>ThirteenMonthChronology</code>.
+	 */
+	private static class ThirteenMonthDate implements ChronoLocalDate {
+
+		private final Chronology chronology;
+
+		private final LocalDate date;
+
+		public ThirteenMonthDate(Chronology chronology, LocalDate date) {
+			this.chronology = chronology;
+			this.date = date;
+		}
+
+		@Override
+		public Chronology getChronology() {
+			return chronology;
+		}
+
+		@Override
+		public int lengthOfMonth() {
+			return date.lengthOfMonth();
+		}
+
+		@Override
+		public ValueRange range(TemporalField field) {
+			return chronology.range((ChronoField) field);
+		}
+
+		@Override
+		public long getLong(TemporalField field) {
+			return date.getLong(field);
+		}
+
+		@Override
+		public ChronoLocalDate with(TemporalField field, long newValue) {
+			return new ThirteenMonthDate(chronology, date.with(field, newValue));
+		}
+
+		@Override
+		public ChronoLocalDate plus(long amountToAdd, TemporalUnit unit) {
+			return new ThirteenMonthDate(chronology, date.plus(amountToAdd, unit));
+		}
+
+		@Override
+		public long until(Temporal endExclusive, TemporalUnit unit) {
+			return date.until(endExclusive, unit);
+		}
+
+		@Override
+		public ChronoPeriod until(ChronoLocalDate endDateExclusive) {
+			return date.until(endDateExclusive);
+		}
+
+	}
+
+	/**
+	 * <code>RecordingDayGridComponent</code> records the areas it is asked to
+	 * repaint.
+	 */
+	private static class RecordingDayGridComponent extends DayGridComponent {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<Rectangle> repaints;
+
+		public RecordingDayGridComponent() {
+			super(new String[] { "Sun", "Mon", "Tue", "Wed", "Thu", "Fri",
+					"Sat" });
+			this.repaints = new ArrayList<>();
+		}
+
+		@Override
+		public void repaint(long tm, int x, int y, int width, int height) {
+			if (repaints != null) {
+				repaints.add(new Rectangle(x, y, width, height));
+			}
+		}
+
+		public boolean isRepainted(int index) {
+			Rectangle bounds = getCellBounds(index);
+			for (Rectangle repaint : repaints) {
+				if (repaint.contains(bounds)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+	}
+
+}
@@ -0,0 +1,378 @@
+package com.ggl.jcalendar;
+
+import java.awt.AWTException;
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.GraphicsEnvironment;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.Robot;
+import java.awt.Window;
+import java.awt.event.InputEvent;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import javax.swing.JButton;
+import javax.swing.SwingUtilities;
+
+import com.ggl.jcalendar.model.MonthGrid;
+import com.ggl.jcalendar.view.DayGridComponent;
+import com.ggl.jcalendar.view.JCalendar;
+import com.ggl.jcalendar.view.JCalendarFrame;
+import com.ggl.jcalendar.view.PickerMetrics;
+
+/**
+ * <p>
+ * <code>JCalendarLatencySuite</code> measures the latencies a user feels, from
+ * a real mouse click to the finished paint. A <code>java.awt.Robot</code>
+ * clicks through the <code>JCalendarFrame</code> subscription date: the
+ * calendar button opens the modal <code>JCalendar</code>, the next month
+ * button navigates, and a day click selects the date and closes the dialog.
+ * </p>
+ *
+ * <p>
+ * Each step is timed from the mouse press until the <code>JCalendar</code>
+ * has recorded the step's <code>PickerMetrics</code> metric and the event
+ * queue is idle, so the repaint the click caused is included. The open,
+ * navigate and select percentiles are printed, and the suite exits with
+ * status 1 when a percentile is over its budget, so it can fail a build.
+ * </p>
+ *
+ * <p>
+ * The suite needs a display, and is meant to run on a virtual one, where
+ * nothing else moves the mouse:
+ * </p>
+ *
+ * <pre>
+ * <code>
+ *    xvfb-run -a -s "-screen 0 1280x1024x24" java -cp classes
+ *            -Djcalendar.iterations=200 -Djcalendar.budget.open=250
+ *            com.ggl.jcalendar.JCalendarLatencySuite
+ * </code>
+ * </pre>
+ *
+ * <p>
+ * The system properties, and their defaults, are
+ * <code>jcalendar.iterations</code> (100), <code>jcalendar.warmup</code>
+ * (10), <code>jcalendar.percentile</code> (95),
+ * <code>jcalendar.timeout</code> (5000 milliseconds), and the budgets in
+ * milliseconds, <code>jcalendar.budget.open</code> (250),
+ * <code>jcalendar.budget.navigate</code> (100) and
+ * <code>jcalendar.budget.select</code> (150).
+ * </p>
+ */
+public class JCalendarLatencySuite {
+
+	private static final int DAY_TO_SELECT = 15;
+
+	private final double percentile;
+
+	private final int iterations;
+	private final int warmup;
+
+	private final long timeoutNanos;
+
+	private final MetricCounter counter;
+
+	private final Robot robot;
+
+	private final Step[] steps;
+
+	private JCalendarFrame calendarFrame;
+
+	public static void main(String[] args) throws Exception {
+		if (GraphicsEnvironment.isHeadless()) {
+			System.err.println("The latency suite needs a display. "
+					+ "Run it under xvfb-run.");
+			System.exit(2);
+		}
+
+		JCalendarLatencySuite suite = new JCalendarLatencySuite();
+		boolean passed = suite.run();
+		System.exit(passed ? 0 : 1);
+	}
+
+	public JCalendarLatencySuite() throws AWTException {
+		this.iterations = Integer.getInteger("jcalendar.iterations", 100);
+		this.warmup = Integer.getInteger("jcalendar.warmup", 10);
+		this.percentile = Double.parseDouble(
+				System.getProperty("jcalendar.percentile", "95"));
+		this.timeoutNanos = Integer.getInteger("jcalendar.timeout", 5000)
+				* 1_000_000L;
+		this.counter = new MetricCounter();
+		this.steps = new Step[] {
+				new Step("open",
+						Integer.getInteger("jcalendar.budget.open", 250), iterations),
+				new Step("navigate",
+						Integer.getInteger("jcalendar.budget.navigate", 100),
+						iterations),
+				new Step("select",
+						Integer.getInteger("jcalendar.budget.select", 150),
+						iterations) };
+
+		this.robot = new Robot();
+		this.robot.setAutoDelay(0);
+		this.robot.setAutoWaitForIdle(false);
+	}
+
+	/**
+	 * This method runs the warmup and the measured iterations, and prints the
+	 * report.
+	 *
+	 * @return <code>true</code> if every percentile is within its budget.
+	 */
+	public boolean run() throws Exception {
+		JCalendar.setDefaultPickerMetrics(counter);
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				calendarFrame = new JCalendarFrame();
+				calendarFrame.getFrame().toFront();
+			}
+		});
+		robot.waitForIdle();
+
+		for (int iteration = 0; iteration < warmup; iteration++) {
+			runIteration(false);
+		}
+		for (int iteration = 0; iteration < iterations; iteration++) {
+			runIteration(true);
+		}
+
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				calendarFrame.getFrame().dispose();
+			}
+		});
+		return printReport();
+	}
+
+	/**
+	 * This method opens the calendar, moves to the next month and selects a
+	 * day.
+	 */
+	private void runIteration(boolean measured) throws Exception {
+		Point calendarButton = getCenterOnScreen(
+				calendarFrame.getSubscriptionDateButtonField().getCalendarButton(),
+				null);
+		long openNanos = click(calendarButton, PickerMetrics.Metric.OPEN);
+
+		JCalendar calendar = findShowingCalendar();
+		Point nextMonthButton = getCenterOnScreen(
+				findNextMonthButton(calendar), null);
+		long navigateNanos = click(nextMonthButton,
+				PickerMetrics.Metric.NAVIGATION);
+
+		DayGridComponent dayGrid = findComponent(calendar, DayGridComponent.class);
+		Point day = getCenterOnScreen(dayGrid, getDayBounds(dayGrid));
+		long selectNanos = click(day, PickerMetrics.Metric.SELECTION);
+
+		if (measured) {
+			steps[0].add(openNanos);
+			steps[1].add(navigateNanos);
+			steps[2].add(selectNanos);
+		}
+	}
+
+	/**
+	 * This method clicks a point on the screen, and waits until the metric
+	 * is recorded and the event queue is idle.
+	 *
+	 * @return The latency, in nanoseconds.
+	 */
+	private long click(Point point, PickerMetrics.Metric metric) {
+		int count = counter.getCount(metric);
+		robot.mouseMove(point.x, point.y);
+		robot.waitForIdle();
+
+		long startNanos = System.nanoTime();
+		robot.mousePress(InputEvent.BUTTON1_DOWN_MASK);
+		robot.mouseRelease(InputEvent.BUTTON1_DOWN_MASK);
+		do {
+			robot.waitForIdle();
+			if (System.nanoTime() - startNanos > timeoutNanos) {
+				throw new IllegalStateException("No " + metric
+						+ " was recorded within the timeout");
+			}
+		} while (counter.getCount(metric) == count);
+		return System.nanoTime() - startNanos;
+	}
+
+	private static JCalendar findShowingCalendar() throws Exception {
+		final JCalendar[] calendar = new JCalendar[1];
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				for (Window window : Window.getWindows()) {
+					if (window instanceof JCalendar && window.isShowing()) {
+						calendar[0] = (JCalendar) window;
+					}
+				}
+			}
+		});
+		if (calendar[0] == null) {
+			throw new IllegalStateException("The JCalendar isn't showing");
+		}
+		return calendar[0];
+	}
+
+	private static JButton findNextMonthButton(Container container) {
+		for (Component component : container.getComponents()) {
+			if (component instanceof JButton
+					&& ">".equals(((JButton) component).getText())) {
+				return (JButton) component;
+			}
+			if (component instanceof Container) {
+				JButton button = findNextMonthButton((Container) component);
+				if (button != null) {
+					return button;
+				}
+			}
+		}
+		return null;
+	}
+
+	private static <T extends Component> T findComponent(Container container,
+			Class<T> type) {
+		for (Component component : container.getComponents()) {
+			if (type.isInstance(component)) {
+				return type.cast(component);
+			}
+			if (component instanceof Container) {
+				T found = findComponent((Container) component, type);
+				if (found != null) {
+					return found;
+				}
+			}
+		}
+		return null;
+	}
+
+	private static Rectangle getDayBounds(DayGridComponent dayGrid) {
+		MonthGrid monthGrid = dayGrid.getMonthGrid();
+		for (int index = 0; index < MonthGrid.CELL_COUNT; index++) {
+			if (monthGrid.getDayOfMonth(index) == DAY_TO_SELECT) {
+				return dayGrid.getCellBounds(index);
+			}
+		}
+		throw new IllegalStateException("The month has no day "
+				+ DAY_TO_SELECT);
+	}
+
+	/**
+	 * This method returns the screen location of the center of a component,
+	 * or of an area inside it, read on the Event Dispatch Thread.
+	 */
+	private static Point getCenterOnScreen(final Component component,
+			final Rectangle area) throws InterruptedException,
+			InvocationTargetException {
+		if (component == null) {
+			throw new IllegalStateException("The component to click isn't showing");
+		}
+		final Point[] center = new Point[1];
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				Rectangle bounds = (area == null) ? new Rectangle(
+						component.getSize()) : area;
+				Point point = new Point(bounds.x + bounds.width / 2,
+						bounds.y + bounds.height / 2);
+				SwingUtilities.convertPointToScreen(point, component);
+				center[0] = point;
+			}
+		});
+		return center[0];
+	}
+
+	private boolean printReport() {
+		boolean passed = true;
+		System.out.println(String.format("%-10s %6s %9s %9s %9s %9s %9s %9s %6s",
+				"Step", "Cnt", "p50", "p90", "p99", "max", "p" + formatPercentile(),
+				"budget", ""));
+		for (Step step : steps) {
+			double value = step.getPercentileMillis(percentile);
+			boolean withinBudget = value <= step.budgetMillis;
+			passed &= withinBudget;
+			System.out.println(String.format(
+					"%-10s %6d %9.2f %9.2f %9.2f %9.2f %9.2f %9d %6s", step.name,
+					step.count, step.getPercentileMillis(50.0),
+					step.getPercentileMillis(90.0), step.getPercentileMillis(99.0),
+					step.getPercentileMillis(100.0), value, step.budgetMillis,
+					withinBudget ? "PASS" : "FAIL"));
+		}
+		System.out.println("Latencies in milliseconds, from the mouse press "
+				+ "to the idle event queue");
+		return passed;
+	}
+
+	private String formatPercentile() {
+		return (percentile == Math.rint(percentile))
+				? Integer.toString((int) percentile) : Double.toString(percentile);
+	}
+
+	/**
+	 * <code>Step</code> keeps the latencies of one step of the iteration.
+	 */
+	private static class Step {
+
+		private final int budgetMillis;
+
+		private final long[] nanos;
+
+		private final String name;
+
+		private int count;
+
+		public Step(String name, int budgetMillis, int iterations) {
+			this.name = name;
+			this.budgetMillis = budgetMillis;
+			this.nanos = new long[iterations];
+			this.count = 0;
+		}
+
+		public void add(long latencyNanos) {
+			nanos[count++] = latencyNanos;
+		}
+
+		/**
+		 * This method returns a nearest rank percentile.
+		 */
+		public double getPercentileMillis(double percentile) {
+			if (count == 0) {
+				return 0.0;
+			}
+			long[] sorted = Arrays.copyOf(nanos, count);
+			Arrays.sort(sorted);
+			int rank = (int) Math.ceil(percentile / 100.0 * count);
+			int index = Math.max(0, Math.min(count, rank) - 1);
+			return sorted[index] / 1_000_000.0;
+		}
+
+	}
+
+	/**
+	 * <code>MetricCounter</code> counts the records of each metric, so the
+	 * suite knows when a step is done.
+	 */
+	private static class MetricCounter implements PickerMetrics {
+
+		private final AtomicIntegerArray counts;
+
+		public MetricCounter() {
+			this.counts = new AtomicIntegerArray(Metric.values().length);
+		}
+
+		@Override
+		public void record(Metric metric, long nanos) {
+			counts.incrementAndGet(metric.ordinal());
+		}
+
+		public int getCount(Metric metric) {
+			return counts.get(metric.ordinal());
+		}
+
+	}
+
+}
@@ -0,0 +1,591 @@
+package com.ggl.jcalendar.model;
+
+import java.security.InvalidParameterException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.chrono.Chronology;
+import java.time.chrono.IsoChronology;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+/**
+ * <p>
+ * <code>CalendarModel</code> is the month arithmetic of a
+ * <code>JCalendar</code>, without any Swing: the start day of the week, the
+ * excluded weekdays and holidays, and the earliest and latest dates. It
+ * computes the <code>MonthGrid</code> of a month, checks whether a day can be
+ * selected, and checks whether a month is inside the earliest and latest
+ * dates.
+ * </p>
+ *
+ * <p>
+ * A <code>CalendarModel</code> is immutable, and it has no shared mutable
+ * state, so one model may be used by any number of threads at once, on a
+ * server as well as in the Swing picker. Every method works on
+ * <code>int</code> epoch days and month indexes, and
+ * <code>getMonthGrid</code> allocates only the returned grid. Two models with
+ * the same settings are equal, so a model can be part of a cache key.
+ * </p>
+ *
+ * <p>
+ * The years and months of a model are those of its
+ * <code>Chronology</code>, ISO by default. A non-ISO model looks its months
+ * up in the shared <code>ChronologyTable</code> of its chronology, so it
+ * computes a month grid as fast as an ISO model does.
+ * </p>
+ *
+ * <pre>
+ * <code>
+ *    CalendarModel model = CalendarModel.builder()
+ *            .setStartDayOfWeek(DayOfWeek.MONDAY)
+ *            .setDaysToExclude(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY)
+ *            .setEarliestDate(LocalDate.now())
+ *            .build();
+ *    MonthGrid monthGrid = model.getMonthGrid(2021, 7, 0);
+ * </code>
+ * </pre>
+ *
+ * @see MonthGrid
+ * @see HolidayCalendar
+ * @see ChronologyTable
+ */
+public final class CalendarModel implements IntPredicate {
+
+	/** The ISO years, before and after 1970, whose days fit in an int. */
+	private static final int MAXIMUM_ISO_YEAR = 5000000;
+
+	private static final CalendarModel DEFAULT_MODEL = builder().build();
+
+	private final Chronology chronology;
+
+	/** The months of a non-ISO chronology, or null for ISO. */
+	private final ChronologyTable chronologyTable;
+
+	private final DayOfWeek startDayOfWeek;
+
+	private final int excludedWeekdayMask;
+	private final int earliestEpochDay;
+	private final int latestEpochDay;
+	private final int earliestMonthIndex;
+	private final int latestMonthIndex;
+
+	private final HolidayCalendar holidayCalendar;
+
+	private CalendarModel(Builder builder) {
+		this.chronology = builder.chronology;
+		this.chronologyTable = IsoChronology.INSTANCE.equals(chronology) ? null
+				: ChronologyTable.of(chronology);
+		this.startDayOfWeek = builder.startDayOfWeek;
+		this.excludedWeekdayMask = builder.excludedWeekdayMask;
+		this.holidayCalendar = builder.holidayCalendar;
+		this.earliestEpochDay = builder.earliestEpochDay;
+		this.latestEpochDay = builder.latestEpochDay;
+		this.earliestMonthIndex = (earliestEpochDay == MonthGrid.NO_EARLIEST_DATE)
+				? Integer.MIN_VALUE : getMonthIndex(earliestEpochDay);
+		this.latestMonthIndex = (latestEpochDay == MonthGrid.NO_LATEST_DATE)
+				? Integer.MAX_VALUE : getMonthIndex(latestEpochDay);
+	}
+
+	/**
+	 * This method returns the model with the default settings: weeks start on
+	 * Sunday, and every day can be selected.
+	 *
+	 * @return The shared default model.
+	 */
+	public static CalendarModel getDefault() {
+		return DEFAULT_MODEL;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * This method returns a builder with the settings of this model, to build
+	 * a model that differs in a few settings.
+	 *
+	 * @return A new builder.
+	 */
+	public Builder toBuilder() {
+		Builder builder = new Builder();
+		builder.chronology = chronology;
+		builder.startDayOfWeek = startDayOfWeek;
+		builder.excludedWeekdayMask = excludedWeekdayMask;
+		builder.holidayCalendar = holidayCalendar;
+		builder.earliestEpochDay = earliestEpochDay;
+		builder.latestEpochDay = latestEpochDay;
+		return builder;
+	}
+
+	/**
+	 * This method computes the layout of a month.
+	 *
+	 * @param year         - The year.
+	 * @param month        - The month, from 1.
+	 * @param highlightDay - The day of the month to highlight, or zero for
+	 *                     none.
+	 * @return A new month grid.
+	 */
+	public MonthGrid getMonthGrid(int year, int month, int highlightDay) {
+		if (chronologyTable == null) {
+			return MonthGrid.of(year, month, highlightDay, startDayOfWeek,
+					excludedWeekdayMask, holidayCalendar, earliestEpochDay,
+					latestEpochDay);
+		}
+		int monthIndex = chronologyTable.getMonthIndex(year, month);
+		return MonthGrid.of(chronologyTable.getYear(monthIndex),
+				chronologyTable.getMonth(monthIndex),
+				chronologyTable.getFirstEpochDay(monthIndex),
+				chronologyTable.lengthOfMonth(monthIndex), highlightDay,
+				startDayOfWeek, excludedWeekdayMask, holidayCalendar,
+				earliestEpochDay, latestEpochDay);
+	}
+
+	/**
+	 * This method returns the number of blank cells before the first day of a
+	 * month, from 0 to 6.
+	 *
+	 * @param year  - The year.
+	 * @param month - The month, from 1.
+	 * @return The cell index of the first day of the month.
+	 */
+	public int getFirstDayOffset(int year, int month) {
+		int firstEpochDay = (chronologyTable == null)
+				? MonthGrid.epochDay(year, month, 1)
+				: chronologyTable.getFirstEpochDay(
+						chronologyTable.getMonthIndex(year, month));
+		return Math.floorMod(MonthGrid.dayOfWeekValue(firstEpochDay)
+				- startDayOfWeek.getValue(), 7);
+	}
+
+	/**
+	 * This method returns whether a day can be selected. The day must be
+	 * inside the earliest and latest dates, and must not be an excluded
+	 * weekday or holiday.
+	 *
+	 * @param epochDay - The day, as an epoch day.
+	 * @return <code>true</code> if the day can be selected.
+	 */
+	public boolean isSelectable(int epochDay) {
+		if (epochDay < earliestEpochDay || epochDay > latestEpochDay) {
+			return false;
+		}
+		if ((excludedWeekdayMask & (1 << MonthGrid.dayOfWeekValue(epochDay))) != 0) {
+			return false;
+		}
+		return holidayCalendar == null || !holidayCalendar.isExcluded(epochDay);
+	}
+
+	public boolean isSelectable(LocalDate date) {
+		return isSelectable((int) date.toEpochDay());
+	}
+
+	/**
+	 * This method is the same as <code>isSelectable</code>, so a model can
+	 * filter a range selection.
+	 */
+	@Override
+	public boolean test(int epochDay) {
+		return isSelectable(epochDay);
+	}
+
+	/**
+	 * This method returns whether a month can be displayed: whether it's on or
+	 * after the month of the earliest date, and on or before the month of the
+	 * latest date.
+	 *
+	 * @param year  - The year.
+	 * @param month - The month, from 1.
+	 * @return <code>true</code> if the month is inside the bounds.
+	 */
+	public boolean isMonthInBounds(int year, int month) {
+		if (chronologyTable != null && (year < chronologyTable.getFirstYear()
+				|| year > chronologyTable.getLastYear())) {
+			return false;
+		}
+		int monthIndex = getMonthIndex(year, month);
+		return monthIndex >= earliestMonthIndex && monthIndex <= latestMonthIndex;
+	}
+
+	public boolean isMonthInBounds(LocalDate date) {
+		int epochDay = (int) date.toEpochDay();
+		if (chronologyTable != null && (epochDay < chronologyTable.getFirstEpochDay()
+				|| epochDay > chronologyTable.getLastEpochDay())) {
+			return false;
+		}
+		int monthIndex = getMonthIndex(epochDay);
+		return monthIndex >= earliestMonthIndex && monthIndex <= latestMonthIndex;
+	}
+
+	/**
+	 * This method returns whether any month of a year can be displayed.
+	 *
+	 * @param year - The year.
+	 * @return <code>true</code> if the year is inside the bounds.
+	 */
+	public boolean isYearInBounds(int year) {
+		if (chronologyTable == null) {
+			return year * 12 + 11 >= earliestMonthIndex
+					&& year * 12 <= latestMonthIndex;
+		}
+		if (year < chronologyTable.getFirstYear()
+				|| year > chronologyTable.getLastYear()) {
+			return false;
+		}
+		int firstMonthIndex = chronologyTable.getMonthIndex(year, 1);
+		int lastMonthIndex = firstMonthIndex
+				+ chronologyTable.getMonthsInYear(year) - 1;
+		return lastMonthIndex >= earliestMonthIndex
+				&& firstMonthIndex <= latestMonthIndex;
+	}
+
+	/**
+	 * This method moves a date inside the earliest and latest dates.
+	 *
+	 * @param date - A date.
+	 * @return The date, the earliest date or the latest date.
+	 */
+	public LocalDate clamp(LocalDate date) {
+		long epochDay = date.toEpochDay();
+		int firstEpochDay = earliestEpochDay;
+		int lastEpochDay = latestEpochDay;
+		if (chronologyTable != null) {
+			firstEpochDay = Math.max(firstEpochDay, chronologyTable.getFirstEpochDay());
+			lastEpochDay = Math.min(lastEpochDay, chronologyTable.getLastEpochDay());
+		}
+		if (epochDay < firstEpochDay) {
+			return LocalDate.ofEpochDay(firstEpochDay);
+		}
+		if (epochDay > lastEpochDay) {
+			return LocalDate.ofEpochDay(lastEpochDay);
+		}
+		return date;
+	}
+
+	/**
+	 * This method returns the year of an epoch day, in the chronology of this
+	 * model.
+	 *
+	 * @param epochDay - The day, as an epoch day.
+	 * @return The proleptic year.
+	 */
+	public int getYear(int epochDay) {
+		if (chronologyTable == null) {
+			return MonthGrid.yearOfEpochDay(epochDay);
+		}
+		return chronologyTable.getYear(chronologyTable.getMonthIndex(epochDay));
+	}
+
+	/**
+	 * This method returns the month of an epoch day, in the chronology of
+	 * this model.
+	 *
+	 * @param epochDay - The day, as an epoch day.
+	 * @return The month, from 1.
+	 */
+	public int getMonth(int epochDay) {
+		if (chronologyTable == null) {
+			return MonthGrid.monthOfEpochDay(epochDay);
+		}
+		return chronologyTable.getMonth(chronologyTable.getMonthIndex(epochDay));
+	}
+
+	/**
+	 * This method returns the day of the month of an epoch day, in the
+	 * chronology of this model.
+	 *
+	 * @param epochDay - The day, as an epoch day.
+	 * @return The day of the month, from 1.
+	 */
+	public int getDayOfMonth(int epochDay) {
+		if (chronologyTable == null) {
+			return MonthGrid.dayOfMonthOfEpochDay(epochDay);
+		}
+		return epochDay - chronologyTable.getFirstEpochDay(
+				chronologyTable.getMonthIndex(epochDay)) + 1;
+	}
+
+	/**
+	 * This method returns the number of months in a year.
+	 *
+	 * @param year - The year.
+	 * @return The number of months, 12 for ISO.
+	 */
+	public int getMonthsInYear(int year) {
+		return (chronologyTable == null) ? 12
+				: chronologyTable.getMonthsInYear(year);
+	}
+
+	/**
+	 * This method adds months to a day, in the chronology of this model. The
+	 * day of the month is kept, or cut to the length of the new month.
+	 *
+	 * @param epochDay - The day, as an epoch day.
+	 * @param months   - The months to add, or subtract when negative.
+	 * @return The new day, as an epoch day.
+	 * @throws ArithmeticException if the new day doesn't fit in an int.
+	 */
+	public int plusMonths(int epochDay, long months) {
+		if (chronologyTable == null) {
+			long newMonthIndex = getMonthIndex(epochDay) + months;
+			if (Math.abs(newMonthIndex) >= MAXIMUM_ISO_YEAR * 12L) {
+				// Far years, where the epoch day may not fit in an int
+				return Math.toIntExact(LocalDate.ofEpochDay(epochDay)
+						.plusMonths(months).toEpochDay());
+			}
+			int year = Math.toIntExact(Math.floorDiv(newMonthIndex, 12L));
+			int month = (int) Math.floorMod(newMonthIndex, 12L) + 1;
+			return MonthGrid.epochDay(year, month, Math.min(
+					MonthGrid.dayOfMonthOfEpochDay(epochDay),
+					MonthGrid.lengthOfMonth(year, month)));
+		}
+		int monthIndex = chronologyTable.getMonthIndex(epochDay);
+		long newMonthIndex = Math.max(0L, Math.min(monthIndex + months,
+				chronologyTable.getMonthCount() - 1L));
+		return getDay((int) newMonthIndex, epochDay - chronologyTable
+				.getFirstEpochDay(monthIndex) + 1);
+	}
+
+	/**
+	 * This method moves a day to another year and month, in the chronology of
+	 * this model. The day of the month is kept, or cut to the length of the
+	 * new month.
+	 *
+	 * @param epochDay - The day, as an epoch day.
+	 * @param year     - The new year.
+	 * @param month    - The new month, from 1.
+	 * @return The new day, as an epoch day.
+	 */
+	public int withYearMonth(int epochDay, int year, int month) {
+		int dayOfMonth = getDayOfMonth(epochDay);
+		if (chronologyTable == null) {
+			return MonthGrid.epochDay(year, month, Math.min(dayOfMonth,
+					MonthGrid.lengthOfMonth(year, month)));
+		}
+		return getDay(chronologyTable.getMonthIndex(year, month), dayOfMonth);
+	}
+
+	private int getDay(int monthIndex, int dayOfMonth) {
+		return chronologyTable.getFirstEpochDay(monthIndex) + Math.min(
+				dayOfMonth, chronologyTable.lengthOfMonth(monthIndex)) - 1;
+	}
+
+	public Chronology getChronology() {
+		return chronology;
+	}
+
+	/**
+	 * This method returns the months of a non-ISO chronology.
+	 *
+	 * @return The shared table, or <code>null</code> for ISO.
+	 */
+	public ChronologyTable getChronologyTable() {
+		return chronologyTable;
+	}
+
+	public DayOfWeek getStartDayOfWeek() {
+		return startDayOfWeek;
+	}
+
+	public int getExcludedWeekdayMask() {
+		return excludedWeekdayMask;
+	}
+
+	public HolidayCalendar getHolidayCalendar() {
+		return holidayCalendar;
+	}
+
+	/**
+	 * This method returns the earliest date.
+	 *
+	 * @return The earliest epoch day, or <code>MonthGrid.NO_EARLIEST_DATE</code>.
+	 */
+	public int getEarliestEpochDay() {
+		return earliestEpochDay;
+	}
+
+	/**
+	 * This method returns the latest date.
+	 *
+	 * @return The latest epoch day, or <code>MonthGrid.NO_LATEST_DATE</code>.
+	 */
+	public int getLatestEpochDay() {
+		return latestEpochDay;
+	}
+
+	public LocalDate getEarliestDate() {
+		return (earliestEpochDay == MonthGrid.NO_EARLIEST_DATE) ? null
+				: LocalDate.ofEpochDay(earliestEpochDay);
+	}
+
+	public LocalDate getLatestDate() {
+		return (latestEpochDay == MonthGrid.NO_LATEST_DATE) ? null
+				: LocalDate.ofEpochDay(latestEpochDay);
+	}
+
+	private int getMonthIndex(int epochDay) {
+		if (chronologyTable != null) {
+			return chronologyTable.getMonthIndex(epochDay);
+		}
+		return MonthGrid.yearOfEpochDay(epochDay) * 12
+				+ MonthGrid.monthOfEpochDay(epochDay) - 1;
+	}
+
+	private int getMonthIndex(int year, int month) {
+		return (chronologyTable == null) ? year * 12 + month - 1
+				: chronologyTable.getMonthIndex(year, month);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(chronology, startDayOfWeek, excludedWeekdayMask,
+				System.identityHashCode(holidayCalendar), earliestEpochDay,
+				latestEpochDay);
+	}
+
+	/**
+	 * Two models are equal when they have the same settings and the same
+	 * <code>HolidayCalendar</code> instance.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof CalendarModel)) {
+			return false;
+		}
+		CalendarModel other = (CalendarModel) obj;
+		return chronology.equals(other.chronology)
+				&& startDayOfWeek == other.startDayOfWeek
+				&& excludedWeekdayMask == other.excludedWeekdayMask
+				&& holidayCalendar == other.holidayCalendar
+				&& earliestEpochDay == other.earliestEpochDay
+				&& latestEpochDay == other.latestEpochDay;
+	}
+
+	/**
+	 * <code>Builder</code> collects the settings of a
+	 * <code>CalendarModel</code>. A builder isn't thread safe.
+	 */
+	public static final class Builder {
+
+		private Chronology chronology;
+
+		private DayOfWeek startDayOfWeek;
+
+		private int excludedWeekdayMask;
+		private int earliestEpochDay;
+		private int latestEpochDay;
+
+		private HolidayCalendar holidayCalendar;
+
+		private Builder() {
+			this.chronology = IsoChronology.INSTANCE;
+			this.startDayOfWeek = DayOfWeek.SUNDAY;
+			this.excludedWeekdayMask = 0;
+			this.holidayCalendar = null;
+			this.earliestEpochDay = MonthGrid.NO_EARLIEST_DATE;
+			this.latestEpochDay = MonthGrid.NO_LATEST_DATE;
+		}
+
+		/**
+		 * This method sets the chronology of the years and months, like
+		 * <code>HijrahChronology.INSTANCE</code>. The default is
+		 * <code>IsoChronology.INSTANCE</code>.
+		 *
+		 * @param chronology - The chronology, or <code>null</code> for ISO.
+		 * @return This builder.
+		 */
+		public Builder setChronology(Chronology chronology) {
+			this.chronology = (chronology == null) ? IsoChronology.INSTANCE
+					: chronology;
+			return this;
+		}
+
+		/**
+		 * This method sets the start day of the week. The default is
+		 * <code>DayOfWeek.SUNDAY</code>.
+		 *
+		 * @param startDayOfWeek - <code>DayOfWeek</code> that starts the week.
+		 * @return This builder.
+		 */
+		public Builder setStartDayOfWeek(DayOfWeek startDayOfWeek) {
+			this.startDayOfWeek = startDayOfWeek;
+			return this;
+		}
+
+		/**
+		 * This method sets the weekdays that can't be selected.
+		 *
+		 * @param daysToExclude - Zero or more <code>DayOfWeek</code> values.
+		 * @return This builder.
+		 */
+		public Builder setDaysToExclude(DayOfWeek... daysToExclude) {
+			this.excludedWeekdayMask = MonthGrid.weekdayMask(daysToExclude);
+			return this;
+		}
+
+		/**
+		 * This method sets the weekdays that can't be selected, as a mask from
+		 * <code>MonthGrid.weekdayMask</code>.
+		 *
+		 * @param excludedWeekdayMask - The weekday mask.
+		 * @return This builder.
+		 */
+		public Builder setExcludedWeekdayMask(int excludedWeekdayMask) {
+			this.excludedWeekdayMask = excludedWeekdayMask;
+			return this;
+		}
+
+		/**
+		 * This method sets the holidays, blackout ranges and recurring holidays
+		 * that can't be selected.
+		 *
+		 * @param holidayCalendar - The rules, or <code>null</code> for none.
+		 * @return This builder.
+		 */
+		public Builder setHolidayCalendar(HolidayCalendar holidayCalendar) {
+			this.holidayCalendar = holidayCalendar;
+			return this;
+		}
+
+		/**
+		 * This method sets the earliest date that can be selected.
+		 *
+		 * @param earliestDate - The earliest date, or <code>null</code> for no
+		 *                     earliest date.
+		 * @return This builder.
+		 */
+		public Builder setEarliestDate(LocalDate earliestDate) {
+			this.earliestEpochDay = (earliestDate == null)
+					? MonthGrid.NO_EARLIEST_DATE : (int) earliestDate.toEpochDay();
+			return this;
+		}
+
+		/**
+		 * This method sets the latest date that can be selected.
+		 *
+		 * @param latestDate - The latest date, or <code>null</code> for no
+		 *                   latest date.
+		 * @return This builder.
+		 */
+		public Builder setLatestDate(LocalDate latestDate) {
+			this.latestEpochDay = (latestDate == null)
+					? MonthGrid.NO_LATEST_DATE : (int) latestDate.toEpochDay();
+			return this;
+		}
+
+		public CalendarModel build() {
+			if (earliestEpochDay > latestEpochDay) {
+				String text = "Earliest date " + LocalDate.ofEpochDay(earliestEpochDay)
+						+ " must not come after the latest date "
+						+ LocalDate.ofEpochDay(latestEpochDay);
+				throw new InvalidParameterException(text);
+			}
+			return new CalendarModel(this);
+		}
+
+	}
+
+}
@@ -0,0 +1,310 @@
+package com.ggl.jcalendar.model;
+
+import java.security.InvalidParameterException;
+import java.time.DateTimeException;
+import java.time.chrono.ChronoLocalDate;
+import java.time.chrono.Chronology;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * <code>ChronologyTable</code> holds the months of a
+ * <code>java.time.chrono.Chronology</code>, like the Hijrah, Japanese, Thai
+ * Buddhist or Minguo calendar, as a table of epoch days. The table is built
+ * once per chronology, with the generic <code>ChronoLocalDate</code>
+ * arithmetic, and shared by every <code>CalendarModel</code> of the
+ * chronology. After that, the first day, the length and the first weekday of
+ * a month are array lookups, so a non-ISO calendar pages as fast as the ISO
+ * calendar does.
+ * </p>
+ *
+ * <p>
+ * The table covers the years of the chronology from 1900 to 2199 ISO, cut to
+ * the years the chronology supports. The Hijrah calendar, for example,
+ * supports the years 1300 to 1600 AH. The months of a year are numbered from
+ * 1, and the months of the table are numbered from 0 by a month index.
+ * </p>
+ *
+ * <p>
+ * A <code>ChronologyTable</code> is immutable and thread safe.
+ * </p>
+ *
+ * @see CalendarModel
+ * @see MonthGrid
+ */
+public final class ChronologyTable {
+
+	/** JCalendar displays at most 12 months in its month view. */
+	public static final int MAXIMUM_MONTHS_IN_YEAR = 12;
+
+	private static final int FIRST_EPOCH_DAY = MonthGrid.epochDay(1900, 1, 1);
+	private static final int LAST_EPOCH_DAY = MonthGrid.epochDay(2199, 12, 31);
+
+	private static final ConcurrentMap<Chronology, ChronologyTable> TABLES =
+			new ConcurrentHashMap<>();
+
+	private final Chronology chronology;
+
+	private final int firstYear;
+
+	/** The month index of the first month of each year, plus the end. */
+	private final int[] yearStarts;
+
+	/** The epoch day of the first day of each month, plus the end. */
+	private final int[] monthStarts;
+
+	/** The year of each month. */
+	private final int[] monthYears;
+
+	private ChronologyTable(Chronology chronology, int firstYear,
+			int[] yearStarts, int[] monthStarts, int[] monthYears) {
+		this.chronology = chronology;
+		this.firstYear = firstYear;
+		this.yearStarts = yearStarts;
+		this.monthStarts = monthStarts;
+		this.monthYears = monthYears;
+	}
+
+	/**
+	 * This method returns the shared table of a chronology, building it the
+	 * first time.
+	 *
+	 * @param chronology - The chronology.
+	 * @return The table of the chronology.
+	 */
+	public static ChronologyTable of(Chronology chronology) {
+		ChronologyTable table = TABLES.get(chronology);
+		if (table == null) {
+			table = build(chronology);
+			ChronologyTable previous = TABLES.putIfAbsent(chronology, table);
+			if (previous != null) {
+				table = previous;
+			}
+		}
+		return table;
+	}
+
+	private static ChronologyTable build(Chronology chronology) {
+		int firstYear = getYear(chronology, FIRST_EPOCH_DAY, true);
+		int lastYear = getYear(chronology, LAST_EPOCH_DAY, false);
+		if (!isSupported(chronology, firstYear)) {
+			firstYear++;
+		}
+
+		int years = lastYear - firstYear + 1;
+		int[] yearStarts = new int[years + 1];
+		int[] monthStarts = new int[years * MAXIMUM_MONTHS_IN_YEAR + 1];
+		int[] monthYears = new int[years * MAXIMUM_MONTHS_IN_YEAR];
+		int monthIndex = 0;
+		int endEpochDay = 0;
+		int builtYears = 0;
+		for (int year = firstYear; year <= lastYear; year++) {
+			ChronoLocalDate firstDay;
+			try {
+				firstDay = chronology.date(year, 1, 1);
+			} catch (DateTimeException e) {
+				break;
+			}
+			int monthsInYear = (int) firstDay.range(ChronoField.MONTH_OF_YEAR)
+					.getMaximum();
+			if (monthsInYear > MAXIMUM_MONTHS_IN_YEAR) {
+				String text = "The " + chronology.getId() + " chronology has "
+						+ monthsInYear + " months.  JCalendar displays at most "
+						+ MAXIMUM_MONTHS_IN_YEAR;
+				throw new InvalidParameterException(text);
+			}
+
+			yearStarts[builtYears++] = monthIndex;
+			for (int month = 1; month <= monthsInYear; month++) {
+				ChronoLocalDate date = (month == 1) ? firstDay
+						: chronology.date(year, month, 1);
+				monthStarts[monthIndex] = (int) date.toEpochDay();
+				monthYears[monthIndex] = year;
+				endEpochDay = monthStarts[monthIndex] + date.lengthOfMonth();
+				monthIndex++;
+			}
+		}
+		if (builtYears == 0) {
+			String text = "The " + chronology.getId() + " chronology has no "
+					+ "years from 1900 to 2199 ISO";
+			throw new InvalidParameterException(text);
+		}
+		yearStarts[builtYears] = monthIndex;
+		monthStarts[monthIndex] = endEpochDay;
+
+		return new ChronologyTable(chronology, firstYear,
+				Arrays.copyOf(yearStarts, builtYears + 1),
+				Arrays.copyOf(monthStarts, monthIndex + 1),
+				Arrays.copyOf(monthYears, monthIndex));
+	}
+
+	/**
+	 * This method returns the year of an epoch day in a chronology, or the
+	 * first or last supported year when the chronology doesn't support the
+	 * epoch day.
+	 */
+	private static int getYear(Chronology chronology, int epochDay,
+			boolean first) {
+		try {
+			return chronology.dateEpochDay(epochDay).get(ChronoField.YEAR);
+		} catch (DateTimeException e) {
+			long year = first
+					? chronology.range(ChronoField.YEAR).getMinimum()
+					: chronology.range(ChronoField.YEAR).getMaximum();
+			return (int) year;
+		}
+	}
+
+	private static boolean isSupported(Chronology chronology, int year) {
+		try {
+			chronology.date(year, 1, 1);
+			return true;
+		} catch (DateTimeException e) {
+			return false;
+		}
+	}
+
+	public Chronology getChronology() {
+		return chronology;
+	}
+
+	public int getFirstYear() {
+		return firstYear;
+	}
+
+	public int getLastYear() {
+		return firstYear + yearStarts.length - 2;
+	}
+
+	/**
+	 * This method returns the number of months in the table.
+	 *
+	 * @return The month count. The month indexes go from 0 to the count - 1.
+	 */
+	public int getMonthCount() {
+		return monthYears.length;
+	}
+
+	public int getFirstEpochDay() {
+		return monthStarts[0];
+	}
+
+	public int getLastEpochDay() {
+		return monthStarts[monthYears.length] - 1;
+	}
+
+	/**
+	 * This method returns the number of months in a year.
+	 *
+	 * @param year - The year, cut to the years of the table.
+	 * @return The number of months.
+	 */
+	public int getMonthsInYear(int year) {
+		int yearIndex = getYearIndex(year);
+		return yearStarts[yearIndex + 1] - yearStarts[yearIndex];
+	}
+
+	/**
+	 * This method returns the month index of a year and month.
+	 *
+	 * @param year  - The year, cut to the years of the table.
+	 * @param month - The month, from 1, cut to the months of the year.
+	 * @return The month index.
+	 */
+	public int getMonthIndex(int year, int month) {
+		int yearIndex = getYearIndex(year);
+		int monthsInYear = yearStarts[yearIndex + 1] - yearStarts[yearIndex];
+		return yearStarts[yearIndex] + Math.max(0, Math.min(month, monthsInYear) - 1);
+	}
+
+	/**
+	 * This method returns the month index of the month that holds an epoch
+	 * day.
+	 *
+	 * @param epochDay - The epoch day, cut to the days of the table.
+	 * @return The month index.
+	 */
+	public int getMonthIndex(int epochDay) {
+		if (epochDay < monthStarts[0]) {
+			return 0;
+		}
+		int index = Arrays.binarySearch(monthStarts, epochDay);
+		int monthIndex = (index >= 0) ? index : -index - 2;
+		return Math.min(monthIndex, monthYears.length - 1);
+	}
+
+	public int getYear(int monthIndex) {
+		return monthYears[monthIndex];
+	}
+
+	/**
+	 * This method returns the month of the year of a month index.
+	 *
+	 * @param monthIndex - The month index.
+	 * @return The month, from 1.
+	 */
+	public int getMonth(int monthIndex) {
+		return monthIndex - yearStarts[monthYears[monthIndex] - firstYear] + 1;
+	}
+
+	/**
+	 * This method returns the epoch day of the first day of a month.
+	 *
+	 * @param monthIndex - The month index.
+	 * @return The epoch day.
+	 */
+	public int getFirstEpochDay(int monthIndex) {
+		return monthStarts[monthIndex];
+	}
+
+	public int lengthOfMonth(int monthIndex) {
+		return monthStarts[monthIndex + 1] - monthStarts[monthIndex];
+	}
+
+	/**
+	 * This method returns the month names of the chronology, from the
+	 * <code>DateTimeFormatter</code> text of a locale.
+	 *
+	 * @param locale - The locale of the names.
+	 * @return A new array of the month names of the longest year.
+	 */
+	public String[] getMonthNames(Locale locale) {
+		DateTimeFormatter formatter = DateTextService.getInstance(locale)
+				.getFormatter("MMMM");
+		int year = firstYear;
+		for (int candidate = firstYear; candidate <= getLastYear(); candidate++) {
+			if (getMonthsInYear(candidate) > getMonthsInYear(year)) {
+				year = candidate;
+			}
+		}
+		String[] monthNames = new String[getMonthsInYear(year)];
+		for (int month = 1; month <= monthNames.length; month++) {
+			monthNames[month - 1] = formatter.format(
+					chronology.dateEpochDay(getFirstEpochDay(getMonthIndex(year, month))));
+		}
+		return monthNames;
+	}
+
+	/**
+	 * This method returns the era and year of a month, like "Reiwa 3" or
+	 * "AH 1442". The era is the era of the first day of the month.
+	 *
+	 * @param monthIndex - The month index.
+	 * @param locale     - The locale of the text.
+	 * @return The year text.
+	 */
+	public String getYearText(int monthIndex, Locale locale) {
+		return DateTextService.getInstance(locale).getFormatter("G y")
+				.format(chronology.dateEpochDay(monthStarts[monthIndex]));
+	}
+
+	private int getYearIndex(int year) {
+		return Math.max(0, Math.min(year - firstYear, yearStarts.length - 2));
+	}
+
+}
@@ -0,0 +1,331 @@
+package com.ggl.jcalendar.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * <p>
+ * <code>DateSelectionModel</code> holds the dates selected in a
+ * <code>JCalendar</code>: a single date, any number of dates, or a range of
+ * dates. The selection is a bitmap of epoch days, one bit per day, that grows
+ * in both directions as dates are selected.
+ * </p>
+ *
+ * <p>
+ * Checking whether a date is selected is a single array read, so painting a
+ * day cell costs the same whatever the size of the selection. The selected
+ * dates of a whole month are read as one 42 bit cell mask. Iterating over a
+ * selection with <code>nextSelectedEpochDay</code> doesn't allocate a
+ * <code>LocalDate</code> per selected day. A selection of every day of a
+ * century is less than 5 kilobytes.
+ * </p>
+ *
+ * <p>
+ * A <code>DateSelectionModel</code> isn't thread safe. It's meant to be used
+ * on the Event Dispatch Thread.
+ * </p>
+ *
+ * <pre>
+ * <code>
+ *    DateSelectionModel selection = calendar.getDateSelectionModel();
+ *    int epochDay = selection.nextSelectedEpochDay(Integer.MIN_VALUE);
+ *    while (epochDay != DateSelectionModel.NO_DATE) {
+ *        ...
+ *        epochDay = selection.nextSelectedEpochDay(epochDay + 1);
+ *    }
+ * </code>
+ * </pre>
+ *
+ * @see MonthGrid
+ */
+public final class DateSelectionModel {
+
+	/** Returned when there is no selected date. */
+	public static final int NO_DATE = Integer.MIN_VALUE;
+
+	/**
+	 * The selection modes.
+	 */
+	public enum Mode {
+		/** A click selects one date, and the calendar closes. */
+		SINGLE,
+		/** A click toggles a date. */
+		MULTIPLE,
+		/**
+		 * The first click selects the start of a range, and the second click
+		 * selects the range.
+		 */
+		RANGE
+	}
+
+	private static final int INITIAL_WORDS = 8;
+
+	private final Mode mode;
+
+	private int anchorEpochDay;
+	private int baseEpochDay;
+
+	private long[] words;
+
+	/**
+	 * This constructor creates an empty <code>DateSelectionModel</code>.
+	 *
+	 * @param mode - The selection mode.
+	 */
+	public DateSelectionModel(Mode mode) {
+		this.mode = mode;
+		this.anchorEpochDay = NO_DATE;
+		this.baseEpochDay = 0;
+		this.words = new long[0];
+	}
+
+	public Mode getMode() {
+		return mode;
+	}
+
+	/**
+	 * This method applies a user click on a date, according to the selection
+	 * mode.
+	 *
+	 * @param epochDay   - The clicked date, as an epoch day.
+	 * @param selectable - The dates a range may include, or <code>null</code>
+	 *                   for every date.
+	 */
+	public void select(int epochDay, IntPredicate selectable) {
+		switch (mode) {
+		case MULTIPLE:
+			setSelected(epochDay, !isSelected(epochDay));
+			break;
+		case RANGE:
+			if (anchorEpochDay == NO_DATE) {
+				clear();
+				setSelected(epochDay, true);
+				anchorEpochDay = epochDay;
+			} else {
+				int firstEpochDay = Math.min(anchorEpochDay, epochDay);
+				int lastEpochDay = Math.max(anchorEpochDay, epochDay);
+				clear();
+				setRange(firstEpochDay, lastEpochDay, selectable);
+			}
+			break;
+		default:
+			clear();
+			setSelected(epochDay, true);
+			break;
+		}
+	}
+
+	/**
+	 * This method returns the start of a range waiting for its second click.
+	 *
+	 * @return The first clicked date of the range, as an epoch day, or
+	 *         <code>NO_DATE</code>.
+	 */
+	public int getAnchorEpochDay() {
+		return anchorEpochDay;
+	}
+
+	/**
+	 * This method returns whether a date is selected.
+	 *
+	 * @param epochDay - The date, as an epoch day.
+	 * @return <code>true</code> if the date is selected.
+	 */
+	public boolean isSelected(int epochDay) {
+		long offset = (long) epochDay - baseEpochDay;
+		if (offset < 0L || offset >= (long) words.length << 6) {
+			return false;
+		}
+		return (words[(int) (offset >>> 6)] & (1L << offset)) != 0L;
+	}
+
+	public boolean isSelected(LocalDate date) {
+		return isSelected((int) date.toEpochDay());
+	}
+
+	/**
+	 * This method selects or deselects one date.
+	 *
+	 * @param epochDay - The date, as an epoch day.
+	 * @param selected - <code>true</code> to select the date.
+	 */
+	public void setSelected(int epochDay, boolean selected) {
+		if (selected) {
+			ensureCapacity(epochDay, epochDay);
+			int offset = epochDay - baseEpochDay;
+			words[offset >>> 6] |= 1L << offset;
+		} else if (isSelected(epochDay)) {
+			int offset = epochDay - baseEpochDay;
+			words[offset >>> 6] &= ~(1L << offset);
+		}
+	}
+
+	/**
+	 * This method adds a range of dates to the selection.
+	 *
+	 * @param firstEpochDay - The first date of the range, as an epoch day.
+	 * @param lastEpochDay  - The last date of the range, as an epoch day.
+	 * @param selectable    - The dates the range may include, or
+	 *                      <code>null</code> for every date.
+	 */
+	public void setRange(int firstEpochDay, int lastEpochDay,
+			IntPredicate selectable) {
+		if (firstEpochDay > lastEpochDay) {
+			return;
+		}
+		ensureCapacity(firstEpochDay, lastEpochDay);
+		anchorEpochDay = NO_DATE;
+		for (int epochDay = firstEpochDay; epochDay <= lastEpochDay; epochDay++) {
+			int offset = epochDay - baseEpochDay;
+			if ((offset & 63) == 0 && lastEpochDay - epochDay >= 63
+					&& selectable == null) {
+				words[offset >>> 6] = -1L;
+				epochDay += 63;
+			} else if (selectable == null || selectable.test(epochDay)) {
+				words[offset >>> 6] |= 1L << offset;
+			}
+		}
+	}
+
+	/**
+	 * This method removes every date from the selection.
+	 */
+	public void clear() {
+		Arrays.fill(words, 0L);
+		anchorEpochDay = NO_DATE;
+	}
+
+	public boolean isEmpty() {
+		for (long word : words) {
+			if (word != 0L) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public int getSelectedCount() {
+		int count = 0;
+		for (long word : words) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	/**
+	 * This method returns the first selected date at or after a date.
+	 *
+	 * @param fromEpochDay - The date to start from, as an epoch day.
+	 * @return The selected date as an epoch day, or <code>NO_DATE</code>.
+	 */
+	public int nextSelectedEpochDay(int fromEpochDay) {
+		long offset = Math.max(0L, (long) fromEpochDay - baseEpochDay);
+		int wordIndex = (int) (offset >>> 6);
+		if (wordIndex >= words.length) {
+			return NO_DATE;
+		}
+		long word = words[wordIndex] & (-1L << offset);
+		while (true) {
+			if (word != 0L) {
+				return baseEpochDay + (wordIndex << 6)
+						+ Long.numberOfTrailingZeros(word);
+			}
+			if (++wordIndex == words.length) {
+				return NO_DATE;
+			}
+			word = words[wordIndex];
+		}
+	}
+
+	/**
+	 * This method returns the first selected date.
+	 *
+	 * @return The first selected date, or <code>null</code> if the selection
+	 *         is empty.
+	 */
+	public LocalDate getFirstSelectedDate() {
+		int epochDay = nextSelectedEpochDay(NO_DATE);
+		return (epochDay == NO_DATE) ? null : LocalDate.ofEpochDay(epochDay);
+	}
+
+	/**
+	 * This method returns the selected dates, in order. This method allocates a
+	 * <code>LocalDate</code> per selected date; use
+	 * <code>nextSelectedEpochDay</code> for large selections.
+	 *
+	 * @return A new list of the selected dates.
+	 */
+	public List<LocalDate> getSelectedDates() {
+		List<LocalDate> dates = new ArrayList<>(getSelectedCount());
+		int epochDay = nextSelectedEpochDay(NO_DATE);
+		while (epochDay != NO_DATE) {
+			dates.add(LocalDate.ofEpochDay(epochDay));
+			epochDay = nextSelectedEpochDay(epochDay + 1);
+		}
+		return dates;
+	}
+
+	/**
+	 * This method returns the selected days of a month as a cell mask, bit 0
+	 * for the first cell. Blank cells are never selected.
+	 *
+	 * @param monthGrid - The month.
+	 * @return The 42 bit mask of the selected cells.
+	 */
+	public long getSelectionMask(MonthGrid monthGrid) {
+		int firstCellEpochDay = monthGrid.getEpochDay(0);
+		int firstDayIndex = monthGrid.getFirstEpochDay() - firstCellEpochDay;
+		long dayMask = ((1L << monthGrid.getMonthLength()) - 1L)
+				<< firstDayIndex;
+		return getBits(firstCellEpochDay) & dayMask;
+	}
+
+	/**
+	 * This method returns the 64 selection bits starting at a date.
+	 */
+	private long getBits(int fromEpochDay) {
+		long offset = (long) fromEpochDay - baseEpochDay;
+		long bits = getWord(Math.floorDiv(offset, 64L));
+		int shift = (int) Math.floorMod(offset, 64L);
+		if (shift == 0) {
+			return bits;
+		}
+		return (bits >>> shift)
+				| (getWord(Math.floorDiv(offset, 64L) + 1L) << (64 - shift));
+	}
+
+	private long getWord(long wordIndex) {
+		return (wordIndex < 0L || wordIndex >= words.length) ? 0L
+				: words[(int) wordIndex];
+	}
+
+	private void ensureCapacity(int firstEpochDay, int lastEpochDay) {
+		int firstBase = Math.floorDiv(firstEpochDay, 64) * 64;
+		if (words.length == 0) {
+			baseEpochDay = firstBase;
+			words = new long[Math.max(INITIAL_WORDS,
+					(lastEpochDay - firstBase) / 64 + 1)];
+			return;
+		}
+
+		if (firstBase < baseEpochDay) {
+			int shift = (baseEpochDay - firstBase) / 64;
+			long[] newWords = new long[words.length + Math.max(shift,
+					words.length / 2)];
+			int extra = newWords.length - words.length;
+			System.arraycopy(words, 0, newWords, extra, words.length);
+			words = newWords;
+			baseEpochDay -= extra * 64;
+		}
+
+		long needed = ((long) lastEpochDay - baseEpochDay) / 64L + 1L;
+		if (needed > words.length) {
+			words = Arrays.copyOf(words, (int) Math.max(needed,
+					words.length + words.length / 2));
+		}
+	}
+
+}
@@ -0,0 +1,187 @@
+package com.ggl.jcalendar.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * <code>DateTextService</code> is a shared, thread safe source of date text
+ * for one <code>Locale</code>. It holds the month and weekday names derived
+ * from <code>TextStyle</code>, compiles each <code>DateTimeFormatter</code>
+ * pattern once, and keeps a small cache of the strings it has rendered.
+ * </p>
+ *
+ * <p>
+ * The rendered string cache is direct mapped by epoch day, so a cache hit
+ * doesn't allocate. Screens that format the same dates again and again, like
+ * a refreshed table of dates, pay for the formatting once.
+ * </p>
+ *
+ * <pre>
+ * <code>
+ *    DateTextService service = DateTextService.getInstance(Locale.US);
+ *    String text = service.format(LocalDate.now(), "M/d/yy");
+ * </code>
+ * </pre>
+ *
+ * @see java.time.format.DateTimeFormatter
+ * @see java.time.format.TextStyle
+ */
+public final class DateTextService {
+
+	private static final int CACHE_SIZE = 512;
+
+	private static final ConcurrentMap<Locale, DateTextService> SERVICES =
+			new ConcurrentHashMap<>();
+
+	private final Locale locale;
+
+	private final ConcurrentMap<String, PatternCache> patternCaches;
+
+	private final String[] monthNames;
+	private final String[] shortDayNames;
+
+	private DateTextService(Locale locale) {
+		this.locale = locale;
+		this.patternCaches = new ConcurrentHashMap<>();
+
+		this.monthNames = new String[12];
+		for (Month month : Month.values()) {
+			monthNames[month.ordinal()] = month.getDisplayName(TextStyle.FULL, locale);
+		}
+
+		this.shortDayNames = new String[7];
+		for (DayOfWeek day : DayOfWeek.values()) {
+			shortDayNames[day.ordinal()] = day.getDisplayName(TextStyle.SHORT, locale);
+		}
+	}
+
+	/**
+	 * This method returns the shared <code>DateTextService</code> for a locale.
+	 *
+	 * @param locale - The <code>Locale</code> of the date text.
+	 * @return The shared service.
+	 */
+	public static DateTextService getInstance(Locale locale) {
+		DateTextService service = SERVICES.get(locale);
+		if (service == null) {
+			service = SERVICES.computeIfAbsent(locale, DateTextService::new);
+		}
+		return service;
+	}
+
+	public Locale getLocale() {
+		return locale;
+	}
+
+	/**
+	 * This method returns the full month names, starting with January.
+	 *
+	 * @return A new array of the 12 month names.
+	 */
+	public String[] getMonthNames() {
+		return monthNames.clone();
+	}
+
+	/**
+	 * This method returns the full name of a month.
+	 *
+	 * @param month - The month, from 1 to 12.
+	 * @return The month name.
+	 */
+	public String getMonthName(int month) {
+		return monthNames[month - 1];
+	}
+
+	/**
+	 * This method returns the short weekday names in calendar order.
+	 *
+	 * @param startDayOfWeek - <code>DayOfWeek</code> that starts the week.
+	 * @return A new array of the 7 weekday names, starting with the start day of
+	 *         the week.
+	 */
+	public String[] getDayNames(DayOfWeek startDayOfWeek) {
+		String[] dayNames = new String[7];
+		for (int index = 0; index < dayNames.length; index++) {
+			dayNames[index] = shortDayNames[(startDayOfWeek.ordinal() + index) % 7];
+		}
+		return dayNames;
+	}
+
+	/**
+	 * This method returns the compiled formatter for a pattern. Each pattern is
+	 * compiled once per locale.
+	 *
+	 * @param pattern - A <code>DateTimeFormatter</code> pattern.
+	 * @return The formatter.
+	 */
+	public DateTimeFormatter getFormatter(String pattern) {
+		return getPatternCache(pattern).formatter;
+	}
+
+	/**
+	 * This method formats a date, reusing the string from the last time the
+	 * same date was formatted with the same pattern.
+	 *
+	 * @param date    - The date to format.
+	 * @param pattern - A <code>DateTimeFormatter</code> pattern.
+	 * @return The formatted date.
+	 */
+	public String format(LocalDate date, String pattern) {
+		return getPatternCache(pattern).format(date);
+	}
+
+	private PatternCache getPatternCache(String pattern) {
+		PatternCache patternCache = patternCaches.get(pattern);
+		if (patternCache == null) {
+			patternCache = patternCaches.computeIfAbsent(pattern,
+					key -> new PatternCache(DateTimeFormatter.ofPattern(key, locale)));
+		}
+		return patternCache;
+	}
+
+	private static final class PatternCache {
+
+		private final DateTimeFormatter formatter;
+
+		private final Entry[] entries;
+
+		public PatternCache(DateTimeFormatter formatter) {
+			this.formatter = formatter;
+			this.entries = new Entry[CACHE_SIZE];
+		}
+
+		public String format(LocalDate date) {
+			long epochDay = date.toEpochDay();
+			int slot = (int) (epochDay & (CACHE_SIZE - 1));
+			Entry entry = entries[slot];
+			if (entry != null && entry.epochDay == epochDay) {
+				return entry.text;
+			}
+			String text = formatter.format(date);
+			entries[slot] = new Entry(epochDay, text);
+			return text;
+		}
+
+	}
+
+	private static final class Entry {
+
+		private final long epochDay;
+
+		private final String text;
+
+		public Entry(long epochDay, String text) {
+			this.epochDay = epochDay;
+			this.text = text;
+		}
+
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.ggl.jcalendar.model;
+
+import java.time.LocalDate;
+
+/**
+ * <p>
+ * <code>DateValidator</code> checks a date the user selects against rules the
+ * calendar can't know, like cut-off times or the remaining capacity of a
+ * backend service.
+ * </p>
+ *
+ * <p>
+ * The validator is called on a background thread, never on the Event
+ * Dispatch Thread, so it may be slow. It's called at most once per date while
+ * its verdict stays cached by the caller. A range of dates is checked with one
+ * call of <code>areValid</code>, whose verdicts aren't cached. A validator
+ * backed by a service should override it to answer the whole range with one
+ * request. A validator that throws an
+ * exception rejects the date, and is asked again the next time. A date whose
+ * verdict doesn't arrive within the caller's timeout, counted from when the
+ * date is asked for, is rejected the same way, and a call still running is
+ * interrupted, so a slow validator should respond to interruption.
+ * </p>
+ *
+ * @see InMemoryDateValidator
+ */
+public interface DateValidator {
+
+	/**
+	 * This method returns whether a date may be selected.
+	 *
+	 * @param date - The date the user selected.
+	 * @return <code>true</code> if the date may be selected.
+	 */
+	boolean isValid(LocalDate date);
+
+	/**
+	 * This method returns whether each date of a range may be selected. The
+	 * default asks <code>isValid</code> about each date in turn, and stops
+	 * asking when its thread is interrupted.
+	 *
+	 * @param firstDate - The first date of the range.
+	 * @param lastDate  - The last date of the range, included.
+	 * @return An array indexed by the day of the range, <code>true</code> for
+	 *         each date that may be selected.
+	 */
+	default boolean[] areValid(LocalDate firstDate, LocalDate lastDate) {
+		long firstEpochDay = firstDate.toEpochDay();
+		boolean[] verdicts = new boolean[(int) (lastDate.toEpochDay()
+				- firstEpochDay + 1L)];
+		for (int index = 0; index < verdicts.length; index++) {
+			if (Thread.currentThread().isInterrupted()) {
+				break;
+			}
+			verdicts[index] = isValid(LocalDate.ofEpochDay(firstEpochDay + index));
+		}
+		return verdicts;
+	}
+
+}
@@ -0,0 +1,28 @@
+package com.ggl.jcalendar.model;
+
+/**
+ * <p>
+ * <code>DayAnnotationProvider</code> supplies the small per-day badges, like
+ * booking counts or transaction totals, that a <code>JCalendar</code> paints
+ * in its day cells.
+ * </p>
+ *
+ * <p>
+ * The provider is called on a background thread, never on the Event Dispatch
+ * Thread, so it may be slow. It is called once per month; the results are
+ * cached by the caller.
+ * </p>
+ */
+public interface DayAnnotationProvider {
+
+	/**
+	 * This method returns the annotations of a month.
+	 *
+	 * @param year  - The year.
+	 * @param month - The month, from 1 to 12.
+	 * @return An array indexed by the day of the month minus one. A
+	 *         <code>null</code> element means no badge for that day.
+	 */
+	String[] getAnnotations(int year, int month);
+
+}
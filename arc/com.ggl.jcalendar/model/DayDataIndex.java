@@ -0,0 +1,291 @@
+package com.ggl.jcalendar.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * <code>DayDataIndex</code> reads per-day operational data, like booking
+ * counts, capacities and closed flags, from a fixed width file indexed by
+ * epoch day. The file is memory mapped, so looking up the 42 cells of a month
+ * is 42 reads of the mapped pages, without copying the file into the heap or
+ * creating an object per day.
+ * </p>
+ *
+ * <p>
+ * The file is a 16 byte header followed by one 8 byte record per day, from
+ * the first day of the file on, with no gaps:
+ * </p>
+ *
+ * <pre>
+ * header: int magic "JCDI", short version, short record size,
+ *         int first epoch day, int reserved
+ * record: int count, unsigned short capacity, unsigned short flags
+ * </pre>
+ *
+ * <p>
+ * A day is closed when its <code>FLAG_CLOSED</code> flag is set, or when it
+ * has a capacity and its count has reached it. The index is also a
+ * <code>DayAnnotationProvider</code> that shows the count of each day as its
+ * badge.
+ * </p>
+ *
+ * <p>
+ * The file can grow while it's open; a <code>DayDataWriter</code> appends
+ * days and overwrites them in place. Overwritten days are seen at once, and
+ * appended days are seen when a month past the mapped end is read. The file
+ * size is checked for that at most once every
+ * <code>REFRESH_INTERVAL_MILLIS</code>, so reading the months past the end
+ * of the file doesn't ask the file system each time; <code>refresh</code>
+ * checks at once. A <code>DayDataIndex</code> is thread safe.
+ * </p>
+ *
+ * <pre>
+ * <code>
+ *    DayDataIndex index = DayDataIndex.open(Paths.get("bookings.jcdi"));
+ *    calendar.setDayDataIndex(index);
+ * </code>
+ * </pre>
+ *
+ * @see DayDataWriter
+ * @see MonthGrid
+ */
+public final class DayDataIndex implements DayAnnotationProvider, Closeable {
+
+	/** The first 4 bytes of a day data file, "JCDI". */
+	public static final int MAGIC = 0x4A434449;
+
+	public static final short VERSION = 1;
+
+	public static final int HEADER_SIZE = 16;
+	public static final int RECORD_SIZE = 8;
+
+	/** The flag of a day that can't be selected. */
+	public static final int FLAG_CLOSED = 1;
+
+	/** The least time between two file size checks of a read past the end. */
+	public static final long REFRESH_INTERVAL_MILLIS = 1000L;
+
+	static final int COUNT_OFFSET = 0;
+	static final int CAPACITY_OFFSET = 4;
+	static final int FLAGS_OFFSET = 6;
+
+	private final FileChannel channel;
+
+	private final int firstEpochDay;
+
+	private final Path path;
+
+	private volatile long nextRefreshNanos;
+
+	private volatile MappedByteBuffer buffer;
+
+	private DayDataIndex(Path path, FileChannel channel, int firstEpochDay)
+			throws IOException {
+		this.path = path;
+		this.channel = channel;
+		this.firstEpochDay = firstEpochDay;
+		this.nextRefreshNanos = System.nanoTime();
+		this.buffer = map();
+	}
+
+	/**
+	 * This method opens a day data file for reading.
+	 *
+	 * @param path - The day data file.
+	 * @return The index of the file.
+	 * @throws IOException if the file can't be read, or isn't a day data file.
+	 */
+	public static DayDataIndex open(Path path) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			int firstEpochDay = readHeader(path, channel);
+			return new DayDataIndex(path, channel, firstEpochDay);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * This method checks the header of a day data file.
+	 *
+	 * @return The first epoch day of the file.
+	 */
+	static int readHeader(Path path, FileChannel channel) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		while (header.hasRemaining()) {
+			if (channel.read(header, header.position()) < 0) {
+				throw new IOException(path + " is not a day data file");
+			}
+		}
+		if (header.getInt(0) != MAGIC || header.getShort(4) != VERSION
+				|| header.getShort(6) != RECORD_SIZE) {
+			throw new IOException(path + " is not a version " + VERSION
+					+ " day data file");
+		}
+		return header.getInt(8);
+	}
+
+	private MappedByteBuffer map() throws IOException {
+		long size = channel.size();
+		long records = Math.min((size - HEADER_SIZE) / RECORD_SIZE,
+				(Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE);
+		return channel.map(FileChannel.MapMode.READ_ONLY, 0L,
+				HEADER_SIZE + records * RECORD_SIZE);
+	}
+
+	public Path getPath() {
+		return path;
+	}
+
+	public int getFirstEpochDay() {
+		return firstEpochDay;
+	}
+
+	/**
+	 * This method returns the number of days that are mapped.
+	 *
+	 * @return The number of days, from the first epoch day on.
+	 */
+	public int getDayCount() {
+		return (buffer.capacity() - HEADER_SIZE) / RECORD_SIZE;
+	}
+
+	/**
+	 * This method maps the days appended since the file was last mapped.
+	 *
+	 * @throws IOException if the file can't be read.
+	 */
+	public synchronized void refresh() throws IOException {
+		nextRefreshNanos = System.nanoTime()
+				+ TimeUnit.MILLISECONDS.toNanos(REFRESH_INTERVAL_MILLIS);
+		if (channel.size() > buffer.capacity()) {
+			buffer = map();
+		}
+	}
+
+	public int getCount(int epochDay) {
+		MappedByteBuffer mapped = buffer;
+		int offset = getOffset(mapped, epochDay);
+		return (offset < 0) ? 0 : mapped.getInt(offset + COUNT_OFFSET);
+	}
+
+	public int getCapacity(int epochDay) {
+		MappedByteBuffer mapped = buffer;
+		int offset = getOffset(mapped, epochDay);
+		return (offset < 0) ? 0 : mapped.getChar(offset + CAPACITY_OFFSET);
+	}
+
+	/**
+	 * This method returns the flags of a day. Days outside the file have no
+	 * flags.
+	 *
+	 * @param epochDay - The day, as an epoch day.
+	 * @return The 16 flag bits, from 0 to 65535.
+	 */
+	public int getFlags(int epochDay) {
+		MappedByteBuffer mapped = buffer;
+		int offset = getOffset(mapped, epochDay);
+		return (offset < 0) ? 0
+				: mapped.getShort(offset + FLAGS_OFFSET) & 0xFFFF;
+	}
+
+	/**
+	 * This method returns whether a day is closed. Days outside the file are
+	 * open.
+	 *
+	 * @param epochDay - The day, as an epoch day.
+	 * @return <code>true</code> if the day can't be selected.
+	 */
+	public boolean isClosed(int epochDay) {
+		MappedByteBuffer mapped = buffer;
+		int offset = getOffset(mapped, epochDay);
+		return offset >= 0 && isClosed(mapped, offset);
+	}
+
+	/**
+	 * This method returns the closed days of a month as a cell mask.
+	 *
+	 * @param monthGrid - The month.
+	 * @return The 42 bit mask of the closed cells, bit 0 for the first cell.
+	 */
+	public long getClosedMask(MonthGrid monthGrid) {
+		MappedByteBuffer mapped = getBuffer(monthGrid.getEpochDay(
+				MonthGrid.CELL_COUNT - 1));
+		long closedMask = 0L;
+		for (int index = 0; index < MonthGrid.CELL_COUNT; index++) {
+			if (monthGrid.getDayOfMonth(index) == 0) {
+				continue;
+			}
+			int offset = getOffset(mapped, monthGrid.getEpochDay(index));
+			if (offset >= 0 && isClosed(mapped, offset)) {
+				closedMask |= 1L << index;
+			}
+		}
+		return closedMask;
+	}
+
+	@Override
+	public String[] getAnnotations(int year, int month) {
+		int firstDay = MonthGrid.epochDay(year, month, 1);
+		int monthLength = MonthGrid.lengthOfMonth(year, month);
+		MappedByteBuffer mapped = getBuffer(firstDay + monthLength - 1);
+		String[] annotations = new String[monthLength];
+		for (int day = 0; day < monthLength; day++) {
+			int offset = getOffset(mapped, firstDay + day);
+			if (offset >= 0) {
+				int count = mapped.getInt(offset + COUNT_OFFSET);
+				annotations[day] = (count == 0) ? null : Integer.toString(count);
+			}
+		}
+		return annotations;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * This method returns the mapped buffer, mapped again first if a day past
+	 * its end is needed and the file has grown. The file size isn't checked
+	 * again until the refresh interval has passed.
+	 */
+	private MappedByteBuffer getBuffer(int lastEpochDay) {
+		MappedByteBuffer mapped = buffer;
+		if (getOffset(mapped, lastEpochDay) < 0 && lastEpochDay >= firstEpochDay
+				&& System.nanoTime() - nextRefreshNanos >= 0L
+				&& channel.isOpen()) {
+			try {
+				refresh();
+			} catch (IOException e) {
+				return mapped;
+			}
+			mapped = buffer;
+		}
+		return mapped;
+	}
+
+	private int getOffset(MappedByteBuffer mapped, int epochDay) {
+		long day = (long) epochDay - firstEpochDay;
+		long offset = HEADER_SIZE + day * RECORD_SIZE;
+		return (day < 0L || offset + RECORD_SIZE > mapped.capacity()) ? -1
+				: (int) offset;
+	}
+
+	private static boolean isClosed(MappedByteBuffer mapped, int offset) {
+		if ((mapped.getShort(offset + FLAGS_OFFSET) & FLAG_CLOSED) != 0) {
+			return true;
+		}
+		int capacity = mapped.getChar(offset + CAPACITY_OFFSET);
+		return capacity != 0 && mapped.getInt(offset + COUNT_OFFSET) >= capacity;
+	}
+
+}
@@ -0,0 +1,198 @@
+package com.ggl.jcalendar.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.InvalidParameterException;
+import java.time.LocalDate;
+
+/**
+ * <p>
+ * <code>DayDataWriter</code> writes the day data file read by a
+ * <code>DayDataIndex</code>. A day inside the file is overwritten in place.
+ * A day past the end of the file is appended, after empty records for any
+ * days in between, so the file is never rewritten.
+ * </p>
+ *
+ * <p>
+ * A <code>DayDataWriter</code> isn't thread safe, and only one writer should
+ * have a file open at a time. Any number of <code>DayDataIndex</code> readers
+ * may have the same file open while it's written.
+ * </p>
+ *
+ * <pre>
+ * <code>
+ *    try (DayDataWriter writer = DayDataWriter.open(path)) {
+ *        writer.put(LocalDate.of(2021, 7, 16), 42, 50, 0);
+ *        writer.put(LocalDate.of(2021, 7, 17), 0, 0, DayDataIndex.FLAG_CLOSED);
+ *    }
+ * </code>
+ * </pre>
+ *
+ * @see DayDataIndex
+ */
+public final class DayDataWriter implements Closeable {
+
+	private static final int GAP_RECORDS = 512;
+
+	private final ByteBuffer record;
+
+	private final FileChannel channel;
+
+	private final int firstEpochDay;
+
+	private long dayCount;
+
+	private DayDataWriter(FileChannel channel, int firstEpochDay)
+			throws IOException {
+		this.channel = channel;
+		this.firstEpochDay = firstEpochDay;
+		this.record = ByteBuffer.allocate(DayDataIndex.RECORD_SIZE);
+		this.dayCount = (channel.size() - DayDataIndex.HEADER_SIZE)
+				/ DayDataIndex.RECORD_SIZE;
+	}
+
+	/**
+	 * This method creates a new, empty day data file.
+	 *
+	 * @param path      - The day data file. It must not exist.
+	 * @param firstDate - The first day of the file.
+	 * @return A writer of the file.
+	 * @throws IOException if the file can't be created.
+	 */
+	public static DayDataWriter create(Path path, LocalDate firstDate)
+			throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(DayDataIndex.HEADER_SIZE);
+			header.putInt(DayDataIndex.MAGIC);
+			header.putShort(DayDataIndex.VERSION);
+			header.putShort((short) DayDataIndex.RECORD_SIZE);
+			header.putInt((int) firstDate.toEpochDay());
+			header.putInt(0);
+			header.flip();
+			writeFully(channel, header, 0L);
+			return new DayDataWriter(channel, (int) firstDate.toEpochDay());
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * This method opens an existing day data file, to add or change days.
+	 *
+	 * @param path - The day data file.
+	 * @return A writer of the file.
+	 * @throws IOException if the file can't be opened, or isn't a day data
+	 *                     file.
+	 */
+	public static DayDataWriter open(Path path) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		try {
+			int firstEpochDay = DayDataIndex.readHeader(path, channel);
+			return new DayDataWriter(channel, firstEpochDay);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	public LocalDate getFirstDate() {
+		return LocalDate.ofEpochDay(firstEpochDay);
+	}
+
+	/**
+	 * This method returns the day after the last day of the file.
+	 *
+	 * @return The first day that would be appended.
+	 */
+	public LocalDate getEndDate() {
+		return LocalDate.ofEpochDay(firstEpochDay + dayCount);
+	}
+
+	public void put(LocalDate date, int count, int capacity, int flags)
+			throws IOException {
+		put((int) date.toEpochDay(), count, capacity, flags);
+	}
+
+	/**
+	 * This method writes the data of one day.
+	 *
+	 * @param epochDay - The day, as an epoch day. It must not come before the
+	 *                 first day of the file.
+	 * @param count    - The count, like the number of bookings.
+	 * @param capacity - The capacity, from 0 to 65535, or 0 for none.
+	 * @param flags    - The flags, like <code>DayDataIndex.FLAG_CLOSED</code>.
+	 * @throws IOException if the file can't be written.
+	 */
+	public void put(int epochDay, int count, int capacity, int flags)
+			throws IOException {
+		long day = (long) epochDay - firstEpochDay;
+		if (day < 0L) {
+			String text = "The date " + LocalDate.ofEpochDay(epochDay)
+					+ " comes before the first date " + getFirstDate();
+			throw new InvalidParameterException(text);
+		}
+		if (capacity < 0 || capacity > Character.MAX_VALUE) {
+			String text = "The capacity " + capacity + " must be from 0 to "
+					+ (int) Character.MAX_VALUE;
+			throw new InvalidParameterException(text);
+		}
+		if (day > dayCount) {
+			appendEmptyDays(day - dayCount);
+		}
+
+		record.clear();
+		record.putInt(count);
+		record.putChar((char) capacity);
+		record.putShort((short) flags);
+		record.flip();
+		writeFully(channel, record, getPosition(day));
+		dayCount = Math.max(dayCount, day + 1L);
+	}
+
+	/**
+	 * This method writes the file's changes to the storage device.
+	 *
+	 * @throws IOException if the file can't be written.
+	 */
+	public void force() throws IOException {
+		channel.force(false);
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	private void appendEmptyDays(long days) throws IOException {
+		ByteBuffer empty = ByteBuffer.allocate((int) Math.min(days, GAP_RECORDS)
+				* DayDataIndex.RECORD_SIZE);
+		while (days > 0L) {
+			int records = (int) Math.min(days, GAP_RECORDS);
+			empty.clear();
+			empty.limit(records * DayDataIndex.RECORD_SIZE);
+			writeFully(channel, empty, getPosition(dayCount));
+			dayCount += records;
+			days -= records;
+		}
+	}
+
+	private static long getPosition(long day) {
+		return DayDataIndex.HEADER_SIZE + day * DayDataIndex.RECORD_SIZE;
+	}
+
+	private static void writeFully(FileChannel channel, ByteBuffer buffer,
+			long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			position += channel.write(buffer, position);
+		}
+	}
+
+}
@@ -0,0 +1,379 @@
+package com.ggl.jcalendar.model;
+
+import java.security.InvalidParameterException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * <code>HolidayCalendar</code> is an immutable set of rules for the days that
+ * can't be selected: excluded weekdays, holidays, blackout date ranges and
+ * recurring holidays like "last Monday of May". A regional calendar can be
+ * built on top of a national one with <code>Builder.addAll</code>.
+ * </p>
+ *
+ * <p>
+ * The rules are compiled into compact structures so that checking a day is
+ * cheap, however many rules are loaded:
+ * <ul>
+ * <li>The excluded weekdays are a bit mask, checked in constant time.</li>
+ * <li>The holidays and blackout ranges are merged into sorted epoch day
+ * interval arrays, checked with a binary search.</li>
+ * <li>The recurring holidays are expanded into a bitmap of each year's days,
+ * checked in constant time. The years 1900 to 2099 are expanded when the
+ * calendar is built, into one array indexed by year, and other years the
+ * first time they're checked.</li>
+ * </ul>
+ * A <code>HolidayCalendar</code> is thread safe.
+ * </p>
+ *
+ * <pre>
+ * <code>
+ *    HolidayCalendar holidays = HolidayCalendar.builder("US")
+ *            .excludeDaysOfWeek(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY)
+ *            .addAnnualHoliday(Month.JULY, 4)
+ *            .addDayOfWeekInMonth(Month.MAY, -1, DayOfWeek.MONDAY)
+ *            .addBlackout(LocalDate.of(2021, 12, 24), LocalDate.of(2022, 1, 2))
+ *            .build();
+ * </code>
+ * </pre>
+ *
+ * @see MonthGrid
+ */
+public final class HolidayCalendar {
+
+	/** The first year whose bitmap is expanded when the calendar is built. */
+	private static final int FIRST_BITMAP_YEAR = 1900;
+
+	/** The number of years whose bitmaps are expanded when it's built. */
+	private static final int BITMAP_YEARS = 200;
+
+	/** The 64 bit words of one year's bitmap, for up to 366 days. */
+	private static final int YEAR_WORDS = 6;
+
+	private final int weekdayMask;
+
+	private final int[] rangeStarts;
+	private final int[] rangeEnds;
+
+	private final AnnualRule[] annualRules;
+
+	/**
+	 * The bitmaps of the years from FIRST_BITMAP_YEAR, YEAR_WORDS words a
+	 * year, or null when there are no annual rules.
+	 */
+	private final long[] yearBits;
+
+	private final ConcurrentMap<Integer, long[]> yearBitmaps;
+
+	private final String name;
+
+	private HolidayCalendar(Builder builder) {
+		this.name = builder.name;
+		this.weekdayMask = builder.weekdayMask;
+		this.annualRules = builder.annualRules.toArray(new AnnualRule[0]);
+		this.yearBitmaps = new ConcurrentHashMap<>();
+
+		int count = builder.rangeCount;
+		long[] ranges = Arrays.copyOf(builder.ranges, count);
+		Arrays.sort(ranges);
+
+		int[] starts = new int[count];
+		int[] ends = new int[count];
+		int merged = 0;
+		for (long range : ranges) {
+			int start = (int) (range >> 32);
+			int end = (int) range;
+			if (merged > 0 && start <= ends[merged - 1] + 1) {
+				ends[merged - 1] = Math.max(ends[merged - 1], end);
+			} else {
+				starts[merged] = start;
+				ends[merged] = end;
+				merged++;
+			}
+		}
+		this.rangeStarts = Arrays.copyOf(starts, merged);
+		this.rangeEnds = Arrays.copyOf(ends, merged);
+
+		if (annualRules.length == 0) {
+			this.yearBits = null;
+		} else {
+			this.yearBits = new long[BITMAP_YEARS * YEAR_WORDS];
+			for (int index = 0; index < BITMAP_YEARS; index++) {
+				fillYearBits(FIRST_BITMAP_YEAR + index, yearBits,
+						index * YEAR_WORDS);
+			}
+		}
+	}
+
+	/**
+	 * This method creates a builder for a <code>HolidayCalendar</code>.
+	 *
+	 * @param name - The name of the calendar, usually a country or region.
+	 * @return A new, empty builder.
+	 */
+	public static Builder builder(String name) {
+		return new Builder(name);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * This method returns whether a date is excluded from selection.
+	 *
+	 * @param date - The date to check.
+	 * @return <code>true</code> if the date can't be selected.
+	 */
+	public boolean isExcluded(LocalDate date) {
+		return isExcluded((int) date.toEpochDay());
+	}
+
+	/**
+	 * This method returns whether an epoch day is excluded from selection.
+	 *
+	 * @param epochDay - The number of days since 1 January 1970.
+	 * @return <code>true</code> if the day can't be selected.
+	 */
+	public boolean isExcluded(int epochDay) {
+		if ((weekdayMask & (1 << MonthGrid.dayOfWeekValue(epochDay))) != 0) {
+			return true;
+		}
+		if (isInRange(epochDay)) {
+			return true;
+		}
+		if (yearBits == null) {
+			return false;
+		}
+
+		int year = MonthGrid.yearOfEpochDay(epochDay);
+		int dayOfYear = epochDay - MonthGrid.epochDay(year, 1, 1);
+		int yearIndex = year - FIRST_BITMAP_YEAR;
+		if (yearIndex >= 0 && yearIndex < BITMAP_YEARS) {
+			return (yearBits[yearIndex * YEAR_WORDS + (dayOfYear >> 6)]
+					& (1L << dayOfYear)) != 0L;
+		}
+		long[] bits = yearBitmaps.computeIfAbsent(year, this::createYearBitmap);
+		return (bits[dayOfYear >> 6] & (1L << dayOfYear)) != 0L;
+	}
+
+	private boolean isInRange(int epochDay) {
+		int low = 0;
+		int high = rangeStarts.length - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			if (rangeStarts[middle] > epochDay) {
+				high = middle - 1;
+			} else if (rangeEnds[middle] < epochDay) {
+				low = middle + 1;
+			} else {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private long[] createYearBitmap(int year) {
+		long[] bits = new long[YEAR_WORDS];
+		fillYearBits(year, bits, 0);
+		return bits;
+	}
+
+	/**
+	 * This method sets the bits of the annual holidays of a year, bit 0 of
+	 * the first word for 1 January.
+	 */
+	private void fillYearBits(int year, long[] bits, int offset) {
+		int firstEpochDay = MonthGrid.epochDay(year, 1, 1);
+		for (AnnualRule rule : annualRules) {
+			int dayOfMonth = rule.getDayOfMonth(year);
+			if (dayOfMonth > 0) {
+				int dayOfYear = MonthGrid.epochDay(year, rule.month, dayOfMonth)
+						- firstEpochDay;
+				bits[offset + (dayOfYear >> 6)] |= 1L << dayOfYear;
+			}
+		}
+	}
+
+	/**
+	 * <code>Builder</code> collects the rules of a <code>HolidayCalendar</code>.
+	 * A builder isn't thread safe.
+	 */
+	public static final class Builder {
+
+		private int weekdayMask;
+		private int rangeCount;
+
+		private long[] ranges;
+
+		private final List<AnnualRule> annualRules;
+
+		private final String name;
+
+		private Builder(String name) {
+			this.name = name;
+			this.ranges = new long[16];
+			this.annualRules = new ArrayList<>();
+		}
+
+		/**
+		 * This method excludes weekdays, for example Saturday and Sunday.
+		 *
+		 * @param daysOfWeek - One or more <code>DayOfWeek</code> values.
+		 * @return This builder.
+		 */
+		public Builder excludeDaysOfWeek(DayOfWeek... daysOfWeek) {
+			weekdayMask |= MonthGrid.weekdayMask(daysOfWeek);
+			return this;
+		}
+
+		/**
+		 * This method adds a one time holiday.
+		 *
+		 * @param date - The holiday.
+		 * @return This builder.
+		 */
+		public Builder addHoliday(LocalDate date) {
+			int epochDay = (int) date.toEpochDay();
+			addRange(epochDay, epochDay);
+			return this;
+		}
+
+		/**
+		 * This method adds a blackout range of dates.
+		 *
+		 * @param fromDate - The first date of the range.
+		 * @param toDate   - The last date of the range, inclusive.
+		 * @return This builder.
+		 */
+		public Builder addBlackout(LocalDate fromDate, LocalDate toDate) {
+			if (toDate.isBefore(fromDate)) {
+				String text = "Blackout end date " + toDate + " must not "
+						+ "come before the start date " + fromDate;
+				throw new InvalidParameterException(text);
+			}
+			addRange((int) fromDate.toEpochDay(), (int) toDate.toEpochDay());
+			return this;
+		}
+
+		/**
+		 * This method adds a holiday that falls on the same day every year, like
+		 * July 4. A February 29 holiday is only excluded in leap years.
+		 *
+		 * @param month      - The month of the holiday.
+		 * @param dayOfMonth - The day of the month of the holiday.
+		 * @return This builder.
+		 */
+		public Builder addAnnualHoliday(Month month, int dayOfMonth) {
+			if (dayOfMonth < 1 || dayOfMonth > month.maxLength()) {
+				String text = "Day " + dayOfMonth + " is not a valid day of "
+						+ month;
+				throw new InvalidParameterException(text);
+			}
+			annualRules.add(new AnnualRule(month.getValue(), dayOfMonth, 0, 0));
+			return this;
+		}
+
+		/**
+		 * This method adds a holiday that falls on the nth weekday of a month
+		 * every year, like the fourth Thursday of November or the last Monday of
+		 * May.
+		 *
+		 * @param month     - The month of the holiday.
+		 * @param ordinal   - 1 to 5 for the first to the fifth weekday of the
+		 *                  month, or -1 for the last.
+		 * @param dayOfWeek - The weekday of the holiday.
+		 * @return This builder.
+		 */
+		public Builder addDayOfWeekInMonth(Month month, int ordinal,
+				DayOfWeek dayOfWeek) {
+			if (ordinal == 0 || ordinal < -1 || ordinal > 5) {
+				String text = "Ordinal " + ordinal + " must be 1 to 5, or -1 "
+						+ "for the last " + dayOfWeek;
+				throw new InvalidParameterException(text);
+			}
+			annualRules.add(new AnnualRule(month.getValue(), 0, ordinal,
+					dayOfWeek.getValue()));
+			return this;
+		}
+
+		/**
+		 * This method adds all of the rules of another calendar, so a regional
+		 * calendar can be built on top of a national calendar.
+		 *
+		 * @param other - The calendar whose rules are added.
+		 * @return This builder.
+		 */
+		public Builder addAll(HolidayCalendar other) {
+			weekdayMask |= other.weekdayMask;
+			for (int index = 0; index < other.rangeStarts.length; index++) {
+				addRange(other.rangeStarts[index], other.rangeEnds[index]);
+			}
+			annualRules.addAll(Arrays.asList(other.annualRules));
+			return this;
+		}
+
+		public HolidayCalendar build() {
+			return new HolidayCalendar(this);
+		}
+
+		private void addRange(int startEpochDay, int endEpochDay) {
+			if (rangeCount == ranges.length) {
+				ranges = Arrays.copyOf(ranges, rangeCount * 2);
+			}
+			ranges[rangeCount++] = ((long) startEpochDay << 32)
+					| (endEpochDay & 0xFFFFFFFFL);
+		}
+
+	}
+
+	private static final class AnnualRule {
+
+		private final int month;
+		private final int dayOfMonth;
+		private final int ordinal;
+		private final int dayOfWeek;
+
+		public AnnualRule(int month, int dayOfMonth, int ordinal, int dayOfWeek) {
+			this.month = month;
+			this.dayOfMonth = dayOfMonth;
+			this.ordinal = ordinal;
+			this.dayOfWeek = dayOfWeek;
+		}
+
+		/**
+		 * This method returns the day of the month of this rule in a year.
+		 *
+		 * @param year - The year.
+		 * @return The day of the month, or zero if the rule doesn't fall in the
+		 *         year.
+		 */
+		public int getDayOfMonth(int year) {
+			int monthLength = MonthGrid.lengthOfMonth(year, month);
+			if (ordinal == 0) {
+				return (dayOfMonth <= monthLength) ? dayOfMonth : 0;
+			}
+
+			if (ordinal > 0) {
+				int firstWeekday = MonthGrid.dayOfWeekValue(
+						MonthGrid.epochDay(year, month, 1));
+				int day = 1 + Math.floorMod(dayOfWeek - firstWeekday, 7)
+						+ (ordinal - 1) * 7;
+				return (day <= monthLength) ? day : 0;
+			}
+
+			int lastWeekday = MonthGrid.dayOfWeekValue(
+					MonthGrid.epochDay(year, month, monthLength));
+			return monthLength - Math.floorMod(lastWeekday - dayOfWeek, 7);
+		}
+
+	}
+
+}
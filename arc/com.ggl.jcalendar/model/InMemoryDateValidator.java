@@ -0,0 +1,111 @@
+package com.ggl.jcalendar.model;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * <code>InMemoryDateValidator</code> is a local stand-in for a backend
+ * <code>DateValidator</code>. It rejects the dates it's been given, accepts
+ * every other date, and can wait before answering to act like a slow
+ * service. A range of dates is answered with one wait, like a service that
+ * checks a range with one request.
+ * </p>
+ *
+ * <p>
+ * An <code>InMemoryDateValidator</code> is thread safe. It counts its calls,
+ * so a test can check that a cached verdict isn't asked for again.
+ * </p>
+ *
+ * <pre>
+ * <code>
+ *    InMemoryDateValidator validator = new InMemoryDateValidator(500L);
+ *    validator.reject(LocalDate.of(2021, 12, 24));
+ *    calendar.setDateValidator(validator, 2000);
+ * </code>
+ * </pre>
+ *
+ * @see DateValidator
+ */
+public class InMemoryDateValidator implements DateValidator {
+
+	private final AtomicInteger callCount;
+
+	private final Set<Integer> rejectedEpochDays;
+
+	private volatile long latencyMillis;
+
+	/**
+	 * This constructor creates an <code>InMemoryDateValidator</code> that
+	 * accepts every date.
+	 *
+	 * @param latencyMillis - The time to wait before each answer, in
+	 *                      milliseconds.
+	 */
+	public InMemoryDateValidator(long latencyMillis) {
+		this.callCount = new AtomicInteger();
+		this.rejectedEpochDays = ConcurrentHashMap.newKeySet();
+		this.latencyMillis = latencyMillis;
+	}
+
+	public void reject(LocalDate... dates) {
+		for (LocalDate date : dates) {
+			rejectedEpochDays.add((int) date.toEpochDay());
+		}
+	}
+
+	public void accept(LocalDate... dates) {
+		for (LocalDate date : dates) {
+			rejectedEpochDays.remove((int) date.toEpochDay());
+		}
+	}
+
+	public void setLatencyMillis(long latencyMillis) {
+		this.latencyMillis = latencyMillis;
+	}
+
+	public int getCallCount() {
+		return callCount.get();
+	}
+
+	@Override
+	public boolean isValid(LocalDate date) {
+		return await() && !rejectedEpochDays.contains((int) date.toEpochDay());
+	}
+
+	@Override
+	public boolean[] areValid(LocalDate firstDate, LocalDate lastDate) {
+		int firstEpochDay = (int) firstDate.toEpochDay();
+		boolean[] verdicts = new boolean[(int) lastDate.toEpochDay()
+				- firstEpochDay + 1];
+		if (await()) {
+			for (int index = 0; index < verdicts.length; index++) {
+				verdicts[index] = 
+						!rejectedEpochDays.contains(firstEpochDay + index);
+			}
+		}
+		return verdicts;
+	}
+
+	/**
+	 * This method counts a call and waits for the latency. It returns
+	 * <code>false</code> if the wait is interrupted.
+	 */
+	private boolean await() {
+		callCount.incrementAndGet();
+		long latency = latencyMillis;
+		if (latency > 0L) {
+			try {
+				TimeUnit.MILLISECONDS.sleep(latency);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
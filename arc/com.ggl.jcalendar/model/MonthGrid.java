@@ -0,0 +1,388 @@
+package com.ggl.jcalendar.model;
+
+import java.time.DayOfWeek;
+
+/**
+ * <p>
+ * <code>MonthGrid</code> is the immutable layout of one calendar month as the
+ * 42 day cells (six weeks of seven days) that a <code>JCalendar</code>
+ * displays.
+ * </p>
+ *
+ * <p>
+ * All of the date math is done with primitive epoch day <code>int</code>
+ * values, so creating a <code>MonthGrid</code> creates no
+ * <code>LocalDate</code> instances. Each cell holds the day of the month, or
+ * zero when the cell is blank. The enabled cells and the highlighted cell are
+ * held as <code>long</code> bit masks, one bit per cell.
+ * </p>
+ *
+ * <p>
+ * The year and month are ISO, unless the grid was made from a
+ * <code>ChronologyTable</code> month, in which case they're the year and
+ * month of that chronology. The epoch days are the same in every
+ * chronology.
+ * </p>
+ *
+ * @see java.time.DayOfWeek
+ * @see HolidayCalendar
+ * @see MonthGridCache
+ * @see ChronologyTable
+ */
+public final class MonthGrid {
+
+	/** The number of day cells in a month grid. */
+	public static final int CELL_COUNT = 42;
+
+	/** The cell mask with all 42 cells set. */
+	public static final long ALL_CELLS = (1L << CELL_COUNT) - 1L;
+
+	/** Epoch day value used when there is no earliest date. */
+	public static final int NO_EARLIEST_DATE = Integer.MIN_VALUE;
+
+	/** Epoch day value used when there is no latest date. */
+	public static final int NO_LATEST_DATE = Integer.MAX_VALUE;
+
+	private final int year;
+	private final int month;
+	private final int firstEpochDay;
+	private final int firstCellEpochDay;
+	private final int monthLength;
+
+	private final long enabledMask;
+	private final long highlightMask;
+
+	private final byte[] dayNumbers;
+
+	private MonthGrid(int year, int month, int firstEpochDay, int monthLength,
+			int firstCellEpochDay, byte[] dayNumbers, long enabledMask,
+			long highlightMask) {
+		this.year = year;
+		this.month = month;
+		this.firstEpochDay = firstEpochDay;
+		this.monthLength = monthLength;
+		this.firstCellEpochDay = firstCellEpochDay;
+		this.dayNumbers = dayNumbers;
+		this.enabledMask = enabledMask;
+		this.highlightMask = highlightMask;
+	}
+
+	/**
+	 * This method computes the month grid for a year and month.
+	 *
+	 * @param year                - The year.
+	 * @param month               - The month, from 1 (January) to 12
+	 *                            (December).
+	 * @param highlightDay        - The day of the month to highlight, or zero
+	 *                            for no highlight.
+	 * @param startDayOfWeek      - <code>DayOfWeek</code> that starts the week.
+	 * @param excludedWeekdayMask - Bit mask of the excluded weekdays, as created
+	 *                            by <code>weekdayMask</code>.
+	 * @param holidayCalendar     - Holiday and blackout rules, or
+	 *                            <code>null</code> for none.
+	 * @param earliestEpochDay    - Earliest selectable epoch day, or
+	 *                            <code>NO_EARLIEST_DATE</code>.
+	 * @param latestEpochDay      - Latest selectable epoch day, or
+	 *                            <code>NO_LATEST_DATE</code>.
+	 * @return The month grid.
+	 */
+	public static MonthGrid of(int year, int month, int highlightDay,
+			DayOfWeek startDayOfWeek, int excludedWeekdayMask,
+			HolidayCalendar holidayCalendar, int earliestEpochDay,
+			int latestEpochDay) {
+		return of(year, month, epochDay(year, month, 1),
+				lengthOfMonth(year, month), highlightDay, startDayOfWeek,
+				excludedWeekdayMask, holidayCalendar, earliestEpochDay,
+				latestEpochDay);
+	}
+
+	/**
+	 * This method computes the month grid of a month given by its first day
+	 * and length, for example a month of a <code>ChronologyTable</code>.
+	 *
+	 * @param year                - The year, in the month's chronology.
+	 * @param month               - The month, in the month's chronology.
+	 * @param firstEpochDay       - The epoch day of the first day of the
+	 *                            month.
+	 * @param monthLength         - The length of the month in days.
+	 * @param highlightDay        - The day of the month to highlight, or zero
+	 *                            for no highlight.
+	 * @param startDayOfWeek      - <code>DayOfWeek</code> that starts the week.
+	 * @param excludedWeekdayMask - Bit mask of the excluded weekdays, as created
+	 *                            by <code>weekdayMask</code>.
+	 * @param holidayCalendar     - Holiday and blackout rules, or
+	 *                            <code>null</code> for none.
+	 * @param earliestEpochDay    - Earliest selectable epoch day, or
+	 *                            <code>NO_EARLIEST_DATE</code>.
+	 * @param latestEpochDay      - Latest selectable epoch day, or
+	 *                            <code>NO_LATEST_DATE</code>.
+	 * @return The month grid.
+	 */
+	public static MonthGrid of(int year, int month, int firstEpochDay,
+			int monthLength, int highlightDay, DayOfWeek startDayOfWeek,
+			int excludedWeekdayMask, HolidayCalendar holidayCalendar,
+			int earliestEpochDay, int latestEpochDay) {
+		int offset = Math.floorMod(dayOfWeekValue(firstEpochDay)
+				- startDayOfWeek.getValue(), 7);
+		int firstCellEpochDay = firstEpochDay - offset;
+
+		byte[] dayNumbers = new byte[CELL_COUNT];
+		long enabledMask = 0L;
+		long highlightMask = 0L;
+		for (int index = 0; index < CELL_COUNT; index++) {
+			int epochDay = firstCellEpochDay + index;
+			int dayOfMonth = epochDay - firstEpochDay + 1;
+			if (dayOfMonth < 1 || dayOfMonth > monthLength) {
+				continue;
+			}
+			if (epochDay < earliestEpochDay || epochDay > latestEpochDay) {
+				continue;
+			}
+			dayNumbers[index] = (byte) dayOfMonth;
+			if ((excludedWeekdayMask & (1 << dayOfWeekValue(epochDay))) == 0
+					&& (holidayCalendar == null
+							|| !holidayCalendar.isExcluded(epochDay))) {
+				enabledMask |= 1L << index;
+			}
+			if (dayOfMonth == highlightDay) {
+				highlightMask |= 1L << index;
+			}
+		}
+
+		return new MonthGrid(year, month, firstEpochDay, monthLength,
+				firstCellEpochDay, dayNumbers, enabledMask, highlightMask);
+	}
+
+	/**
+	 * This method returns the bit mask for a set of weekdays. Bit
+	 * <code>DayOfWeek.getValue()</code> is set for each weekday.
+	 *
+	 * @param daysOfWeek - Zero or more <code>DayOfWeek</code> values.
+	 * @return The weekday bit mask.
+	 */
+	public static int weekdayMask(DayOfWeek... daysOfWeek) {
+		int mask = 0;
+		for (DayOfWeek day : daysOfWeek) {
+			mask |= 1 << day.getValue();
+		}
+		return mask;
+	}
+
+	/**
+	 * This method returns the epoch day of a date, without creating a
+	 * <code>LocalDate</code>.
+	 *
+	 * @param year       - The year.
+	 * @param month      - The month, from 1 to 12.
+	 * @param dayOfMonth - The day of the month.
+	 * @return The number of days since 1 January 1970.
+	 */
+	public static int epochDay(int year, int month, int dayOfMonth) {
+		int y = (month <= 2) ? year - 1 : year;
+		int era = Math.floorDiv(y, 400);
+		int yearOfEra = y - era * 400;
+		int dayOfYear = (153 * (month + ((month > 2) ? -3 : 9)) + 2) / 5
+				+ dayOfMonth - 1;
+		int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100
+				+ dayOfYear;
+		return era * 146097 + dayOfEra - 719468;
+	}
+
+	/**
+	 * This method returns the year of an epoch day, without creating a
+	 * <code>LocalDate</code>.
+	 *
+	 * @param epochDay - The number of days since 1 January 1970.
+	 * @return The year.
+	 */
+	public static int yearOfEpochDay(int epochDay) {
+		int days = epochDay + 719468;
+		int era = Math.floorDiv(days, 146097);
+		int dayOfEra = days - era * 146097;
+		int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524
+				- dayOfEra / 146096) / 365;
+		int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4
+				- yearOfEra / 100);
+		int shiftedMonth = (5 * dayOfYear + 2) / 153;
+		int year = yearOfEra + era * 400;
+		return (shiftedMonth >= 10) ? year + 1 : year;
+	}
+
+	/**
+	 * This method returns the month of an epoch day, without creating a
+	 * <code>LocalDate</code>.
+	 *
+	 * @param epochDay - The number of days since 1 January 1970.
+	 * @return The month, from 1 to 12.
+	 */
+	public static int monthOfEpochDay(int epochDay) {
+		int shiftedMonth = (5 * marchDayOfYear(epochDay) + 2) / 153;
+		return (shiftedMonth >= 10) ? shiftedMonth - 9 : shiftedMonth + 3;
+	}
+
+	/**
+	 * This method returns the day of the month of an epoch day, without
+	 * creating a <code>LocalDate</code>.
+	 *
+	 * @param epochDay - The number of days since 1 January 1970.
+	 * @return The day of the month, from 1.
+	 */
+	public static int dayOfMonthOfEpochDay(int epochDay) {
+		int dayOfYear = marchDayOfYear(epochDay);
+		int shiftedMonth = (5 * dayOfYear + 2) / 153;
+		return dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+	}
+
+	/**
+	 * This method returns the day of a year that starts on 1 March, from 0,
+	 * so the leap day is the last day of the year.
+	 */
+	private static int marchDayOfYear(int epochDay) {
+		int days = epochDay + 719468;
+		int era = Math.floorDiv(days, 146097);
+		int dayOfEra = days - era * 146097;
+		int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524
+				- dayOfEra / 146096) / 365;
+		return dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+	}
+
+	/**
+	 * This method returns the ISO day of week value of an epoch day, from 1
+	 * (Monday) to 7 (Sunday).
+	 *
+	 * @param epochDay - The number of days since 1 January 1970.
+	 * @return The day of week value.
+	 */
+	public static int dayOfWeekValue(int epochDay) {
+		return Math.floorMod(epochDay + 3, 7) + 1;
+	}
+
+	/**
+	 * This method returns the number of days in a month.
+	 *
+	 * @param year  - The year.
+	 * @param month - The month, from 1 to 12.
+	 * @return The length of the month in days.
+	 */
+	public static int lengthOfMonth(int year, int month) {
+		switch (month) {
+		case 2:
+			return isLeapYear(year) ? 29 : 28;
+		case 4:
+		case 6:
+		case 9:
+		case 11:
+			return 30;
+		default:
+			return 31;
+		}
+	}
+
+	/**
+	 * This method returns whether the year is an ISO leap year.
+	 *
+	 * @param year - The year.
+	 * @return <code>true</code> if the year is a leap year.
+	 */
+	public static boolean isLeapYear(int year) {
+		return ((year & 3) == 0) && ((year % 100) != 0 || (year % 400) == 0);
+	}
+
+	public int getYear() {
+		return year;
+	}
+
+	public int getMonth() {
+		return month;
+	}
+
+	/**
+	 * This method returns the epoch day of the first day of the month.
+	 *
+	 * @return The epoch day of day 1.
+	 */
+	public int getFirstEpochDay() {
+		return firstEpochDay;
+	}
+
+	public int getMonthLength() {
+		return monthLength;
+	}
+
+	/**
+	 * This method returns the epoch day of a cell. Blank cells have an epoch
+	 * day as well.
+	 *
+	 * @param index - The cell index, from 0 to 41.
+	 * @return The epoch day of the cell.
+	 */
+	public int getEpochDay(int index) {
+		return firstCellEpochDay + index;
+	}
+
+	/**
+	 * This method returns the day of the month displayed in a cell.
+	 *
+	 * @param index - The cell index, from 0 to 41.
+	 * @return The day of the month, or zero if the cell is blank.
+	 */
+	public int getDayOfMonth(int index) {
+		return dayNumbers[index];
+	}
+
+	public boolean isEnabled(int index) {
+		return (enabledMask & (1L << index)) != 0L;
+	}
+
+	public boolean isHighlighted(int index) {
+		return (highlightMask & (1L << index)) != 0L;
+	}
+
+	/**
+	 * This method returns the cells that display differently in another month
+	 * grid: a different day number, enabled state or highlight.
+	 *
+	 * @param other - The other month grid, or <code>null</code>.
+	 * @return The cell mask of the changed cells, or <code>ALL_CELLS</code> if
+	 *         the other grid is <code>null</code>.
+	 */
+	public long getChangedCells(MonthGrid other) {
+		if (other == null) {
+			return ALL_CELLS;
+		}
+		long changedCells = (enabledMask ^ other.enabledMask)
+				| (highlightMask ^ other.highlightMask);
+		for (int index = 0; index < CELL_COUNT; index++) {
+			if (dayNumbers[index] != other.dayNumbers[index]) {
+				changedCells |= 1L << index;
+			}
+		}
+		return changedCells;
+	}
+
+	/**
+	 * This method returns this month grid with more cells disabled, for
+	 * example the closed days of a <code>DayDataIndex</code>. When no enabled
+	 * cell is disabled, this same grid is returned.
+	 *
+	 * @param cellMask - The cells to disable, bit 0 for the first cell.
+	 * @return The month grid with the cells disabled.
+	 */
+	public MonthGrid withDisabledCells(long cellMask) {
+		long newEnabledMask = enabledMask & ~cellMask;
+		if (newEnabledMask == enabledMask) {
+			return this;
+		}
+		return new MonthGrid(year, month, firstEpochDay, monthLength,
+				firstCellEpochDay, dayNumbers, newEnabledMask, highlightMask);
+	}
+
+	public long getEnabledMask() {
+		return enabledMask;
+	}
+
+	public long getHighlightMask() {
+		return highlightMask;
+	}
+
+}
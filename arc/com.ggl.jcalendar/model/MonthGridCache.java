@@ -0,0 +1,238 @@
+package com.ggl.jcalendar.model;
+
+import java.time.DayOfWeek;
+import java.time.chrono.Chronology;
+import java.time.chrono.IsoChronology;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * <code>MonthGridCache</code> is a bounded, least recently used cache of
+ * <code>MonthGrid</code> layouts. The cache key is the chronology, year and
+ * month plus the settings that change the layout, so paging back and forth
+ * between months reuses the layouts that were already computed.
+ * </p>
+ *
+ * <p>
+ * The cache also keeps the month grids with more cells disabled, like the
+ * closed days of a <code>DayDataIndex</code>, so the same month with the same
+ * closed days is the same <code>MonthGrid</code> instance.
+ * </p>
+ *
+ * <p>
+ * The cache methods are synchronized, so one cache may be shared by several
+ * <code>JCalendar</code> instances.
+ * </p>
+ *
+ * @see MonthGrid
+ */
+public class MonthGridCache {
+
+	private final Map<Key, MonthGrid> cache;
+
+	private final Map<DisabledKey, MonthGrid> disabledCache;
+
+	/**
+	 * This constructor creates an empty <code>MonthGridCache</code>.
+	 *
+	 * @param capacity - The maximum number of month grids to keep.
+	 */
+	public MonthGridCache(final int capacity) {
+		this.cache = new LinkedHashMap<Key, MonthGrid>(capacity * 2, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, MonthGrid> eldest) {
+				return size() > capacity;
+			}
+		};
+		this.disabledCache = new LinkedHashMap<DisabledKey, MonthGrid>(
+				capacity * 2, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+					Map.Entry<DisabledKey, MonthGrid> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * This method returns the cached month grid of a calendar model.
+	 *
+	 * @param model        - The settings of the month grid.
+	 * @param year         - The year, in the chronology of the model.
+	 * @param month        - The month, from 1.
+	 * @param highlightDay - The day of the month to highlight, or zero for
+	 *                     none.
+	 * @return The month grid.
+	 */
+	public synchronized MonthGrid getMonthGrid(CalendarModel model, int year,
+			int month, int highlightDay) {
+		Key key = new Key(model.getChronology(), year, month, highlightDay,
+				model.getStartDayOfWeek(), model.getExcludedWeekdayMask(),
+				model.getHolidayCalendar(), model.getEarliestEpochDay(),
+				model.getLatestEpochDay());
+		MonthGrid monthGrid = cache.get(key);
+		if (monthGrid == null) {
+			monthGrid = model.getMonthGrid(year, month, highlightDay);
+			cache.put(key, monthGrid);
+		}
+		return monthGrid;
+	}
+
+	/**
+	 * This method returns the cached ISO month grid, computing it when it's
+	 * not in the cache. The parameters are the same as
+	 * <code>MonthGrid.of</code>.
+	 *
+	 * @return The month grid.
+	 */
+	public synchronized MonthGrid getMonthGrid(int year, int month,
+			int highlightDay, DayOfWeek startDayOfWeek,
+			int excludedWeekdayMask, HolidayCalendar holidayCalendar,
+			int earliestEpochDay, int latestEpochDay) {
+		Key key = new Key(IsoChronology.INSTANCE, year, month, highlightDay,
+				startDayOfWeek, excludedWeekdayMask, holidayCalendar,
+				earliestEpochDay, latestEpochDay);
+		MonthGrid monthGrid = cache.get(key);
+		if (monthGrid == null) {
+			monthGrid = MonthGrid.of(year, month, highlightDay, startDayOfWeek,
+					excludedWeekdayMask, holidayCalendar, earliestEpochDay,
+					latestEpochDay);
+			cache.put(key, monthGrid);
+		}
+		return monthGrid;
+	}
+
+	/**
+	 * This method returns the cached month grid with more cells disabled. The
+	 * same month grid and cell mask return the same instance, so the month
+	 * grid can be compared by identity.
+	 *
+	 * @param monthGrid - The month grid, usually from this cache.
+	 * @param cellMask  - The cells to disable, bit 0 for the first cell.
+	 * @return The month grid with the cells disabled.
+	 * @see MonthGrid#withDisabledCells(long)
+	 */
+	public synchronized MonthGrid getMonthGrid(MonthGrid monthGrid,
+			long cellMask) {
+		if ((monthGrid.getEnabledMask() & cellMask) == 0L) {
+			return monthGrid;
+		}
+		DisabledKey key = new DisabledKey(monthGrid, cellMask);
+		MonthGrid disabledGrid = disabledCache.get(key);
+		if (disabledGrid == null) {
+			disabledGrid = monthGrid.withDisabledCells(cellMask);
+			disabledCache.put(key, disabledGrid);
+		}
+		return disabledGrid;
+	}
+
+	public synchronized void clear() {
+		cache.clear();
+		disabledCache.clear();
+	}
+
+	/**
+	 * <code>DisabledKey</code> is a month grid, by identity, and the cells
+	 * disabled in it.
+	 */
+	private static final class DisabledKey {
+
+		private final long cellMask;
+
+		private final MonthGrid monthGrid;
+
+		public DisabledKey(MonthGrid monthGrid, long cellMask) {
+			this.monthGrid = monthGrid;
+			this.cellMask = cellMask;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(monthGrid)
+					+ Long.hashCode(cellMask);
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (this == object) {
+				return true;
+			}
+			if (!(object instanceof DisabledKey)) {
+				return false;
+			}
+			DisabledKey other = (DisabledKey) object;
+			return monthGrid == other.monthGrid && cellMask == other.cellMask;
+		}
+
+	}
+
+	private static final class Key {
+
+		private final int year;
+		private final int month;
+		private final int highlightDay;
+		private final int excludedWeekdayMask;
+		private final int earliestEpochDay;
+		private final int latestEpochDay;
+
+		private final Chronology chronology;
+
+		private final DayOfWeek startDayOfWeek;
+
+		private final HolidayCalendar holidayCalendar;
+
+		public Key(Chronology chronology, int year, int month,
+				int highlightDay, DayOfWeek startDayOfWeek,
+				int excludedWeekdayMask, HolidayCalendar holidayCalendar,
+				int earliestEpochDay, int latestEpochDay) {
+			this.chronology = chronology;
+			this.year = year;
+			this.month = month;
+			this.highlightDay = highlightDay;
+			this.startDayOfWeek = startDayOfWeek;
+			this.excludedWeekdayMask = excludedWeekdayMask;
+			this.holidayCalendar = holidayCalendar;
+			this.earliestEpochDay = earliestEpochDay;
+			this.latestEpochDay = latestEpochDay;
+		}
+
+		@Override
+		public int hashCode() {
+			int result = year * 12 + month;
+			result = 31 * result + chronology.hashCode();
+			result = 31 * result + highlightDay;
+			result = 31 * result + startDayOfWeek.ordinal();
+			result = 31 * result + excludedWeekdayMask;
+			result = 31 * result + System.identityHashCode(holidayCalendar);
+			result = 31 * result + earliestEpochDay;
+			result = 31 * result + latestEpochDay;
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (this == object) {
+				return true;
+			}
+			if (!(object instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) object;
+			return year == other.year && month == other.month
+					&& chronology.equals(other.chronology)
+					&& highlightDay == other.highlightDay
+					&& startDayOfWeek == other.startDayOfWeek
+					&& excludedWeekdayMask == other.excludedWeekdayMask
+					&& holidayCalendar == other.holidayCalendar
+					&& earliestEpochDay == other.earliestEpochDay
+					&& latestEpochDay == other.latestEpochDay;
+		}
+
+	}
+
+}
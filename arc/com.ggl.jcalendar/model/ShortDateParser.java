@@ -0,0 +1,164 @@
+package com.ggl.jcalendar.model;
+
+import java.util.function.IntPredicate;
+
+/**
+ * <p>
+ * <code>ShortDateParser</code> parses typed dates in the <code>M/d/yy</code>
+ * format, one keystroke at a time. It reads the characters in place and
+ * returns an epoch day, so parsing creates no objects at all, not even a
+ * <code>String</code>.
+ * </p>
+ *
+ * <p>
+ * The month and the day have one or two digits, and the year has two or four
+ * digits. A slash or a dash separates them. Text that could still become a
+ * date, like <code>7/1</code> or <code>7/16/2</code>, is
+ * <code>INCOMPLETE</code>; text that can never become a date, like
+ * <code>13/</code> or <code>2/30</code>, is <code>INVALID</code>.
+ * </p>
+ *
+ * <p>
+ * A two digit year is in this century, unless only the last century's date
+ * is allowed by the caller's rules. So with a latest date of today, a birth
+ * date typed as <code>5/3/70</code> is 3 May 1970.
+ * </p>
+ *
+ * <pre>
+ * <code>
+ *    int epochDay = ShortDateParser.parse(segment, calendarModel);
+ *    if (epochDay == ShortDateParser.INVALID) {
+ *        ...
+ *    }
+ * </code>
+ * </pre>
+ *
+ * @see CalendarModel
+ */
+public final class ShortDateParser {
+
+	/** Returned for text that can't become a date. */
+	public static final int INVALID = Integer.MIN_VALUE;
+
+	/** Returned for empty text, or text that could still become a date. */
+	public static final int INCOMPLETE = Integer.MIN_VALUE + 1;
+
+	private static final int[] MAXIMUM_DAYS = { 31, 29, 31, 30, 31, 30, 31, 31,
+			30, 31, 30, 31 };
+
+	private ShortDateParser() {
+
+	}
+
+	/**
+	 * This method parses a typed date.
+	 *
+	 * @param text      - The typed text. Leading and trailing spaces are
+	 *                  ignored.
+	 * @param preferred - The dates the user may select, used to choose the
+	 *                  century of a two digit year, or <code>null</code> to
+	 *                  always choose this century.
+	 * @return The date as an epoch day, or <code>INCOMPLETE</code>, or
+	 *         <code>INVALID</code>.
+	 */
+	public static int parse(CharSequence text, IntPredicate preferred) {
+		int start = 0;
+		int end = text.length();
+		while (start < end && text.charAt(start) == ' ') {
+			start++;
+		}
+		while (end > start && text.charAt(end - 1) == ' ') {
+			end--;
+		}
+
+		// Month
+		int index = start;
+		int month = 0;
+		while (index < end && isDigit(text.charAt(index))) {
+			if (index - start == 2) {
+				return INVALID;
+			}
+			month = month * 10 + (text.charAt(index++) - '0');
+		}
+		if (month > 12) {
+			return INVALID;
+		}
+		if (index == end) {
+			return INCOMPLETE;
+		}
+		if (index == start || month == 0 || !isSeparator(text.charAt(index))) {
+			return INVALID;
+		}
+
+		// Day of month
+		int dayStart = ++index;
+		int day = 0;
+		while (index < end && isDigit(text.charAt(index))) {
+			if (index - dayStart == 2) {
+				return INVALID;
+			}
+			day = day * 10 + (text.charAt(index++) - '0');
+		}
+		if (day > MAXIMUM_DAYS[month - 1]) {
+			return INVALID;
+		}
+		if (index == end) {
+			return (index - dayStart == 2 && day == 0) ? INVALID : INCOMPLETE;
+		}
+		if (index == dayStart || day == 0 || !isSeparator(text.charAt(index))) {
+			return INVALID;
+		}
+
+		// Year
+		int yearStart = ++index;
+		int year = 0;
+		while (index < end && isDigit(text.charAt(index))) {
+			if (index - yearStart == 4) {
+				return INVALID;
+			}
+			year = year * 10 + (text.charAt(index++) - '0');
+		}
+		if (index < end) {
+			return INVALID;
+		}
+		int yearDigits = index - yearStart;
+		if (yearDigits == 2) {
+			year = resolveCentury(year, month, day, preferred);
+		} else if (yearDigits != 4) {
+			return INCOMPLETE;
+		}
+		if (day > MonthGrid.lengthOfMonth(year, month)) {
+			return INVALID;
+		}
+		return MonthGrid.epochDay(year, month, day);
+	}
+
+	/**
+	 * This method chooses 20yy, unless only 19yy is a valid, preferred date.
+	 */
+	private static int resolveCentury(int yy, int month, int day,
+			IntPredicate preferred) {
+		int year = 2000 + yy;
+		if (preferred == null) {
+			return year;
+		}
+		boolean thisCentury = day <= MonthGrid.lengthOfMonth(year, month)
+				&& preferred.test(MonthGrid.epochDay(year, month, day));
+		if (thisCentury) {
+			return year;
+		}
+		int lastCenturyYear = 1900 + yy;
+		boolean lastCentury = day <= MonthGrid.lengthOfMonth(lastCenturyYear, month)
+				&& preferred.test(MonthGrid.epochDay(lastCenturyYear, month, day));
+		return lastCentury ? lastCenturyYear : year;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isSeparator(char c) {
+		return c == '/' || c == '-';
+	}
+
+}
@@ -0,0 +1,610 @@
+package com.ggl.jcalendar.view;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.InvalidParameterException;
+import java.time.DayOfWeek;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+import javax.swing.UIManager;
+
+import com.ggl.jcalendar.model.CalendarModel;
+import com.ggl.jcalendar.model.DateTextService;
+import com.ggl.jcalendar.model.MonthGrid;
+
+/**
+ * <p>
+ * <code>CalendarExporter</code> renders calendar months to PNG, SVG or HTML
+ * files, without displaying anything. It's meant for batch jobs that print
+ * monthly and yearly calendars, so it runs with
+ * <code>-Djava.awt.headless=true</code>.
+ * </p>
+ *
+ * <p>
+ * The months are rendered in parallel on a bounded pool of one thread per
+ * core. When the queue is full, the calling thread renders the next month
+ * itself, so a job of thousands of months never queues more than a few. Each
+ * month is written to its file as soon as it's rendered; only one image per
+ * thread is held in memory, and that image is reused.
+ * </p>
+ *
+ * <p>
+ * The exporter uses the same settings as a <code>JCalendar</code> or a
+ * <code>CalendarSpec</code>: the colors, the font, the month and day names,
+ * and the <code>CalendarModel</code> with the start day of the week and the
+ * excluded days. The months are ISO <code>YearMonth</code> months, so a model
+ * of another chronology is used with the ISO chronology, and keeps the ISO
+ * month names.
+ * A <code>CalendarExporter</code> is immutable and thread safe.
+ * </p>
+ *
+ * <pre>
+ * <code>
+ *    CalendarExporter exporter = CalendarExporter.builder()
+ *            .setCalendarModel(calendar.getCalendarModel())
+ *            .setPanelForegroundColor(Color.BLACK)
+ *            .build();
+ *    exporter.export(CalendarExporter.months(YearMonth.of(2022, 1), 12),
+ *            CalendarExporter.Format.PNG, Paths.get("site-42"));
+ * </code>
+ * </pre>
+ *
+ * @see DayGridPainter
+ * @see com.ggl.jcalendar.model.CalendarModel
+ */
+public final class CalendarExporter {
+
+	/**
+	 * The export file formats.
+	 */
+	public enum Format {
+		PNG("png"), SVG("svg"), HTML("html");
+
+		private final String extension;
+
+		private Format(String extension) {
+			this.extension = extension;
+		}
+
+		public String getExtension() {
+			return extension;
+		}
+	}
+
+	private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+	private final Color panelBackGroundColor;
+	private final Color panelForegroundColor;
+	private final Color dayHighlightColor;
+	private final Color disabledTextColor;
+
+	private final double scale;
+
+	private final int cellWidth;
+	private final int cellHeight;
+	private final int ascent;
+	private final int fontHeight;
+	private final int parallelism;
+
+	private final CalendarModel calendarModel;
+
+	private final DayGridPainter painter;
+
+	private final Font font;
+
+	private final String[] dayNames;
+	private final String[] monthNames;
+
+	private final ThreadLocal<BufferedImage> images;
+
+	private CalendarExporter(Builder builder) {
+		this.calendarModel = builder.calendarModel.toBuilder()
+				.setChronology(null).build();
+		this.panelBackGroundColor = builder.panelBackGroundColor;
+		this.panelForegroundColor = builder.panelForegroundColor;
+		this.dayHighlightColor = builder.dayHighlightColor;
+		Color disabledText = UIManager.getColor("Button.disabledText");
+		this.disabledTextColor = (disabledText == null) ? Color.GRAY : disabledText;
+		this.font = builder.font;
+		this.dayNames = builder.dayNames.clone();
+		this.monthNames = builder.monthNames.clone();
+		this.scale = builder.scale;
+		this.parallelism = builder.parallelism;
+		this.painter = new DayGridPainter(panelBackGroundColor,
+				panelForegroundColor, dayHighlightColor, disabledTextColor, font,
+				dayNames);
+
+		BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g2d = scratch.createGraphics();
+		FontMetrics metrics = g2d.getFontMetrics(font);
+		g2d.dispose();
+		this.cellWidth = painter.getMaximumTextWidth(metrics) + 32;
+		this.cellHeight = metrics.getHeight() + 10;
+		this.ascent = metrics.getAscent();
+		this.fontHeight = metrics.getHeight();
+
+		final int imageWidth = (int) Math.ceil(getWidth() * scale);
+		final int imageHeight = (int) Math.ceil(getHeight() * scale);
+		this.images = new ThreadLocal<BufferedImage>() {
+			@Override
+			protected BufferedImage initialValue() {
+				return new BufferedImage(imageWidth, imageHeight,
+						BufferedImage.TYPE_INT_RGB);
+			}
+		};
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * This method returns consecutive months, for example the 12 months of a
+	 * yearly calendar.
+	 *
+	 * @param firstMonth - The first month.
+	 * @param count      - The number of months.
+	 * @return A new list of the months.
+	 */
+	public static List<YearMonth> months(YearMonth firstMonth, int count) {
+		List<YearMonth> months = new ArrayList<>(count);
+		for (int index = 0; index < count; index++) {
+			months.add(firstMonth.plusMonths(index));
+		}
+		return months;
+	}
+
+	/**
+	 * This method renders months to files in a directory, in parallel. Each
+	 * file is named after its month, like <code>2021-07.png</code>.
+	 *
+	 * @param months    - The months to render.
+	 * @param format    - The file format.
+	 * @param directory - The directory of the files. It's created if it
+	 *                  doesn't exist.
+	 * @return The files, in the order of the months.
+	 * @throws IOException if a file can't be written.
+	 */
+	public List<Path> export(Collection<YearMonth> months, final Format format,
+			Path directory) throws IOException {
+		Files.createDirectories(directory);
+
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism,
+				parallelism, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(parallelism * 2),
+				new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable runnable) {
+						Thread thread = new Thread(runnable, "JCalendar-export-"
+								+ THREAD_NUMBER.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				}, new ThreadPoolExecutor.CallerRunsPolicy());
+
+		List<Future<Path>> futures = new ArrayList<>(months.size());
+		try {
+			for (final YearMonth month : months) {
+				final Path path = directory.resolve(month + "."
+						+ format.getExtension());
+				futures.add(executor.submit(new Callable<Path>() {
+					@Override
+					public Path call() throws IOException {
+						try (OutputStream out = Files.newOutputStream(path)) {
+							export(month, format, out);
+						}
+						return path;
+					}
+				}));
+			}
+
+			List<Path> paths = new ArrayList<>(futures.size());
+			for (Future<Path> future : futures) {
+				paths.add(getResult(future));
+			}
+			return paths;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static Path getResult(Future<Path> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Export interrupted", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException("Export failed", e.getCause());
+		}
+	}
+
+	/**
+	 * This method renders one month to a stream. The stream isn't closed.
+	 *
+	 * @param month  - The month to render.
+	 * @param format - The format.
+	 * @param out    - The stream.
+	 * @throws IOException if the stream can't be written.
+	 */
+	public void export(YearMonth month, Format format, OutputStream out)
+			throws IOException {
+		MonthGrid monthGrid = calendarModel.getMonthGrid(month.getYear(),
+				month.getMonthValue(), 0);
+		if (format == Format.PNG) {
+			BufferedOutputStream bufferedOut = new BufferedOutputStream(out);
+			writePng(monthGrid, bufferedOut);
+			bufferedOut.flush();
+		} else {
+			Writer writer = new BufferedWriter(new OutputStreamWriter(out,
+					StandardCharsets.UTF_8));
+			if (format == Format.SVG) {
+				writeSvg(monthGrid, writer);
+			} else {
+				writeHtml(monthGrid, writer);
+			}
+			writer.flush();
+		}
+	}
+
+	private void writePng(MonthGrid monthGrid, OutputStream out)
+			throws IOException {
+		BufferedImage image = images.get();
+		Graphics2D g2d = image.createGraphics();
+		g2d.scale(scale, scale);
+		g2d.setColor(panelBackGroundColor);
+		g2d.fillRect(0, 0, getWidth(), cellHeight);
+		g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+				RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+		g2d.setFont(font);
+		g2d.setColor(panelForegroundColor);
+		String title = getTitle(monthGrid);
+		FontMetrics metrics = g2d.getFontMetrics();
+		g2d.drawString(title, (getWidth() - metrics.stringWidth(title)) / 2,
+				getBaseline());
+
+		g2d.translate(0, cellHeight);
+		painter.paint(g2d, getWidth(), getHeight() - cellHeight, monthGrid, null,
+				0L, -1, -1);
+		g2d.dispose();
+		ImageIO.write(image, "png", out);
+	}
+
+	private void writeSvg(MonthGrid monthGrid, Writer writer)
+			throws IOException {
+		int width = getWidth();
+		writer.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\""
+				+ Math.ceil(width * scale) + "\" height=\""
+				+ Math.ceil(getHeight() * scale) + "\" viewBox=\"0 0 " + width
+				+ " " + getHeight() + "\">\n");
+		writer.write("<g font-family=\"" + escape(font.getFamily())
+				+ "\" font-size=\"" + font.getSize2D() + "\" font-weight=\""
+				+ (font.isBold() ? "bold" : "normal")
+				+ "\" text-anchor=\"middle\">\n");
+		writer.write("<rect width=\"" + width + "\" height=\"" + getHeight()
+				+ "\" fill=\"" + toHex(panelBackGroundColor) + "\"/>\n");
+		writeSvgText(writer, getTitle(monthGrid), width / 2, getBaseline(),
+				panelForegroundColor);
+		for (int column = 0; column < DayGridPainter.COLUMNS; column++) {
+			writeSvgText(writer, dayNames[column],
+					column * cellWidth + cellWidth / 2, cellHeight + getBaseline(),
+					panelForegroundColor);
+		}
+
+		for (int index = 0; index < MonthGrid.CELL_COUNT; index++) {
+			int x = (index % DayGridPainter.COLUMNS) * cellWidth;
+			int y = (index / DayGridPainter.COLUMNS + 2) * cellHeight;
+			Color fill = monthGrid.isHighlighted(index) ? dayHighlightColor
+					: panelBackGroundColor;
+			writer.write("<rect x=\"" + (x + 1.5) + "\" y=\"" + (y + 1.5)
+					+ "\" width=\"" + (cellWidth - 3) + "\" height=\""
+					+ (cellHeight - 3) + "\" fill=\"" + toHex(fill)
+					+ "\" stroke=\"" + toHex(disabledTextColor) + "\"/>\n");
+			int day = monthGrid.getDayOfMonth(index);
+			if (day != 0) {
+				writeSvgText(writer, DayGridPainter.getDayText(day),
+						x + cellWidth / 2, y + getBaseline(),
+						monthGrid.isEnabled(index) ? panelForegroundColor
+								: disabledTextColor);
+			}
+		}
+		writer.write("</g>\n</svg>\n");
+	}
+
+	private static void writeSvgText(Writer writer, String text, int x, int y,
+			Color color) throws IOException {
+		writer.write("<text x=\"" + x + "\" y=\"" + y + "\" fill=\""
+				+ toHex(color) + "\">" + escape(text) + "</text>\n");
+	}
+
+	private void writeHtml(MonthGrid monthGrid, Writer writer)
+			throws IOException {
+		String title = escape(getTitle(monthGrid));
+		writer.write("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"UTF-8\">\n");
+		writer.write("<title>" + title + "</title>\n<style>\n");
+		writer.write("table.jcalendar { background: "
+				+ toHex(panelBackGroundColor) + "; color: "
+				+ toHex(panelForegroundColor) + "; font: "
+				+ (font.isBold() ? "bold " : "") + font.getSize() + "px \""
+				+ escape(font.getFamily()) + "\"; }\n");
+		writer.write("table.jcalendar td { width: " + (cellWidth - 4)
+				+ "px; height: " + (cellHeight - 4)
+				+ "px; text-align: center; border: 1px solid "
+				+ toHex(disabledTextColor) + "; }\n");
+		writer.write("table.jcalendar td.disabled { color: "
+				+ toHex(disabledTextColor) + "; }\n");
+		writer.write("table.jcalendar td.highlight { background: "
+				+ toHex(dayHighlightColor) + "; }\n");
+		writer.write("</style>\n</head>\n<body>\n<table class=\"jcalendar\">\n");
+		writer.write("<caption>" + title + "</caption>\n<thead>\n<tr>");
+		for (String dayName : dayNames) {
+			writer.write("<th>" + escape(dayName) + "</th>");
+		}
+		writer.write("</tr>\n</thead>\n<tbody>\n");
+
+		for (int index = 0; index < MonthGrid.CELL_COUNT; index++) {
+			if (index % DayGridPainter.COLUMNS == 0) {
+				writer.write("<tr>");
+			}
+			int day = monthGrid.getDayOfMonth(index);
+			if (day == 0) {
+				writer.write("<td></td>");
+			} else {
+				String styleClass = monthGrid.isHighlighted(index) ? "highlight"
+						: monthGrid.isEnabled(index) ? "" : "disabled";
+				writer.write(styleClass.isEmpty() ? "<td>"
+						: "<td class=\"" + styleClass + "\">");
+				writer.write(DayGridPainter.getDayText(day));
+				writer.write("</td>");
+			}
+			if (index % DayGridPainter.COLUMNS == DayGridPainter.COLUMNS - 1) {
+				writer.write("</tr>\n");
+			}
+		}
+		writer.write("</tbody>\n</table>\n</body>\n</html>\n");
+	}
+
+	private String getTitle(MonthGrid monthGrid) {
+		return monthNames[monthGrid.getMonth() - 1] + " " + monthGrid.getYear();
+	}
+
+	private int getBaseline() {
+		return (cellHeight - fontHeight) / 2 + ascent;
+	}
+
+	/**
+	 * The title row, the weekday names and the six weeks.
+	 */
+	private int getWidth() {
+		return cellWidth * DayGridPainter.COLUMNS;
+	}
+
+	private int getHeight() {
+		return cellHeight * (DayGridPainter.ROWS + 1);
+	}
+
+	private static String toHex(Color color) {
+		return String.format("#%06x", color.getRGB() & 0xFFFFFF);
+	}
+
+	private static String escape(String text) {
+		StringBuilder builder = new StringBuilder(text.length());
+		for (int index = 0; index < text.length(); index++) {
+			char c = text.charAt(index);
+			switch (c) {
+			case '<':
+				builder.append("&lt;");
+				break;
+			case '>':
+				builder.append("&gt;");
+				break;
+			case '&':
+				builder.append("&amp;");
+				break;
+			case '"':
+				builder.append("&quot;");
+				break;
+			default:
+				builder.append(c);
+				break;
+			}
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * <code>Builder</code> collects the settings of a
+	 * <code>CalendarExporter</code>. The setters mirror the optional
+	 * parameters of a <code>JCalendar</code>. A builder isn't thread safe.
+	 */
+	public static final class Builder {
+
+		private Color panelBackGroundColor;
+		private Color panelForegroundColor;
+		private Color dayHighlightColor;
+
+		private double scale;
+
+		private int parallelism;
+
+		private CalendarModel calendarModel;
+
+		private Font font;
+
+		private String[] dayNames;
+		private String[] monthNames;
+
+		private Builder() {
+			DateTextService dateTextService = DateTextService.getInstance(Locale.US);
+			this.panelBackGroundColor = Color.WHITE;
+			this.panelForegroundColor = Color.BLUE;
+			this.dayHighlightColor = Color.YELLOW;
+			this.font = new Font(Font.DIALOG, Font.BOLD, 12);
+			this.calendarModel = CalendarModel.getDefault();
+			this.dayNames = dateTextService.getDayNames(DayOfWeek.SUNDAY);
+			this.monthNames = dateTextService.getMonthNames();
+			this.scale = 1.0;
+			this.parallelism = Runtime.getRuntime().availableProcessors();
+		}
+
+		/**
+		 * This method copies the colors, the font, the names and the calendar
+		 * model of a <code>JCalendar</code>.
+		 *
+		 * @param calendar - The <code>JCalendar</code> to copy.
+		 * @return This builder.
+		 */
+		public Builder setCalendar(JCalendar calendar) {
+			return setCalendarSpec(calendar.getCalendarSpec());
+		}
+
+		/**
+		 * This method copies the colors, the font, the names and the calendar
+		 * model of a <code>CalendarSpec</code>.
+		 *
+		 * @param spec - The spec to copy.
+		 * @return This builder.
+		 */
+		public Builder setCalendarSpec(CalendarSpec spec) {
+			this.panelBackGroundColor = spec.getPanelBackGroundColor();
+			this.panelForegroundColor = spec.getPanelForegroundColor();
+			this.dayHighlightColor = spec.getDayHighlightColor();
+			if (spec.getFont() != null) {
+				this.font = spec.getFont();
+			}
+			this.dayNames = spec.getDayNames();
+			if (spec.getCalendarModel().getChronologyTable() == null) {
+				this.monthNames = spec.getMonthNames();
+			}
+			this.calendarModel = spec.getCalendarModel();
+			return this;
+		}
+
+		public Builder setPanelBackGroundColor(Color panelBackGroundColor) {
+			this.panelBackGroundColor = panelBackGroundColor;
+			return this;
+		}
+
+		public Builder setPanelForegroundColor(Color panelForegroundColor) {
+			this.panelForegroundColor = panelForegroundColor;
+			return this;
+		}
+
+		public Builder setDayHighlightColor(Color dayHighlightColor) {
+			this.dayHighlightColor = dayHighlightColor;
+			return this;
+		}
+
+		public Builder setFont(Font font) {
+			this.font = font;
+			return this;
+		}
+
+		/**
+		 * This method sets the start day of the week, the excluded days, and
+		 * the earliest and latest dates.
+		 *
+		 * @param calendarModel - The calendar model.
+		 * @return This builder.
+		 */
+		public Builder setCalendarModel(CalendarModel calendarModel) {
+			this.calendarModel = calendarModel;
+			return this;
+		}
+
+		/**
+		 * This method sets the weekday names. They must start with the start
+		 * day of the week of the calendar model.
+		 *
+		 * @param dayNames - String array of the 7 weekday names.
+		 * @return This builder.
+		 */
+		public Builder setDayNames(String[] dayNames) {
+			if (dayNames.length != 7) {
+				String text = "There must be 7 three letter day names.  You have "
+						+ "provided " + dayNames.length;
+				throw new InvalidParameterException(text);
+			}
+			this.dayNames = dayNames;
+			return this;
+		}
+
+		public Builder setMonthNames(String[] monthNames) {
+			if (monthNames.length != 12) {
+				String text = "There must be 12 month names.  You have "
+						+ "provided " + monthNames.length;
+				throw new InvalidParameterException(text);
+			}
+			this.monthNames = monthNames;
+			return this;
+		}
+
+		/**
+		 * This method sets the scale of the PNG images and the SVG size, for
+		 * example 2.0 for a print resolution. The default is 1.0.
+		 *
+		 * @param scale - The scale.
+		 * @return This builder.
+		 */
+		public Builder setScale(double scale) {
+			if (scale <= 0.0) {
+				String text = "The scale " + scale + " must be positive";
+				throw new InvalidParameterException(text);
+			}
+			this.scale = scale;
+			return this;
+		}
+
+		/**
+		 * This method sets the number of rendering threads. The default is the
+		 * number of cores.
+		 *
+		 * @param parallelism - The number of threads.
+		 * @return This builder.
+		 */
+		public Builder setParallelism(int parallelism) {
+			if (parallelism < 1) {
+				String text = "The parallelism " + parallelism
+						+ " must be at least 1";
+				throw new InvalidParameterException(text);
+			}
+			this.parallelism = parallelism;
+			return this;
+		}
+
+		public CalendarExporter build() {
+			return new CalendarExporter(this);
+		}
+
+	}
+
+}
@@ -0,0 +1,357 @@
+package com.ggl.jcalendar.view;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.security.InvalidParameterException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.chrono.Chronology;
+import java.time.chrono.IsoChronology;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+
+import com.ggl.jcalendar.model.CalendarModel;
+import com.ggl.jcalendar.model.ChronologyTable;
+import com.ggl.jcalendar.model.DateSelectionModel;
+import com.ggl.jcalendar.model.DateTextService;
+import com.ggl.jcalendar.model.HolidayCalendar;
+
+/**
+ * <p>
+ * <code>CalendarSpec</code> holds every optional parameter of a
+ * <code>JCalendar</code> in one immutable object: the colors, the font, the
+ * month and day names, the selection mode and the
+ * <code>CalendarModel</code>. The constraints are compiled once, when the spec
+ * is built, into the weekday mask and the epoch day bounds of the model.
+ * </p>
+ *
+ * <p>
+ * A spec is usually built once, stored in a field, and applied each time a
+ * <code>JCalendar</code> opens. Since it's immutable, the same spec may be
+ * shared by any number of dialogs and threads. Two specs with the same
+ * settings are equal, so a spec can be used as a cache key. A
+ * <code>JCalendar</code> that's given the spec it already shows doesn't
+ * reconfigure its components.
+ * </p>
+ *
+ * <pre>
+ * <code>
+ *    private static final CalendarSpec TRANSACTION_SPEC = CalendarSpec.builder()
+ *            .setDaysToExclude(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY)
+ *            .setDayHighlightColor(Color.RED)
+ *            .build();
+ *    ...
+ *    JCalendar calendar = calendarPool.getCalendar(frame, LocalDate.now(),
+ *            "Transaction Date", TRANSACTION_SPEC);
+ *    calendar.start();
+ * </code>
+ * </pre>
+ *
+ * @see JCalendar
+ * @see com.ggl.jcalendar.model.CalendarModel
+ */
+public final class CalendarSpec {
+
+	private static final String[] DEFAULT_MONTH_NAMES = DateTextService
+			.getInstance(Locale.US).getMonthNames();
+	private static final String[] DEFAULT_DAY_NAMES = DateTextService
+			.getInstance(Locale.US).getDayNames(DayOfWeek.SUNDAY);
+
+	private static final CalendarSpec DEFAULT_SPEC = builder().build();
+
+	private final Color panelBackGroundColor;
+	private final Color panelForegroundColor;
+	private final Color dayHighlightColor;
+
+	private final CalendarModel calendarModel;
+
+	private final DateSelectionModel.Mode selectionMode;
+
+	private final Font font;
+
+	private final int hashCode;
+
+	private final String[] dayNames;
+	private final String[] monthNames;
+
+	private CalendarSpec(Builder builder) {
+		this.panelBackGroundColor = builder.panelBackGroundColor;
+		this.panelForegroundColor = builder.panelForegroundColor;
+		this.dayHighlightColor = builder.dayHighlightColor;
+		this.calendarModel = builder.modelBuilder.build();
+		this.selectionMode = builder.selectionMode;
+		this.font = builder.font;
+		this.dayNames = builder.dayNames.clone();
+		this.monthNames = builder.monthNames.clone();
+		this.hashCode = Objects.hash(panelBackGroundColor, panelForegroundColor,
+				dayHighlightColor, calendarModel, selectionMode, font,
+				Arrays.hashCode(dayNames), Arrays.hashCode(monthNames));
+	}
+
+	/**
+	 * This method returns the spec with the default settings of a
+	 * <code>JCalendar</code>.
+	 *
+	 * @return The shared default spec.
+	 */
+	public static CalendarSpec getDefault() {
+		return DEFAULT_SPEC;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * This method returns a builder with the settings of this spec, to build a
+	 * spec that differs in a few settings.
+	 *
+	 * @return A new builder.
+	 */
+	public Builder toBuilder() {
+		Builder builder = new Builder();
+		builder.panelBackGroundColor = panelBackGroundColor;
+		builder.panelForegroundColor = panelForegroundColor;
+		builder.dayHighlightColor = dayHighlightColor;
+		builder.modelBuilder = calendarModel.toBuilder();
+		builder.selectionMode = selectionMode;
+		builder.font = font;
+		builder.dayNames = dayNames;
+		builder.monthNames = monthNames;
+		return builder;
+	}
+
+	/**
+	 * This method returns whether a date can be selected, with the compiled
+	 * constraints of the calendar model.
+	 *
+	 * @param date - The date.
+	 * @return <code>true</code> if the date can be selected.
+	 */
+	public boolean isSelectable(LocalDate date) {
+		return calendarModel.isSelectable(date);
+	}
+
+	public Color getPanelBackGroundColor() {
+		return panelBackGroundColor;
+	}
+
+	public Color getPanelForegroundColor() {
+		return panelForegroundColor;
+	}
+
+	public Color getDayHighlightColor() {
+		return dayHighlightColor;
+	}
+
+	public CalendarModel getCalendarModel() {
+		return calendarModel;
+	}
+
+	public DateSelectionModel.Mode getSelectionMode() {
+		return selectionMode;
+	}
+
+	/**
+	 * This method returns the font.
+	 *
+	 * @return The font, or <code>null</code> for the bold dialog font of the
+	 *         <code>JCalendar</code>.
+	 */
+	public Font getFont() {
+		return font;
+	}
+
+	public String[] getDayNames() {
+		return dayNames.clone();
+	}
+
+	public String[] getMonthNames() {
+		return monthNames.clone();
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof CalendarSpec)) {
+			return false;
+		}
+		CalendarSpec other = (CalendarSpec) obj;
+		return hashCode == other.hashCode
+				&& selectionMode == other.selectionMode
+				&& calendarModel.equals(other.calendarModel)
+				&& Objects.equals(panelBackGroundColor, other.panelBackGroundColor)
+				&& Objects.equals(panelForegroundColor, other.panelForegroundColor)
+				&& Objects.equals(dayHighlightColor, other.dayHighlightColor)
+				&& Objects.equals(font, other.font)
+				&& Arrays.equals(dayNames, other.dayNames)
+				&& Arrays.equals(monthNames, other.monthNames);
+	}
+
+	/**
+	 * This method returns the English month names of a chronology.
+	 *
+	 * @param chronology - The chronology, or <code>null</code> for ISO.
+	 * @return The month names.
+	 */
+	static String[] getDefaultMonthNames(Chronology chronology) {
+		if (chronology == null || IsoChronology.INSTANCE.equals(chronology)) {
+			return DEFAULT_MONTH_NAMES;
+		}
+		return ChronologyTable.of(chronology).getMonthNames(Locale.US);
+	}
+
+	/**
+	 * <code>Builder</code> collects the settings of a
+	 * <code>CalendarSpec</code>. The setters are the optional parameters of a
+	 * <code>JCalendar</code>. A builder isn't thread safe.
+	 */
+	public static final class Builder {
+
+		private Color panelBackGroundColor;
+		private Color panelForegroundColor;
+		private Color dayHighlightColor;
+
+		private CalendarModel.Builder modelBuilder;
+
+		private DateSelectionModel.Mode selectionMode;
+
+		private Font font;
+
+		private String[] dayNames;
+		private String[] monthNames;
+
+		private Builder() {
+			this.panelBackGroundColor = Color.WHITE;
+			this.panelForegroundColor = Color.BLUE;
+			this.dayHighlightColor = Color.YELLOW;
+			this.modelBuilder = CalendarModel.builder();
+			this.selectionMode = DateSelectionModel.Mode.SINGLE;
+			this.font = null;
+			this.dayNames = DEFAULT_DAY_NAMES;
+			this.monthNames = DEFAULT_MONTH_NAMES;
+		}
+
+		public Builder setPanelBackGroundColor(Color panelBackGroundColor) {
+			this.panelBackGroundColor = panelBackGroundColor;
+			return this;
+		}
+
+		public Builder setPanelForegroundColor(Color panelForegroundColor) {
+			this.panelForegroundColor = panelForegroundColor;
+			return this;
+		}
+
+		public Builder setDayHighlightColor(Color dayHighlightColor) {
+			this.dayHighlightColor = dayHighlightColor;
+			return this;
+		}
+
+		/**
+		 * This method sets the font.
+		 *
+		 * @param font - The font, or <code>null</code> for the bold dialog font
+		 *             of the <code>JCalendar</code>.
+		 * @return This builder.
+		 */
+		public Builder setFont(Font font) {
+			this.font = font;
+			return this;
+		}
+
+		/**
+		 * This method sets the day names and the start day of the week.
+		 *
+		 * @param startDayOfWeek - <code>DayOfWeek</code> that starts the week.
+		 * @param dayNames       - String array of three character weekday
+		 *                       names.
+		 * @return This builder.
+		 */
+		public Builder setDayNames(DayOfWeek startDayOfWeek, String[] dayNames) {
+			if (dayNames.length != 7) {
+				String text = "There must be 7 three letter day names.  You have "
+						+ "provided " + dayNames.length;
+				throw new InvalidParameterException(text);
+			}
+			this.modelBuilder.setStartDayOfWeek(startDayOfWeek);
+			this.dayNames = dayNames.clone();
+			return this;
+		}
+
+		public Builder setMonthNames(String[] monthNames) {
+			if (monthNames.length != 12) {
+				String text = "There must be 12 month names.  You have "
+						+ "provided " + monthNames.length;
+				throw new InvalidParameterException(text);
+			}
+			this.monthNames = monthNames.clone();
+			return this;
+		}
+
+		/**
+		 * This method sets the chronology of the years and months, and
+		 * replaces the month names with the chronology's English month names.
+		 * Call <code>setMonthNames</code> afterwards for other names.
+		 *
+		 * @param chronology - The chronology, or <code>null</code> for ISO.
+		 * @return This builder.
+		 */
+		public Builder setChronology(Chronology chronology) {
+			this.modelBuilder.setChronology(chronology);
+			this.monthNames = getDefaultMonthNames(chronology);
+			return this;
+		}
+
+		public Builder setDaysToExclude(DayOfWeek... daysToExclude) {
+			this.modelBuilder.setDaysToExclude(daysToExclude);
+			return this;
+		}
+
+		public Builder setHolidayCalendar(HolidayCalendar holidayCalendar) {
+			this.modelBuilder.setHolidayCalendar(holidayCalendar);
+			return this;
+		}
+
+		public Builder setEarliestDate(LocalDate earliestDate) {
+			this.modelBuilder.setEarliestDate(earliestDate);
+			return this;
+		}
+
+		public Builder setLatestDate(LocalDate latestDate) {
+			this.modelBuilder.setLatestDate(latestDate);
+			return this;
+		}
+
+		/**
+		 * This method replaces the chronology, the start day of the week, the
+		 * excluded days and the earliest and latest dates with those of a
+		 * model.
+		 *
+		 * @param calendarModel - The calendar model.
+		 * @return This builder.
+		 */
+		public Builder setCalendarModel(CalendarModel calendarModel) {
+			this.modelBuilder = calendarModel.toBuilder();
+			return this;
+		}
+
+		public Builder setSelectionMode(DateSelectionModel.Mode selectionMode) {
+			this.selectionMode = selectionMode;
+			return this;
+		}
+
+		public CalendarSpec build() {
+			return new CalendarSpec(this);
+		}
+
+	}
+
+}
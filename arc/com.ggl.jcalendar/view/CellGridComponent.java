@@ -0,0 +1,287 @@
+package com.ggl.jcalendar.view;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+
+import javax.swing.AbstractAction;
+import javax.swing.ActionMap;
+import javax.swing.InputMap;
+import javax.swing.JComponent;
+import javax.swing.KeyStroke;
+
+/**
+ * <p>
+ * <code>CellGridComponent</code> is the base of the components that paint a
+ * grid of cells in one <code>paintComponent</code> pass, instead of a
+ * <code>GridLayout</code> of <code>JButton</code>s. It hit-tests the mouse by
+ * cell index, moves the focus cell with the arrow keys, tracks the rollover
+ * cell, and fires an <code>ActionEvent</code> when the user selects an
+ * enabled cell with a click, the Enter key or the Space key.
+ * </p>
+ *
+ * <p>
+ * The grid may start with header rows, like the weekday names of a month,
+ * that hold no cells. The subclass tells which cells exist and are enabled,
+ * and paints the grid.
+ * </p>
+ *
+ * @see DayGridComponent
+ * @see PeriodGridComponent
+ */
+public abstract class CellGridComponent extends JComponent {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int columns;
+	private final int rows;
+	private final int headerRows;
+
+	private int focusIndex;
+	private int pressedIndex;
+	private int rolloverIndex;
+
+	/**
+	 * This constructor creates a <code>CellGridComponent</code>.
+	 *
+	 * @param columns    - The number of columns of the grid.
+	 * @param rows       - The number of cell rows of the grid.
+	 * @param headerRows - The number of rows above the cells, painted by the
+	 *                   subclass.
+	 */
+	protected CellGridComponent(int columns, int rows, int headerRows) {
+		this.columns = columns;
+		this.rows = rows;
+		this.headerRows = headerRows;
+		this.focusIndex = -1;
+		this.pressedIndex = -1;
+		this.rolloverIndex = -1;
+
+		setOpaque(true);
+		setFocusable(true);
+
+		CellMouseListener mouseListener = new CellMouseListener();
+		addMouseListener(mouseListener);
+		addMouseMotionListener(mouseListener);
+		addFocusListener(new FocusAdapter() {
+			@Override
+			public void focusGained(FocusEvent event) {
+				if (focusIndex < 0) {
+					focusIndex = getFirstFocusIndex();
+				}
+				repaint();
+			}
+
+			@Override
+			public void focusLost(FocusEvent event) {
+				repaint();
+			}
+		});
+		createKeyBindings();
+	}
+
+	private void createKeyBindings() {
+		InputMap inputMap = getInputMap(JComponent.WHEN_FOCUSED);
+		ActionMap actionMap = getActionMap();
+
+		inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_LEFT, 0), "previousCell");
+		inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_RIGHT, 0), "nextCell");
+		inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_UP, 0), "previousRow");
+		inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_DOWN, 0), "nextRow");
+		inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_ENTER, 0), "selectCell");
+		inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_SPACE, 0), "selectCell");
+
+		actionMap.put("previousCell", new MoveFocusAction(-1));
+		actionMap.put("nextCell", new MoveFocusAction(1));
+		actionMap.put("previousRow", new MoveFocusAction(-columns));
+		actionMap.put("nextRow", new MoveFocusAction(columns));
+		actionMap.put("selectCell", new AbstractAction() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public void actionPerformed(ActionEvent event) {
+				selectCell(focusIndex);
+			}
+		});
+	}
+
+	/**
+	 * This method returns the number of cells the grid holds now.
+	 *
+	 * @return The cell count, at most columns times rows.
+	 */
+	protected abstract int getCellCount();
+
+	protected abstract boolean isCellEnabled(int index);
+
+	/**
+	 * This method returns the cell that gets the focus when the grid gains
+	 * the focus or its cells change.
+	 *
+	 * @return The cell index, or -1 for none.
+	 */
+	protected abstract int getFirstFocusIndex();
+
+	/**
+	 * This method returns the action command of the <code>ActionEvent</code>
+	 * fired when a cell is selected.
+	 *
+	 * @param index - The index of an enabled cell.
+	 * @return The action command.
+	 */
+	protected abstract String getActionCommand(int index);
+
+	public void addActionListener(ActionListener listener) {
+		listenerList.add(ActionListener.class, listener);
+	}
+
+	public void removeActionListener(ActionListener listener) {
+		listenerList.remove(ActionListener.class, listener);
+	}
+
+	/**
+	 * This method returns the index of the cell under a point.
+	 *
+	 * @param point - A point in this component's coordinates.
+	 * @return The cell index, or -1 if the point is outside the cells.
+	 */
+	public int getCellIndex(Point point) {
+		int cellWidth = getWidth() / columns;
+		int cellHeight = getHeight() / (rows + headerRows);
+		if (cellWidth <= 0 || cellHeight <= 0 || point.x < 0 || point.y < 0) {
+			return -1;
+		}
+		int column = point.x / cellWidth;
+		int row = point.y / cellHeight - headerRows;
+		if (column >= columns || row < 0 || row >= rows) {
+			return -1;
+		}
+		int index = row * columns + column;
+		return (index < getCellCount()) ? index : -1;
+	}
+
+	/**
+	 * This method returns the bounds of a cell.
+	 *
+	 * @param index - The cell index.
+	 * @return The cell bounds in this component's coordinates.
+	 */
+	public Rectangle getCellBounds(int index) {
+		int cellWidth = getWidth() / columns;
+		int cellHeight = getHeight() / (rows + headerRows);
+		return new Rectangle((index % columns) * cellWidth,
+				(index / columns + headerRows) * cellHeight, cellWidth,
+				cellHeight);
+	}
+
+	protected int getFocusIndex() {
+		return focusIndex;
+	}
+
+	protected int getRolloverIndex() {
+		return rolloverIndex;
+	}
+
+	/**
+	 * This method moves the focus cell to the first focus cell after the
+	 * cells change, or clears it when the grid doesn't have the focus. The
+	 * old and new focus cells are repainted.
+	 */
+	protected void resetFocusIndex() {
+		int oldFocusIndex = focusIndex;
+		this.focusIndex = hasFocus() ? getFirstFocusIndex() : -1;
+		if (oldFocusIndex != focusIndex) {
+			repaintCell(oldFocusIndex);
+			repaintCell(focusIndex);
+		}
+	}
+
+	protected void repaintCell(int index) {
+		if (index >= 0) {
+			repaint(getCellBounds(index));
+		}
+	}
+
+	private void selectCell(int index) {
+		if (index < 0 || index >= getCellCount() || !isCellEnabled(index)) {
+			return;
+		}
+		ActionEvent event = new ActionEvent(this, ActionEvent.ACTION_PERFORMED,
+				getActionCommand(index));
+		Object[] listeners = listenerList.getListenerList();
+		for (int i = listeners.length - 2; i >= 0; i -= 2) {
+			if (listeners[i] == ActionListener.class) {
+				((ActionListener) listeners[i + 1]).actionPerformed(event);
+			}
+		}
+	}
+
+	private class MoveFocusAction extends AbstractAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int delta;
+
+		public MoveFocusAction(int delta) {
+			this.delta = delta;
+		}
+
+		@Override
+		public void actionPerformed(ActionEvent event) {
+			int cellCount = getCellCount();
+			int index = focusIndex;
+			do {
+				index += delta;
+			} while (index >= 0 && index < cellCount && !isCellEnabled(index));
+			if (index >= 0 && index < cellCount) {
+				repaintCell(focusIndex);
+				focusIndex = index;
+				repaintCell(focusIndex);
+			}
+		}
+
+	}
+
+	private class CellMouseListener extends MouseAdapter {
+
+		@Override
+		public void mousePressed(MouseEvent event) {
+			pressedIndex = getCellIndex(event.getPoint());
+			requestFocusInWindow();
+		}
+
+		@Override
+		public void mouseReleased(MouseEvent event) {
+			int index = getCellIndex(event.getPoint());
+			if (index == pressedIndex && event.getButton() == MouseEvent.BUTTON1) {
+				focusIndex = index;
+				selectCell(index);
+			}
+			pressedIndex = -1;
+		}
+
+		@Override
+		public void mouseMoved(MouseEvent event) {
+			int index = getCellIndex(event.getPoint());
+			if (index != rolloverIndex) {
+				repaintCell(rolloverIndex);
+				rolloverIndex = index;
+				repaintCell(rolloverIndex);
+			}
+		}
+
+		@Override
+		public void mouseExited(MouseEvent event) {
+			repaintCell(rolloverIndex);
+			rolloverIndex = -1;
+		}
+
+	}
+
+}
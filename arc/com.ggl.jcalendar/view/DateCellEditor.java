@@ -0,0 +1,93 @@
+package com.ggl.jcalendar.view;
+
+import java.awt.Component;
+import java.awt.event.MouseEvent;
+import java.time.LocalDate;
+import java.util.EventObject;
+import java.util.function.Consumer;
+
+import javax.swing.AbstractCellEditor;
+import javax.swing.JTable;
+import javax.swing.table.TableCellEditor;
+
+/**
+ * <p>
+ * <code>DateCellEditor</code> edits <code>LocalDate</code> table cells with
+ * one <code>JDateField</code>, whatever the number of rows and columns. The
+ * date field opens the shared, pooled <code>JCalendar</code> of the table's
+ * frame. Selecting a date stops the edit; cancelling the
+ * <code>JCalendar</code> cancels it.
+ * </p>
+ *
+ * @see DateCellRenderer
+ * @see JDateField
+ */
+public class DateCellEditor extends AbstractCellEditor implements TableCellEditor {
+
+	private static final long serialVersionUID = 1L;
+
+	private final JDateField dateField;
+
+	private int clickCountToStart;
+
+	/**
+	 * This constructor creates a <code>DateCellEditor</code>.
+	 *
+	 * @param title - The title of the <code>JCalendar</code>.
+	 */
+	public DateCellEditor(String title) {
+		this.clickCountToStart = 2;
+		this.dateField = new JDateField(title) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void calendarClosed(LocalDate selectedDate) {
+				if (selectedDate == null) {
+					cancelCellEditing();
+				} else {
+					stopCellEditing();
+				}
+			}
+		};
+	}
+
+	/**
+	 * This method sets the code that configures the <code>JCalendar</code>
+	 * each time it is opened from a cell.
+	 *
+	 * @param calendarConfigurer - Called with the <code>JCalendar</code> before
+	 *                           it starts.
+	 */
+	public void setCalendarConfigurer(Consumer<JCalendar> calendarConfigurer) {
+		dateField.setCalendarConfigurer(calendarConfigurer);
+	}
+
+	public void setClickCountToStart(int clickCountToStart) {
+		this.clickCountToStart = clickCountToStart;
+	}
+
+	public JDateField getDateField() {
+		return dateField;
+	}
+
+	@Override
+	public boolean isCellEditable(EventObject event) {
+		if (event instanceof MouseEvent) {
+			return ((MouseEvent) event).getClickCount() >= clickCountToStart;
+		}
+		return true;
+	}
+
+	@Override
+	public Object getCellEditorValue() {
+		return dateField.getDate();
+	}
+
+	@Override
+	public Component getTableCellEditorComponent(JTable table, Object value,
+			boolean isSelected, int row, int column) {
+		dateField.setDate((value instanceof LocalDate) ? (LocalDate) value : null);
+		return dateField;
+	}
+
+}
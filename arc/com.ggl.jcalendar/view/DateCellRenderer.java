@@ -0,0 +1,58 @@
+package com.ggl.jcalendar.view;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+import javax.swing.table.DefaultTableCellRenderer;
+
+import com.ggl.jcalendar.model.DateTextService;
+
+/**
+ * <p>
+ * <code>DateCellRenderer</code> renders <code>LocalDate</code> table cells
+ * through the shared <code>DateTextService</code>, so a table with hundreds of
+ * date cells reuses one renderer component and one compiled formatter, and
+ * reuses the rendered text of dates it has already displayed.
+ * </p>
+ *
+ * <pre>
+ * <code>
+ *    table.setDefaultRenderer(LocalDate.class, new DateCellRenderer("M/d/yy"));
+ *    table.setDefaultEditor(LocalDate.class, new DateCellEditor("Date"));
+ * </code>
+ * </pre>
+ *
+ * @see DateCellEditor
+ * @see com.ggl.jcalendar.model.DateTextService
+ */
+public class DateCellRenderer extends DefaultTableCellRenderer {
+
+	private static final long serialVersionUID = 1L;
+
+	private final DateTextService dateTextService;
+
+	private final String pattern;
+
+	/**
+	 * This constructor creates a <code>DateCellRenderer</code> for the default
+	 * format locale.
+	 *
+	 * @param pattern - The <code>DateTimeFormatter</code> pattern of the date
+	 *                text.
+	 */
+	public DateCellRenderer(String pattern) {
+		this.pattern = pattern;
+		this.dateTextService = DateTextService.getInstance(
+				Locale.getDefault(Locale.Category.FORMAT));
+	}
+
+	@Override
+	protected void setValue(Object value) {
+		if (value instanceof LocalDate) {
+			setText(dateTextService.format((LocalDate) value, pattern));
+		} else {
+			super.setValue(value);
+		}
+	}
+
+}
@@ -0,0 +1,357 @@
+package com.ggl.jcalendar.view;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+
+import com.ggl.jcalendar.model.DateValidator;
+
+/**
+ * <p>
+ * <code>DateValidationLoader</code> calls a <code>DateValidator</code> off the
+ * Event Dispatch Thread, with a timeout, and keeps a per-date cache of the
+ * verdicts. A range of dates is validated with one call, whose verdicts aren't
+ * cached.
+ * </p>
+ *
+ * <p>
+ * A date whose verdict is cached is answered at once, on the calling thread.
+ * Otherwise the validator runs on a small pool of daemon threads, with a
+ * bounded queue, shared by all loaders, and the verdict is handed back on the
+ * Event Dispatch Thread. The timeout starts when the date is validated, so it
+ * includes the time the call waits in the queue. If the validator doesn't
+ * answer in time, the call is taken off the queue or interrupted, and the date
+ * is rejected. A date is rejected at once while the queue is full. A rejection
+ * by timeout or by exception isn't kept, so the next validation of that date
+ * calls the validator again.
+ * </p>
+ *
+ * <p>
+ * When another month is displayed, the calls for the days outside it that
+ * haven't started yet are cancelled, so rapid paging doesn't leave a backlog
+ * in front of the days the user sees. The loader itself must be used on the
+ * Event Dispatch Thread.
+ * </p>
+ *
+ * @see com.ggl.jcalendar.model.DateValidator
+ * @see DayAnnotationLoader
+ */
+public class DateValidationLoader {
+
+	private static final int CACHE_CAPACITY = 512;
+	private static final int QUEUE_CAPACITY = 64;
+
+	private static final ThreadPoolExecutor EXECUTOR = createExecutor();
+
+	private final DateValidator validator;
+
+	private final Map<Integer, ValidationCall<Boolean>> cache;
+
+	private ValidationCall<boolean[]> rangeCall;
+
+	private int timeoutMillis;
+
+	/**
+	 * This constructor creates a <code>DateValidationLoader</code> with an
+	 * empty cache.
+	 *
+	 * @param validator     - The date validator.
+	 * @param timeoutMillis - The longest time a date may wait for its verdict,
+	 *                      in milliseconds.
+	 */
+	public DateValidationLoader(DateValidator validator, int timeoutMillis) {
+		this.validator = validator;
+		this.timeoutMillis = timeoutMillis;
+		this.cache = new LinkedHashMap<Integer, ValidationCall<Boolean>>(
+				CACHE_CAPACITY * 2, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+					Map.Entry<Integer, ValidationCall<Boolean>> eldest) {
+				return size() > CACHE_CAPACITY;
+			}
+		};
+	}
+
+	private static ThreadPoolExecutor createExecutor() {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 30L,
+				TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(QUEUE_CAPACITY),
+				new ThreadFactory() {
+					private final AtomicInteger count = new AtomicInteger();
+
+					@Override
+					public Thread newThread(Runnable runnable) {
+						Thread thread = new Thread(runnable,
+								"JCalendar-validation-" + count.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	public DateValidator getValidator() {
+		return validator;
+	}
+
+	public void setTimeoutMillis(int timeoutMillis) {
+		this.timeoutMillis = timeoutMillis;
+	}
+
+	/**
+	 * This method returns whether the verdict of a date is cached, so
+	 * <code>validate</code> answers at once.
+	 *
+	 * @param epochDay - The date, as an epoch day.
+	 * @return <code>true</code> if the verdict is cached.
+	 */
+	public boolean isCached(int epochDay) {
+		ValidationCall<Boolean> call = cache.get(epochDay);
+		return call != null && call.verdict.isDone()
+				&& !call.verdict.isCompletedExceptionally();
+	}
+
+	/**
+	 * This method validates a date. The consumer receives
+	 * <code>false</code> if the validator rejects the date, throws an
+	 * exception or times out, or if the queue is full. It receives
+	 * <code>null</code> if the call is cancelled by
+	 * <code>cancelWaitingCalls</code> before it starts.
+	 *
+	 * @param epochDay - The date, as an epoch day.
+	 * @param consumer - Receives the verdict on the Event Dispatch Thread,
+	 *                 exactly once.
+	 */
+	public void validate(int epochDay, final Consumer<Boolean> consumer) {
+		CompletableFuture<Boolean> future = fetch(epochDay).verdict;
+		if (future.isDone()) {
+			consumer.accept(getVerdict(future));
+			return;
+		}
+
+		future.whenComplete(new BiConsumer<Boolean, Throwable>() {
+			@Override
+			public void accept(final Boolean valid, final Throwable throwable) {
+				SwingUtilities.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						if (throwable instanceof CancellationException) {
+							consumer.accept(null);
+						} else {
+							consumer.accept(throwable == null && valid);
+						}
+					}
+				});
+			}
+		});
+	}
+
+	/**
+	 * This method validates a range of dates with one validator call. A range
+	 * call that hasn't started yet is cancelled. The consumer receives an
+	 * array of <code>false</code> if the validator throws an exception or
+	 * times out, or if the queue is full. It receives <code>null</code> if the
+	 * call is cancelled before it starts.
+	 *
+	 * @param firstEpochDay - The first date of the range, as an epoch day.
+	 * @param lastEpochDay  - The last date of the range, as an epoch day.
+	 * @param consumer      - Receives the verdicts, indexed by the day of the
+	 *                      range, on the Event Dispatch Thread, exactly once.
+	 */
+	public void validateRange(final int firstEpochDay, final int lastEpochDay,
+			final Consumer<boolean[]> consumer) {
+		cancelWaitingCall(rangeCall);
+		final int length = lastEpochDay - firstEpochDay + 1;
+		rangeCall = new ValidationCall<>(new Callable<boolean[]>() {
+			@Override
+			public boolean[] call() {
+				boolean[] verdicts = validator.areValid(
+						LocalDate.ofEpochDay(firstEpochDay),
+						LocalDate.ofEpochDay(lastEpochDay));
+				if (verdicts.length != length) {
+					String text = "The validator returned " + verdicts.length
+							+ " verdicts for a range of " + length + " days";
+					throw new IllegalStateException(text);
+				}
+				return verdicts;
+			}
+		}, firstEpochDay, lastEpochDay);
+		submit(rangeCall);
+
+		rangeCall.verdict.whenComplete(new BiConsumer<boolean[], Throwable>() {
+			@Override
+			public void accept(final boolean[] verdicts,
+					final Throwable throwable) {
+				SwingUtilities.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						if (throwable instanceof CancellationException) {
+							consumer.accept(null);
+						} else {
+							consumer.accept((throwable == null) ? verdicts
+									: new boolean[length]);
+						}
+					}
+				});
+			}
+		});
+	}
+
+	/**
+	 * This method takes the calls for the days outside a displayed month off
+	 * the executor queue, if they haven't started yet. A range call is kept if
+	 * any of its days is displayed. The consumers of the cancelled calls
+	 * receive <code>null</code>, and their dates are validated again when
+	 * they're next asked for.
+	 *
+	 * @param firstEpochDay - The first day of the displayed month.
+	 * @param lastEpochDay  - The last day of the displayed month.
+	 */
+	public void cancelWaitingCalls(int firstEpochDay, int lastEpochDay) {
+		Iterator<ValidationCall<Boolean>> iterator = cache.values().iterator();
+		while (iterator.hasNext()) {
+			ValidationCall<Boolean> call = iterator.next();
+			if (call.isOutside(firstEpochDay, lastEpochDay)
+					&& cancelWaitingCall(call)) {
+				iterator.remove();
+			}
+		}
+		if (rangeCall != null && rangeCall.isOutside(firstEpochDay,
+				lastEpochDay)) {
+			cancelWaitingCall(rangeCall);
+		}
+	}
+
+	/**
+	 * This method takes a call off the executor queue, unless it has already
+	 * started.
+	 */
+	private static boolean cancelWaitingCall(ValidationCall<?> call) {
+		if (call != null && EXECUTOR.remove(call)) {
+			call.cancel(false);
+			return true;
+		}
+		return false;
+	}
+
+	private static Boolean getVerdict(CompletableFuture<Boolean> future) {
+		return !future.isCompletedExceptionally() && future.join();
+	}
+
+	/**
+	 * This method returns the cached call of a date, or queues a new one. A
+	 * call whose verdict completed exceptionally, after a timeout, an exception
+	 * or a cancellation, is replaced by a new call. When the queue is full, the
+	 * verdict fails at once and isn't cached.
+	 */
+	private ValidationCall<Boolean> fetch(final int epochDay) {
+		Integer key = epochDay;
+		ValidationCall<Boolean> call = cache.get(key);
+		if (call == null || call.verdict.isCompletedExceptionally()) {
+			call = new ValidationCall<>(new Callable<Boolean>() {
+				@Override
+				public Boolean call() {
+					return validator.isValid(LocalDate.ofEpochDay(epochDay));
+				}
+			}, epochDay, epochDay);
+			if (submit(call)) {
+				cache.put(key, call);
+			}
+		}
+		return call;
+	}
+
+	/**
+	 * This method starts the timeout of a call and queues it. When the queue
+	 * is full, the verdict fails at once.
+	 */
+	private boolean submit(ValidationCall<?> call) {
+		call.startTimeout(timeoutMillis);
+		try {
+			EXECUTOR.execute(call);
+			return true;
+		} catch (RejectedExecutionException e) {
+			call.verdict.completeExceptionally(e);
+			return false;
+		}
+	}
+
+	/**
+	 * <code>ValidationCall</code> is one call of the validator, for a date or a
+	 * range of dates. Unlike a <code>CompletableFuture</code> task, it can be
+	 * taken off the executor queue before it starts.
+	 */
+	private static class ValidationCall<V> extends FutureTask<V> {
+
+		private final CompletableFuture<V> verdict;
+
+		private final int firstEpochDay;
+		private final int lastEpochDay;
+
+		public ValidationCall(Callable<V> callable, int firstEpochDay,
+				int lastEpochDay) {
+			super(callable);
+			this.verdict = new CompletableFuture<>();
+			this.firstEpochDay = firstEpochDay;
+			this.lastEpochDay = lastEpochDay;
+		}
+
+		public boolean isOutside(int firstEpochDay, int lastEpochDay) {
+			return this.lastEpochDay < firstEpochDay
+					|| this.firstEpochDay > lastEpochDay;
+		}
+
+		/**
+		 * This method times out the verdict, whether the call has started or
+		 * not. The call is then cancelled, which takes it off the executor
+		 * queue or interrupts the validator's thread, so a hung validator
+		 * doesn't keep a pool thread.
+		 */
+		public void startTimeout(int timeoutMillis) {
+			verdict.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+					.whenComplete(new BiConsumer<V, Throwable>() {
+						@Override
+						public void accept(V value, Throwable throwable) {
+							if (throwable != null && cancel(true)) {
+								EXECUTOR.remove(ValidationCall.this);
+							}
+						}
+					});
+		}
+
+		@Override
+		protected void done() {
+			if (isCancelled()) {
+				verdict.cancel(false);
+				return;
+			}
+			try {
+				verdict.complete(get());
+			} catch (ExecutionException e) {
+				verdict.completeExceptionally(e.getCause());
+			} catch (InterruptedException e) {
+				verdict.completeExceptionally(e);
+			}
+		}
+
+	}
+
+}
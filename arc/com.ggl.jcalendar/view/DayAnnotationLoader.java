@@ -0,0 +1,212 @@
+package com.ggl.jcalendar.view;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+
+import com.ggl.jcalendar.model.DayAnnotationProvider;
+
+/**
+ * <p>
+ * <code>DayAnnotationLoader</code> calls a <code>DayAnnotationProvider</code>
+ * off the Event Dispatch Thread and keeps a per-month cache of the results.
+ * </p>
+ *
+ * <p>
+ * The provider calls run on a small pool of daemon threads, with a bounded
+ * queue, shared by all loaders. Prefetches are skipped while that queue is
+ * backed up. When another month is displayed, the loads of the previous month
+ * and its neighbors that haven't started yet are cancelled, so rapid paging
+ * doesn't leave a backlog in front of the month the user stops on. The results
+ * are handed back on the Event Dispatch Thread, one month at a time, so the
+ * day grid is repainted once per month. The loader itself must be used on the
+ * Event Dispatch Thread.
+ * </p>
+ *
+ * @see com.ggl.jcalendar.model.DayAnnotationProvider
+ */
+public class DayAnnotationLoader {
+
+	private static final int CACHE_CAPACITY = 24;
+	private static final int MAXIMUM_PREFETCH_BACKLOG = 8;
+	private static final int QUEUE_CAPACITY = 32;
+
+	private static final ThreadPoolExecutor EXECUTOR = createExecutor();
+
+	private final DayAnnotationProvider provider;
+
+	private final Map<Integer, MonthLoad> cache;
+
+	private MonthLoad displayedLoad;
+	private MonthLoad nextLoad;
+	private MonthLoad previousLoad;
+
+	/**
+	 * This constructor creates a <code>DayAnnotationLoader</code> with an empty
+	 * cache.
+	 *
+	 * @param provider - The source of the day annotations.
+	 */
+	public DayAnnotationLoader(DayAnnotationProvider provider) {
+		this.provider = provider;
+		this.cache = new LinkedHashMap<Integer, MonthLoad>(
+				CACHE_CAPACITY * 2, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+					Map.Entry<Integer, MonthLoad> eldest) {
+				return size() > CACHE_CAPACITY;
+			}
+		};
+	}
+
+	public DayAnnotationProvider getProvider() {
+		return provider;
+	}
+
+	private static ThreadPoolExecutor createExecutor() {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 30L,
+				TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(QUEUE_CAPACITY),
+				new ThreadFactory() {
+					private final AtomicInteger count = new AtomicInteger();
+
+					@Override
+					public Thread newThread(Runnable runnable) {
+						Thread thread = new Thread(runnable,
+								"JCalendar-annotations-" + count.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * This method loads the annotations of a displayed month, then
+	 * speculatively loads the months before and after it. The loads started
+	 * for the previously displayed month are cancelled if they haven't started
+	 * yet and aren't for one of those months.
+	 *
+	 * @param year     - The year.
+	 * @param month    - The month, from 1 to 12.
+	 * @param consumer - Receives the annotations on the Event Dispatch Thread,
+	 *                 unless the load is cancelled or fails.
+	 */
+	public void load(int year, int month, final Consumer<String[]> consumer) {
+		int monthIndex = year * 12 + month - 1;
+		cancelWaitingLoad(displayedLoad, monthIndex);
+		cancelWaitingLoad(previousLoad, monthIndex);
+		cancelWaitingLoad(nextLoad, monthIndex);
+
+		displayedLoad = fetch(monthIndex);
+		displayedLoad.annotations.thenAccept(new Consumer<String[]>() {
+			@Override
+			public void accept(final String[] annotations) {
+				SwingUtilities.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						consumer.accept(annotations);
+					}
+				});
+			}
+		});
+
+		previousLoad = prefetch(monthIndex - 1);
+		nextLoad = prefetch(monthIndex + 1);
+	}
+
+	private MonthLoad prefetch(int monthIndex) {
+		if (EXECUTOR.getQueue().size() >= MAXIMUM_PREFETCH_BACKLOG) {
+			return null;
+		}
+		return fetch(monthIndex);
+	}
+
+	/**
+	 * This method takes a load off the executor queue, unless it's for the
+	 * displayed month or one of its neighbors, or it has already started.
+	 */
+	private static void cancelWaitingLoad(MonthLoad monthLoad, int monthIndex) {
+		if (monthLoad != null && Math.abs(monthLoad.monthIndex - monthIndex) > 1
+				&& EXECUTOR.remove(monthLoad)) {
+			monthLoad.cancel(false);
+		}
+	}
+
+	/**
+	 * This method returns the cached load of a month, or queues a new one. A
+	 * load that failed or was cancelled is queued again. When the queue is
+	 * full, the load fails at once and isn't cached.
+	 */
+	private MonthLoad fetch(int monthIndex) {
+		Integer key = monthIndex;
+		MonthLoad monthLoad = cache.get(key);
+		if (monthLoad == null 
+				|| monthLoad.annotations.isCompletedExceptionally()) {
+			monthLoad = new MonthLoad(provider, monthIndex);
+			try {
+				EXECUTOR.execute(monthLoad);
+				cache.put(key, monthLoad);
+			} catch (RejectedExecutionException e) {
+				monthLoad.cancel(false);
+			}
+		}
+		return monthLoad;
+	}
+
+	/**
+	 * <code>MonthLoad</code> is one provider call for a month. Unlike a
+	 * <code>CompletableFuture</code> task, it can be taken off the executor
+	 * queue before it starts.
+	 */
+	private static class MonthLoad extends FutureTask<String[]> {
+
+		private final CompletableFuture<String[]> annotations;
+
+		private final int monthIndex;
+
+		public MonthLoad(final DayAnnotationProvider provider,
+				final int monthIndex) {
+			super(new Callable<String[]>() {
+				@Override
+				public String[] call() {
+					return provider.getAnnotations(Math.floorDiv(monthIndex, 12),
+							Math.floorMod(monthIndex, 12) + 1);
+				}
+			});
+			this.annotations = new CompletableFuture<>();
+			this.monthIndex = monthIndex;
+		}
+
+		@Override
+		protected void done() {
+			if (isCancelled()) {
+				annotations.cancel(false);
+				return;
+			}
+			try {
+				annotations.complete(get());
+			} catch (ExecutionException e) {
+				annotations.completeExceptionally(e.getCause());
+			} catch (InterruptedException e) {
+				annotations.completeExceptionally(e);
+			}
+		}
+
+	}
+
+}
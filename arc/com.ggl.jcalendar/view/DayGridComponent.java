@@ -0,0 +1,514 @@
+package com.ggl.jcalendar.view;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.IntPredicate;
+
+import javax.swing.SwingUtilities;
+import javax.swing.UIManager;
+
+import com.ggl.jcalendar.model.DateSelectionModel;
+import com.ggl.jcalendar.model.MonthGrid;
+
+/**
+ * <p>
+ * <code>DayGridComponent</code> is a single Swing component that paints the
+ * weekday names and the 42 day cells of a <code>MonthGrid</code> in one
+ * <code>paintComponent</code> pass. It replaces a <code>GridLayout</code> of
+ * 7 <code>JLabel</code>s and 42 <code>JButton</code>s.
+ * </p>
+ *
+ * <p>
+ * Mouse clicks and the keyboard are hit-tested by cell index, by
+ * <code>CellGridComponent</code>. When the user selects an enabled day, an
+ * <code>ActionEvent</code> is fired whose action command is the day of the
+ * month, just like the text of the day <code>JButton</code>s it replaces. The
+ * arrow keys move the focus cell and the Enter or Space key selects it.
+ * </p>
+ *
+ * <p>
+ * When the displayed month changes, only the cells whose day number, enabled
+ * state, highlight or selection changed, and the cells waiting for a
+ * verdict, are repainted. The months before and after the displayed month
+ * can be pre-rendered offscreen on a background thread, so paging to them
+ * paints a single image copy.
+ * </p>
+ *
+ * @see com.ggl.jcalendar.model.MonthGrid
+ * @see CellGridComponent
+ */
+public class DayGridComponent extends CellGridComponent {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final int COLUMNS = DayGridPainter.COLUMNS;
+	private static final int ROWS = DayGridPainter.ROWS;
+	private static final int MONTH_IMAGE_CAPACITY = 4;
+
+	private static final ExecutorService PRERENDER_EXECUTOR = 
+			Executors.newSingleThreadExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "JCalendar-prerender");
+					thread.setDaemon(true);
+					thread.setPriority(Thread.MIN_PRIORITY);
+					return thread;
+				}
+			});
+
+	private Color panelBackGroundColor;
+	private Color panelForegroundColor;
+	private Color dayHighlightColor;
+	private Color disabledTextColor;
+
+	private DateSelectionModel dateSelectionModel;
+
+	private DayGridPainter painter;
+
+	private final DateSelectionModel pendingDays;
+
+	private int painterGeneration;
+
+	private final Map<MonthGrid, MonthImage> monthImages;
+
+	private final Set<MonthGrid> prerendering;
+
+	private MonthGrid monthGrid;
+
+	private String[] annotations;
+	private String[] dayNames;
+
+	/**
+	 * This constructor creates an empty <code>DayGridComponent</code>.
+	 *
+	 * @param dayNames - String array of the 7 weekday names, starting with the
+	 *                 start day of the week.
+	 */
+	public DayGridComponent(String[] dayNames) {
+		super(COLUMNS, ROWS - 1, 1);
+		this.dayNames = dayNames;
+		this.panelBackGroundColor = Color.WHITE;
+		this.panelForegroundColor = Color.BLUE;
+		this.dayHighlightColor = Color.YELLOW;
+		this.disabledTextColor = UIManager.getColor("Button.disabledText");
+		if (this.disabledTextColor == null) {
+			this.disabledTextColor = Color.GRAY;
+		}
+		this.painterGeneration = 0;
+		this.pendingDays = new DateSelectionModel(DateSelectionModel.Mode.MULTIPLE);
+		this.prerendering = Collections.newSetFromMap(
+				new IdentityHashMap<MonthGrid, Boolean>());
+		this.monthImages = new LinkedHashMap<MonthGrid, MonthImage>(
+				MONTH_IMAGE_CAPACITY * 2, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+					Map.Entry<MonthGrid, MonthImage> eldest) {
+				return size() > MONTH_IMAGE_CAPACITY;
+			}
+		};
+	}
+
+	/**
+	 * This method displays a month. Only the component is repainted; no child
+	 * components are updated.
+	 *
+	 * @param monthGrid - The month to display.
+	 */
+	public void setMonthGrid(MonthGrid monthGrid) {
+		MonthGrid oldMonthGrid = this.monthGrid;
+		long changedCells = (monthGrid == null) ? MonthGrid.ALL_CELLS
+				: monthGrid.getChangedCells(oldMonthGrid);
+		changedCells |= getSelectionMask(oldMonthGrid)
+				^ getSelectionMask(monthGrid);
+		changedCells |= getPendingMask(oldMonthGrid) | getPendingMask(monthGrid);
+		if (oldMonthGrid == null || monthGrid == null
+				|| oldMonthGrid.getYear() != monthGrid.getYear()
+				|| oldMonthGrid.getMonth() != monthGrid.getMonth()) {
+			if (annotations != null) {
+				changedCells = MonthGrid.ALL_CELLS;
+			}
+			this.annotations = null;
+		}
+		this.monthGrid = monthGrid;
+
+		resetFocusIndex();
+		repaintCells(changedCells);
+	}
+
+	public MonthGrid getMonthGrid() {
+		return monthGrid;
+	}
+
+	/**
+	 * This method sets the per-day badges of a month, and repaints the grid
+	 * once. Annotations for a month other than the displayed month are
+	 * ignored.
+	 *
+	 * @param year        - The year of the annotations.
+	 * @param month       - The month of the annotations, from 1 to 12.
+	 * @param annotations - An array indexed by the day of the month minus one,
+	 *                    or <code>null</code> to remove the badges.
+	 */
+	public void setAnnotations(int year, int month, String[] annotations) {
+		if (monthGrid == null || monthGrid.getYear() != year
+				|| monthGrid.getMonth() != month) {
+			return;
+		}
+		this.annotations = annotations;
+		repaint();
+	}
+
+	/**
+	 * This method removes the per-day badges, whatever their month.
+	 */
+	public void clearAnnotations() {
+		if (annotations != null) {
+			this.annotations = null;
+			repaint();
+		}
+	}
+
+	/**
+	 * This method sets the model of the selected dates. The selected days are
+	 * painted in reverse. Call <code>repaint</code> after changing the model.
+	 *
+	 * @param dateSelectionModel - The selected dates, or <code>null</code> for
+	 *                           none.
+	 */
+	public void setDateSelectionModel(DateSelectionModel dateSelectionModel) {
+		this.dateSelectionModel = dateSelectionModel;
+		repaint();
+	}
+
+	/**
+	 * This method marks a day as waiting for a <code>DateValidator</code>
+	 * verdict. Several days may be waiting at once.
+	 *
+	 * @param epochDay - The day as an epoch day.
+	 */
+	public void addPendingEpochDay(int epochDay) {
+		if (!pendingDays.isSelected(epochDay)) {
+			pendingDays.setSelected(epochDay, true);
+			repaintCell(getCellIndex(epochDay));
+		}
+	}
+
+	/**
+	 * This method marks the days of a range as waiting for a
+	 * <code>DateValidator</code> verdict.
+	 *
+	 * @param firstEpochDay - The first day of the range as an epoch day.
+	 * @param lastEpochDay  - The last day of the range as an epoch day.
+	 * @param selectable    - The days of the range to mark, or
+	 *                      <code>null</code> for every day.
+	 */
+	public void addPendingEpochDays(int firstEpochDay, int lastEpochDay,
+			IntPredicate selectable) {
+		pendingDays.setRange(firstEpochDay, lastEpochDay, selectable);
+		repaintCells(getPendingMask(monthGrid));
+	}
+
+	/**
+	 * This method removes the waiting mark of a day.
+	 *
+	 * @param epochDay - The day as an epoch day.
+	 */
+	public void removePendingEpochDay(int epochDay) {
+		if (pendingDays.isSelected(epochDay)) {
+			pendingDays.setSelected(epochDay, false);
+			repaintCell(getCellIndex(epochDay));
+		}
+	}
+
+	/**
+	 * This method removes the waiting mark of every day.
+	 */
+	public void clearPendingEpochDays() {
+		repaintCells(getPendingMask(monthGrid));
+		pendingDays.clear();
+	}
+
+	/**
+	 * This method returns whether a day is waiting for a verdict.
+	 *
+	 * @param epochDay - The day as an epoch day.
+	 * @return <code>true</code> if the day is marked as waiting.
+	 */
+	public boolean isPendingEpochDay(int epochDay) {
+		return pendingDays.isSelected(epochDay);
+	}
+
+	private long getSelectionMask(MonthGrid grid) {
+		return (dateSelectionModel == null || grid == null) ? 0L
+				: dateSelectionModel.getSelectionMask(grid);
+	}
+
+	private long getPendingMask(MonthGrid grid) {
+		return (grid == null) ? 0L : pendingDays.getSelectionMask(grid);
+	}
+
+	private int getCellIndex(int epochDay) {
+		return getCellIndex(monthGrid, epochDay);
+	}
+
+	private static int getCellIndex(MonthGrid grid, int epochDay) {
+		if (grid == null) {
+			return -1;
+		}
+		long index = (long) epochDay - grid.getEpochDay(0);
+		return (index >= 0L && index < MonthGrid.CELL_COUNT) ? (int) index : -1;
+	}
+
+	@Override
+	public void setFont(Font font) {
+		super.setFont(font);
+		invalidatePainter();
+	}
+
+	public void setDayNames(String[] dayNames) {
+		this.dayNames = dayNames;
+		invalidatePainter();
+		revalidate();
+	}
+
+	public void setPanelBackGroundColor(Color panelBackGroundColor) {
+		this.panelBackGroundColor = panelBackGroundColor;
+		invalidatePainter();
+	}
+
+	public void setPanelForegroundColor(Color panelForegroundColor) {
+		this.panelForegroundColor = panelForegroundColor;
+		invalidatePainter();
+	}
+
+	public void setDayHighlightColor(Color dayHighlightColor) {
+		this.dayHighlightColor = dayHighlightColor;
+		invalidatePainter();
+	}
+
+	/**
+	 * This method throws away the painter and the pre-rendered month images,
+	 * after a change of color, font or day names.
+	 */
+	private void invalidatePainter() {
+		painter = null;
+		painterGeneration++;
+		monthImages.clear();
+		prerendering.clear();
+		repaint();
+	}
+
+	private DayGridPainter getPainter() {
+		if (painter == null) {
+			painter = new DayGridPainter(panelBackGroundColor,
+					panelForegroundColor, dayHighlightColor, disabledTextColor,
+					getFont(), dayNames);
+		}
+		return painter;
+	}
+
+	/**
+	 * This method renders month grids, usually the months before and after the
+	 * displayed month, into offscreen images on a background thread. When one
+	 * of those months is displayed, painting it is a single image copy.
+	 *
+	 * @param monthGrids - The months to render.
+	 */
+	public void prerender(MonthGrid... monthGrids) {
+		final int width = getWidth();
+		final int height = getHeight();
+		if (width <= 0 || height <= 0 || getFont() == null) {
+			return;
+		}
+
+		GraphicsConfiguration configuration = getGraphicsConfiguration();
+		AffineTransform transform = (configuration == null) ? new AffineTransform()
+				: configuration.getDefaultTransform();
+		final double scaleX = transform.getScaleX();
+		final double scaleY = transform.getScaleY();
+		final DayGridPainter painter = getPainter();
+		final int generation = painterGeneration;
+
+		for (final MonthGrid grid : monthGrids) {
+			MonthImage monthImage = monthImages.get(grid);
+			if (monthImage != null && monthImage.fits(width, height, scaleX,
+					scaleY) || prerendering.contains(grid)) {
+				continue;
+			}
+			prerendering.add(grid);
+			PRERENDER_EXECUTOR.execute(new Runnable() {
+				@Override
+				public void run() {
+					final MonthImage monthImage = renderMonthImage(painter, grid,
+							width, height, scaleX, scaleY);
+					SwingUtilities.invokeLater(new Runnable() {
+						@Override
+						public void run() {
+							if (generation == painterGeneration 
+									&& prerendering.remove(grid)) {
+								monthImages.put(grid, monthImage);
+							}
+						}
+					});
+				}
+			});
+		}
+	}
+
+	private static MonthImage renderMonthImage(DayGridPainter painter,
+			MonthGrid grid, int width, int height, double scaleX, double scaleY) {
+		BufferedImage image = new BufferedImage(
+				(int) Math.ceil(width * scaleX), (int) Math.ceil(height * scaleY),
+				BufferedImage.TYPE_INT_RGB);
+		Graphics2D g2d = image.createGraphics();
+		g2d.scale(scaleX, scaleY);
+		painter.paint(g2d, width, height, grid, null, 0L, -1, -1);
+		g2d.dispose();
+		return new MonthImage(width, height, scaleX, scaleY, image);
+	}
+
+	@Override
+	public Dimension getPreferredSize() {
+		if (isPreferredSizeSet()) {
+			return super.getPreferredSize();
+		}
+		FontMetrics metrics = getFontMetrics(getFont());
+		int cellWidth = getPainter().getMaximumTextWidth(metrics) + 32;
+		int cellHeight = metrics.getHeight() + 10;
+		return new Dimension(cellWidth * COLUMNS, cellHeight * ROWS);
+	}
+
+	@Override
+	protected void paintComponent(Graphics g) {
+		Graphics2D g2d = (Graphics2D) g.create();
+		int width = getWidth();
+		int height = getHeight();
+		int focusedIndex = hasFocus() ? getFocusIndex() : -1;
+		int rolloverIndex = getRolloverIndex();
+		DayGridPainter painter = getPainter();
+
+		MonthImage monthImage = (annotations == null && monthGrid != null)
+				? monthImages.get(monthGrid) : null;
+		long selectedMask = getSelectionMask(monthGrid);
+		AffineTransform transform = g2d.getTransform();
+		if (monthImage != null && monthImage.fits(width, height,
+				transform.getScaleX(), transform.getScaleY())) {
+			g2d.drawImage(monthImage.image, 0, 0, width, height, null);
+			long overlayCells = selectedMask;
+			if (rolloverIndex >= 0) {
+				overlayCells |= 1L << rolloverIndex;
+			}
+			if (focusedIndex >= 0) {
+				overlayCells |= 1L << focusedIndex;
+			}
+			while (overlayCells != 0L) {
+				int index = Long.numberOfTrailingZeros(overlayCells);
+				painter.paintCell(g2d, width, height, monthGrid, index,
+						(selectedMask & (1L << index)) != 0L,
+						index == rolloverIndex, index == focusedIndex);
+				overlayCells &= overlayCells - 1L;
+			}
+		} else {
+			painter.paint(g2d, width, height, monthGrid, annotations,
+					selectedMask, rolloverIndex, focusedIndex);
+		}
+
+		long pendingMask = getPendingMask(monthGrid);
+		while (pendingMask != 0L) {
+			int index = Long.numberOfTrailingZeros(pendingMask);
+			painter.paintPendingCell(g2d, width, height, index);
+			pendingMask &= pendingMask - 1L;
+		}
+
+		g2d.dispose();
+	}
+
+	@Override
+	protected int getCellCount() {
+		return (monthGrid == null) ? 0 : MonthGrid.CELL_COUNT;
+	}
+
+	@Override
+	protected boolean isCellEnabled(int index) {
+		return monthGrid != null && monthGrid.isEnabled(index);
+	}
+
+	@Override
+	protected int getFirstFocusIndex() {
+		if (monthGrid == null) {
+			return -1;
+		}
+		long enabledMask = monthGrid.getEnabledMask();
+		if (monthGrid.getHighlightMask() != 0L
+				&& (monthGrid.getHighlightMask() & enabledMask) != 0L) {
+			return Long.numberOfTrailingZeros(monthGrid.getHighlightMask());
+		}
+		return (enabledMask == 0L) ? -1 : Long.numberOfTrailingZeros(enabledMask);
+	}
+
+	@Override
+	protected String getActionCommand(int index) {
+		return DayGridPainter.getDayText(monthGrid.getDayOfMonth(index));
+	}
+
+	private void repaintCells(long cells) {
+		if (cells == MonthGrid.ALL_CELLS) {
+			repaint();
+			return;
+		}
+		while (cells != 0L) {
+			repaintCell(Long.numberOfTrailingZeros(cells));
+			cells &= cells - 1L;
+		}
+	}
+
+	/**
+	 * <code>MonthImage</code> is a pre-rendered month, and the size and the
+	 * screen scale it was rendered for. An image rendered for another scale,
+	 * for example before the dialog moved to a HiDPI screen, doesn't fit.
+	 */
+	private static class MonthImage {
+
+		private final double scaleX;
+		private final double scaleY;
+
+		private final int width;
+		private final int height;
+
+		private final BufferedImage image;
+
+		public MonthImage(int width, int height, double scaleX, double scaleY,
+				BufferedImage image) {
+			this.width = width;
+			this.height = height;
+			this.scaleX = scaleX;
+			this.scaleY = scaleY;
+			this.image = image;
+		}
+
+		public boolean fits(int width, int height, double scaleX,
+				double scaleY) {
+			return this.width == width && this.height == height
+					&& this.scaleX == scaleX && this.scaleY == scaleY;
+		}
+
+	}
+
+}
@@ -0,0 +1,373 @@
+package com.ggl.jcalendar.view;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Stroke;
+import java.awt.Toolkit;
+import java.util.Map;
+
+import com.ggl.jcalendar.model.MonthGrid;
+
+/**
+ * <p>
+ * <code>DayGridPainter</code> paints the weekday names and the 42 day cells of
+ * a <code>MonthGrid</code> onto any <code>Graphics2D</code>, whether it's a
+ * <code>DayGridComponent</code> or an offscreen image.
+ * </p>
+ *
+ * <p>
+ * A <code>DayGridPainter</code> is immutable, so one painter can be used on a
+ * background thread while the Event Dispatch Thread paints with it too. A
+ * change of color, font or day names creates a new painter.
+ * </p>
+ *
+ * <p>
+ * Selected days are painted in reverse, with the foreground color as the cell
+ * background.
+ * </p>
+ *
+ * <p>
+ * The day numbers and the weekday names are copied from a shared
+ * <code>GlyphAtlas</code>, so they're measured and rasterized once per font,
+ * screen scale and color, rather than on every paint.
+ * </p>
+ *
+ * @see DayGridComponent
+ * @see GlyphAtlas
+ * @see com.ggl.jcalendar.model.MonthGrid
+ */
+public final class DayGridPainter {
+
+	/** The number of columns of the grid, one per weekday. */
+	public static final int COLUMNS = 7;
+
+	/** The number of rows of the grid, the weekday names and six weeks. */
+	public static final int ROWS = 7;
+
+	private static final String[] DAY_TEXT = createDayText();
+
+	private static final Stroke PENDING_STROKE = new BasicStroke(1f,
+			BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10f,
+			new float[] { 2f, 2f }, 0f);
+	private static final String[] PENDING_BADGE = { "..." };
+
+	private final Color panelBackGroundColor;
+	private final Color panelForegroundColor;
+	private final Color dayHighlightColor;
+	private final Color disabledTextColor;
+
+	private final Font font;
+	private final Font annotationFont;
+
+	private final String[] dayNames;
+
+	/**
+	 * This constructor creates a <code>DayGridPainter</code>.
+	 *
+	 * @param panelBackGroundColor - Panel background color.
+	 * @param panelForegroundColor - Panel foreground color.
+	 * @param dayHighlightColor    - Background color of the highlighted day.
+	 * @param disabledTextColor    - Text color of the disabled days.
+	 * @param font                 - The <code>Font</code> of the grid.
+	 * @param dayNames             - String array of the 7 weekday names,
+	 *                             starting with the start day of the week.
+	 */
+	public DayGridPainter(Color panelBackGroundColor, Color panelForegroundColor,
+			Color dayHighlightColor, Color disabledTextColor, Font font,
+			String[] dayNames) {
+		this.panelBackGroundColor = panelBackGroundColor;
+		this.panelForegroundColor = panelForegroundColor;
+		this.dayHighlightColor = dayHighlightColor;
+		this.disabledTextColor = disabledTextColor;
+		this.font = font;
+		this.annotationFont = font.deriveFont(Font.PLAIN,
+				Math.max(8f, font.getSize2D() * 0.6f));
+		this.dayNames = dayNames.clone();
+	}
+
+	private static String[] createDayText() {
+		String[] dayText = new String[32];
+		for (int day = 1; day < dayText.length; day++) {
+			dayText[day] = Integer.toString(day);
+		}
+		return dayText;
+	}
+
+	/**
+	 * This method returns the text of a day of the month, without allocating.
+	 *
+	 * @param dayOfMonth - The day of the month, from 1 to 31.
+	 * @return The day of the month as text.
+	 */
+	public static String getDayText(int dayOfMonth) {
+		return DAY_TEXT[dayOfMonth];
+	}
+
+	public Font getFont() {
+		return font;
+	}
+
+	public Color getPanelBackGroundColor() {
+		return panelBackGroundColor;
+	}
+
+	public Color getPanelForegroundColor() {
+		return panelForegroundColor;
+	}
+
+	/**
+	 * This method returns the width of the widest weekday name or day number.
+	 *
+	 * @param metrics - The <code>FontMetrics</code> of the grid font.
+	 * @return The text width in pixels.
+	 */
+	public int getMaximumTextWidth(FontMetrics metrics) {
+		int textWidth = metrics.stringWidth("00");
+		for (String dayName : dayNames) {
+			textWidth = Math.max(textWidth, metrics.stringWidth(dayName));
+		}
+		return textWidth;
+	}
+
+	/**
+	 * This method paints the whole grid, skipping the cells outside the clip.
+	 *
+	 * @param g2d           - The graphics to paint on.
+	 * @param width         - The width of the grid.
+	 * @param height        - The height of the grid.
+	 * @param monthGrid     - The month to paint, or <code>null</code> for just
+	 *                      the weekday names.
+	 * @param annotations   - The per-day badges, or <code>null</code>.
+	 * @param selectedMask  - The mask of the selected cells, bit 0 for the
+	 *                      first cell.
+	 * @param rolloverIndex - The cell under the mouse, or -1.
+	 * @param focusIndex    - The focus cell, or -1.
+	 */
+	public void paint(Graphics2D g2d, int width, int height, MonthGrid monthGrid,
+			String[] annotations, long selectedMask, int rolloverIndex,
+			int focusIndex) {
+		applyRenderingHints(g2d);
+
+		g2d.setColor(panelBackGroundColor);
+		g2d.fillRect(0, 0, width, height);
+
+		g2d.setFont(font);
+		FontMetrics metrics = g2d.getFontMetrics(font);
+		int cellWidth = width / COLUMNS;
+		int cellHeight = height / ROWS;
+		int baseline = getBaseline(metrics, cellHeight);
+
+		g2d.setColor(panelForegroundColor);
+		AtlasLookup atlases = new AtlasLookup();
+		GlyphAtlas atlas = atlases.getAtlas(g2d, font, AtlasLookup.DAY,
+				panelBackGroundColor);
+		for (int column = 0; column < COLUMNS; column++) {
+			drawCenteredString(g2d, metrics, atlas, dayNames[column],
+					column * cellWidth, baseline, cellWidth);
+		}
+
+		if (monthGrid == null) {
+			return;
+		}
+
+		Rectangle clip = g2d.getClipBounds();
+		for (int index = 0; index < MonthGrid.CELL_COUNT; index++) {
+			int x = (index % COLUMNS) * cellWidth;
+			int y = (index / COLUMNS + 1) * cellHeight;
+			if (clip != null && !clip.intersects(x, y, cellWidth, cellHeight)) {
+				continue;
+			}
+			paintCell(g2d, metrics, atlases, monthGrid, annotations, index, x,
+					y, cellWidth, cellHeight, baseline,
+					(selectedMask & (1L << index)) != 0L, index == rolloverIndex,
+					index == focusIndex);
+		}
+	}
+
+	/**
+	 * This method paints one day cell over an already painted grid.
+	 *
+	 * @param g2d       - The graphics to paint on.
+	 * @param width     - The width of the grid.
+	 * @param height    - The height of the grid.
+	 * @param monthGrid - The month to paint.
+	 * @param index     - The cell index, from 0 to 41.
+	 * @param selected  - <code>true</code> if the day is selected.
+	 * @param rollover  - <code>true</code> if the mouse is over the cell.
+	 * @param focused   - <code>true</code> if the cell has the focus.
+	 */
+	public void paintCell(Graphics2D g2d, int width, int height,
+			MonthGrid monthGrid, int index, boolean selected, boolean rollover,
+			boolean focused) {
+		applyRenderingHints(g2d);
+		g2d.setFont(font);
+		FontMetrics metrics = g2d.getFontMetrics(font);
+		int cellWidth = width / COLUMNS;
+		int cellHeight = height / ROWS;
+		int x = (index % COLUMNS) * cellWidth;
+		int y = (index / COLUMNS + 1) * cellHeight;
+		paintCell(g2d, metrics, new AtlasLookup(), monthGrid, null, index, x,
+				y, cellWidth, cellHeight, getBaseline(metrics, cellHeight),
+				selected, rollover, focused);
+	}
+
+	/**
+	 * This method marks one day cell as waiting for a verdict, over the cell
+	 * already painted, with a dashed border and an ellipsis badge.
+	 *
+	 * @param g2d    - The graphics to paint on.
+	 * @param width  - The width of the grid.
+	 * @param height - The height of the grid, including the weekday names.
+	 * @param index  - The cell index, from 0 to 41.
+	 */
+	public void paintPendingCell(Graphics2D g2d, int width, int height,
+			int index) {
+		applyRenderingHints(g2d);
+		int cellWidth = width / COLUMNS;
+		int cellHeight = height / ROWS;
+		int x = (index % COLUMNS) * cellWidth;
+		int y = (index / COLUMNS + 1) * cellHeight;
+		Stroke stroke = g2d.getStroke();
+		g2d.setColor(panelForegroundColor);
+		g2d.setStroke(PENDING_STROKE);
+		g2d.drawRect(x + 3, y + 3, cellWidth - 7, cellHeight - 7);
+		g2d.setStroke(stroke);
+		paintAnnotation(g2d, PENDING_BADGE, 1, x, y, cellWidth);
+		g2d.setFont(font);
+	}
+
+	private void paintCell(Graphics2D g2d, FontMetrics metrics,
+			AtlasLookup atlases, MonthGrid monthGrid, String[] annotations,
+			int index, int x, int y, int cellWidth, int cellHeight, int baseline,
+			boolean selected, boolean rollover, boolean focused) {
+		boolean enabled = monthGrid.isEnabled(index);
+		Color cellColor;
+		int atlasSlot;
+		if (selected) {
+			cellColor = panelForegroundColor;
+			atlasSlot = AtlasLookup.SELECTED_DAY;
+		} else if (monthGrid.isHighlighted(index)) {
+			cellColor = dayHighlightColor;
+			atlasSlot = enabled ? AtlasLookup.HIGHLIGHTED_DAY
+					: AtlasLookup.DISABLED_HIGHLIGHTED_DAY;
+		} else {
+			cellColor = panelBackGroundColor;
+			atlasSlot = enabled ? AtlasLookup.DAY : AtlasLookup.DISABLED_DAY;
+		}
+		g2d.setColor(cellColor);
+		g2d.fillRect(x + 1, y + 1, cellWidth - 2, cellHeight - 2);
+
+		g2d.setColor(enabled && rollover ? panelForegroundColor
+				: disabledTextColor);
+		g2d.drawRect(x + 1, y + 1, cellWidth - 3, cellHeight - 3);
+
+		int day = monthGrid.getDayOfMonth(index);
+		if (day != 0) {
+			if (selected) {
+				g2d.setColor(panelBackGroundColor);
+			} else {
+				g2d.setColor(enabled ? panelForegroundColor : disabledTextColor);
+			}
+			drawCenteredString(g2d, metrics,
+					atlases.getAtlas(g2d, font, atlasSlot, cellColor),
+					DAY_TEXT[day], x, y + baseline, cellWidth);
+			paintAnnotation(g2d, annotations, day, x, y, cellWidth);
+			g2d.setFont(font);
+		}
+
+		if (focused) {
+			g2d.setColor(selected ? panelBackGroundColor : panelForegroundColor);
+			g2d.drawRect(x + 3, y + 3, cellWidth - 7, cellHeight - 7);
+		}
+	}
+
+	private void paintAnnotation(Graphics2D g2d, String[] annotations, int day,
+			int x, int y, int cellWidth) {
+		if (annotations == null || day > annotations.length
+				|| annotations[day - 1] == null) {
+			return;
+		}
+		String annotation = annotations[day - 1];
+		g2d.setFont(annotationFont);
+		FontMetrics metrics = g2d.getFontMetrics(annotationFont);
+		int textWidth = metrics.stringWidth(annotation);
+		g2d.drawString(annotation, x + cellWidth - textWidth - 4,
+				y + metrics.getAscent() + 2);
+	}
+
+	private static int getBaseline(FontMetrics metrics, int cellHeight) {
+		return (cellHeight - metrics.getHeight()) / 2 + metrics.getAscent();
+	}
+
+	/**
+	 * This method copies the text from the glyph atlas, or draws it when
+	 * there's no atlas. Text wider than the inside of its cell is drawn, so
+	 * the opaque image doesn't cover the cell borders and the neighboring
+	 * cells.
+	 */
+	private static void drawCenteredString(Graphics2D g2d, FontMetrics metrics,
+			GlyphAtlas atlas, String text, int x, int baseline, int cellWidth) {
+		int textWidth = (atlas == null) ? metrics.stringWidth(text)
+				: atlas.getWidth(g2d, text);
+		if (atlas == null || textWidth > cellWidth - 2) {
+			g2d.drawString(text, x + (cellWidth - textWidth) / 2, baseline);
+		} else {
+			atlas.drawString(g2d, text, x + (cellWidth - textWidth) / 2, baseline);
+		}
+	}
+
+	/**
+	 * <code>AtlasLookup</code> keeps the glyph atlases of one paint, one per
+	 * pair of text and cell colors, so the shared atlases are looked up a few
+	 * times per paint rather than once per cell.
+	 */
+	private static final class AtlasLookup {
+
+		/** The day names and the enabled days, on the background. */
+		public static final int DAY = 0;
+		public static final int DISABLED_DAY = 1;
+		public static final int HIGHLIGHTED_DAY = 2;
+		public static final int DISABLED_HIGHLIGHTED_DAY = 3;
+		public static final int SELECTED_DAY = 4;
+
+		private final GlyphAtlas[] atlases;
+
+		private int lookedUpMask;
+
+		public AtlasLookup() {
+			this.atlases = new GlyphAtlas[SELECTED_DAY + 1];
+			this.lookedUpMask = 0;
+		}
+
+		/**
+		 * This method returns the atlas of a slot, looking it up the first
+		 * time. The color of the graphics must be the text color of the slot.
+		 */
+		public GlyphAtlas getAtlas(Graphics2D g2d, Font font, int slot,
+				Color background) {
+			if ((lookedUpMask & (1 << slot)) == 0) {
+				atlases[slot] = GlyphAtlas.getAtlas(g2d, font, background);
+				lookedUpMask |= 1 << slot;
+			}
+			return atlases[slot];
+		}
+
+	}
+
+	private static void applyRenderingHints(Graphics2D g2d) {
+		Map<?, ?> desktopHints = (Map<?, ?>) Toolkit.getDefaultToolkit()
+				.getDesktopProperty("awt.font.desktophints");
+		if (desktopHints != null) {
+			g2d.addRenderingHints(desktopHints);
+		} else {
+			g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+					RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+		}
+	}
+
+}
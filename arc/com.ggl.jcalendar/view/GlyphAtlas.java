@@ -0,0 +1,269 @@
+package com.ggl.jcalendar.view;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Paint;
+import java.awt.Rectangle;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * <code>GlyphAtlas</code> holds pre-rendered images of the short strings a
+ * calendar paints again and again, the day numbers and the weekday names.
+ * Each string is measured and rasterized once, and after that drawing it is
+ * an image copy at device resolution.
+ * </p>
+ *
+ * <p>
+ * An atlas belongs to one font, one <code>FontRenderContext</code>, which
+ * holds the scale of the screen and the text antialiasing hints, and one pair
+ * of text and background colors. The text is rendered over its opaque
+ * background, so subpixel antialiased text looks the same as when it's drawn
+ * directly. When the font, the scale, the hints or the colors change, a
+ * different atlas is used. The atlases are shared by every
+ * <code>DayGridPainter</code>, so every <code>JCalendar</code> dialog and
+ * every <code>CalendarExporter</code> thread uses the same images.
+ * </p>
+ *
+ * <p>
+ * Text is drawn directly when it can't be copied exactly: when the transform
+ * rotates or flips, when the composite isn't an opaque source over, or when a
+ * color is translucent.
+ * </p>
+ *
+ * <p>
+ * The atlas methods are thread safe.
+ * </p>
+ *
+ * @see DayGridPainter
+ */
+final class GlyphAtlas {
+
+	/** The number of font, scale and color combinations to keep. */
+	private static final int MAXIMUM_ATLASES = 32;
+
+	/** The number of strings to keep in one atlas. */
+	private static final int MAXIMUM_GLYPHS = 128;
+
+	private static final AffineTransform IDENTITY = new AffineTransform();
+
+	private static final int SCALE_MASK = ~(AffineTransform.TYPE_TRANSLATION
+			| AffineTransform.TYPE_UNIFORM_SCALE
+			| AffineTransform.TYPE_GENERAL_SCALE);
+
+	private static final Map<Key, GlyphAtlas> ATLASES =
+			new LinkedHashMap<Key, GlyphAtlas>(MAXIMUM_ATLASES * 2, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(
+						Map.Entry<Key, GlyphAtlas> eldest) {
+					return size() > MAXIMUM_ATLASES;
+				}
+			};
+
+	private final Color background;
+	private final Color foreground;
+
+	private final ConcurrentMap<String, Glyph> glyphs;
+
+	private final Font font;
+
+	private final FontRenderContext frc;
+
+	private GlyphAtlas(Font font, FontRenderContext frc, Color foreground,
+			Color background) {
+		this.font = font;
+		this.frc = frc;
+		this.foreground = foreground;
+		this.background = background;
+		this.glyphs = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * This method returns the shared atlas for the font, the transform, the
+	 * hints and the color of a <code>Graphics2D</code>.
+	 *
+	 * @param g2d        - The graphics the text is drawn on. Its color is the
+	 *                   text color.
+	 * @param font       - The font of the text.
+	 * @param background - The opaque color under the text.
+	 * @return The atlas, or <code>null</code> if the text must be drawn
+	 *         directly.
+	 */
+	public static GlyphAtlas getAtlas(Graphics2D g2d, Font font,
+			Color background) {
+		AffineTransform transform = g2d.getTransform();
+		Paint paint = g2d.getPaint();
+		if ((transform.getType() & SCALE_MASK) != 0
+				|| transform.getScaleX() <= 0.0 || transform.getScaleY() <= 0.0
+				|| !AlphaComposite.SrcOver.equals(g2d.getComposite())
+				|| !(paint instanceof Color) || ((Color) paint).getAlpha() != 255
+				|| background.getAlpha() != 255) {
+			return null;
+		}
+
+		Color foreground = (Color) paint;
+		FontRenderContext frc = g2d.getFontRenderContext();
+		Key key = new Key(font, frc, foreground.getRGB(), background.getRGB());
+		synchronized (ATLASES) {
+			GlyphAtlas atlas = ATLASES.get(key);
+			if (atlas == null) {
+				atlas = new GlyphAtlas(font, frc, foreground, background);
+				ATLASES.put(key, atlas);
+			}
+			return atlas;
+		}
+	}
+
+	/**
+	 * This method returns the advance width of a string, in user space, the
+	 * same width <code>FontMetrics.stringWidth</code> returns.
+	 *
+	 * @param g2d  - The graphics the text is drawn on.
+	 * @param text - The text.
+	 * @return The width.
+	 */
+	public int getWidth(Graphics2D g2d, String text) {
+		return getGlyph(g2d, text).width;
+	}
+
+	/**
+	 * This method copies the image of a string to the graphics.
+	 *
+	 * @param g2d      - The graphics of this atlas.
+	 * @param text     - The text.
+	 * @param x        - The x coordinate of the text origin, in user space.
+	 * @param baseline - The y coordinate of the baseline, in user space.
+	 */
+	public void drawString(Graphics2D g2d, String text, int x, int baseline) {
+		Glyph glyph = getGlyph(g2d, text);
+		if (glyph.image == null) {
+			return;
+		}
+
+		AffineTransform transform = g2d.getTransform();
+		int deviceX = (int) Math.floor(transform.getTranslateX()
+				+ x * transform.getScaleX() + 0.5);
+		int deviceY = (int) Math.floor(transform.getTranslateY()
+				+ baseline * transform.getScaleY() + 0.5);
+		g2d.setTransform(IDENTITY);
+		g2d.drawImage(glyph.image, deviceX + glyph.originX,
+				deviceY + glyph.originY, null);
+		g2d.setTransform(transform);
+	}
+
+	private Glyph getGlyph(Graphics2D g2d, String text) {
+		Glyph glyph = glyphs.get(text);
+		if (glyph == null) {
+			glyph = createGlyph(g2d, text);
+			if (glyphs.size() < MAXIMUM_GLYPHS) {
+				Glyph previous = glyphs.putIfAbsent(text, glyph);
+				if (previous != null) {
+					glyph = previous;
+				}
+			}
+		}
+		return glyph;
+	}
+
+	/**
+	 * This method renders a string over its background, cut to the pixels
+	 * the text covers.
+	 */
+	private Glyph createGlyph(Graphics2D g2d, String text) {
+		int width = g2d.getFontMetrics(font).stringWidth(text);
+		GlyphVector vector = font.createGlyphVector(frc, text);
+		Rectangle bounds = vector.getPixelBounds(frc, 0f, 0f);
+		if (bounds.isEmpty()) {
+			return new Glyph(null, 0, 0, width);
+		}
+
+		BufferedImage image = new BufferedImage(bounds.width, bounds.height,
+				BufferedImage.TYPE_INT_RGB);
+		Graphics2D imageGraphics = image.createGraphics();
+		imageGraphics.setColor(background);
+		imageGraphics.fillRect(0, 0, bounds.width, bounds.height);
+		imageGraphics.setRenderingHints(g2d.getRenderingHints());
+		imageGraphics.translate(-bounds.x, -bounds.y);
+		imageGraphics.scale(frc.getTransform().getScaleX(),
+				frc.getTransform().getScaleY());
+		imageGraphics.setColor(foreground);
+		imageGraphics.drawGlyphVector(vector, 0f, 0f);
+		imageGraphics.dispose();
+		return new Glyph(image, bounds.x, bounds.y, width);
+	}
+
+	/**
+	 * <code>Glyph</code> is the image of one string, and the offset of the
+	 * image from the text origin, in device pixels.
+	 */
+	private static final class Glyph {
+
+		private final BufferedImage image;
+
+		private final int originX;
+		private final int originY;
+		private final int width;
+
+		public Glyph(BufferedImage image, int originX, int originY, int width) {
+			this.image = image;
+			this.originX = originX;
+			this.originY = originY;
+			this.width = width;
+		}
+
+	}
+
+	private static final class Key {
+
+		private final int foregroundRGB;
+		private final int backgroundRGB;
+
+		private final Font font;
+
+		private final FontRenderContext frc;
+
+		public Key(Font font, FontRenderContext frc, int foregroundRGB,
+				int backgroundRGB) {
+			this.font = font;
+			this.frc = frc;
+			this.foregroundRGB = foregroundRGB;
+			this.backgroundRGB = backgroundRGB;
+		}
+
+		@Override
+		public int hashCode() {
+			int result = font.hashCode();
+			result = 31 * result + frc.hashCode();
+			result = 31 * result + foregroundRGB;
+			result = 31 * result + backgroundRGB;
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (this == object) {
+				return true;
+			}
+			if (!(object instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) object;
+			return foregroundRGB == other.foregroundRGB
+					&& backgroundRGB == other.backgroundRGB
+					&& font.equals(other.font) && frc.equals(other.frc);
+		}
+
+	}
+
+}
@@ -0,0 +1,157 @@
+package com.ggl.jcalendar.view;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * <code>HistogramPickerMetrics</code> keeps a histogram of each
+ * <code>PickerMetrics</code> latency, in power of two microsecond buckets. A
+ * record is two atomic additions, without allocation, so it costs nothing
+ * measurable on the Event Dispatch Thread. The histograms may be read and
+ * exported from any thread.
+ * </p>
+ *
+ * <p>
+ * The histograms are exported in the Prometheus text format, which most
+ * monitoring tools read, without any extra library.
+ * </p>
+ *
+ * <pre>
+ * <code>
+ *    HistogramPickerMetrics metrics = new HistogramPickerMetrics();
+ *    JCalendar.setDefaultPickerMetrics(metrics);
+ *    ...
+ *    metrics.writeTo(writer);
+ *    double p99 = metrics.getPercentileMicros(PickerMetrics.Metric.OPEN, 99.0);
+ * </code>
+ * </pre>
+ *
+ * @see PickerMetrics
+ */
+public class HistogramPickerMetrics implements PickerMetrics {
+
+	/** Bucket i counts the latencies below 2 to the i microseconds. */
+	private static final int BUCKET_COUNT = 40;
+
+	private static final Metric[] METRICS = Metric.values();
+
+	private final AtomicLongArray counts;
+	private final AtomicLongArray sums;
+
+	public HistogramPickerMetrics() {
+		this.counts = new AtomicLongArray(METRICS.length * BUCKET_COUNT);
+		this.sums = new AtomicLongArray(METRICS.length);
+	}
+
+	@Override
+	public void record(Metric metric, long nanos) {
+		long micros = Math.max(0L, nanos / 1000L);
+		int bucket = Math.min(BUCKET_COUNT - 1,
+				64 - Long.numberOfLeadingZeros(micros));
+		counts.incrementAndGet(metric.ordinal() * BUCKET_COUNT + bucket);
+		sums.addAndGet(metric.ordinal(), micros);
+	}
+
+	public long getCount(Metric metric) {
+		long count = 0L;
+		int offset = metric.ordinal() * BUCKET_COUNT;
+		for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+			count += counts.get(offset + bucket);
+		}
+		return count;
+	}
+
+	public long getSumMicros(Metric metric) {
+		return sums.get(metric.ordinal());
+	}
+
+	/**
+	 * This method returns an upper bound of a latency percentile, to within a
+	 * factor of two.
+	 *
+	 * @param metric     - The measured latency.
+	 * @param percentile - The percentile, from 0 to 100.
+	 * @return The upper bound of the bucket holding the percentile, in
+	 *         microseconds, or 0 if nothing has been recorded.
+	 */
+	public long getPercentileMicros(Metric metric, double percentile) {
+		long count = getCount(metric);
+		if (count == 0L) {
+			return 0L;
+		}
+		long rank = Math.max(1L, (long) Math.ceil(count * percentile / 100.0));
+		long cumulative = 0L;
+		int offset = metric.ordinal() * BUCKET_COUNT;
+		for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+			cumulative += counts.get(offset + bucket);
+			if (cumulative >= rank) {
+				return getUpperBoundMicros(bucket);
+			}
+		}
+		return getUpperBoundMicros(BUCKET_COUNT - 1);
+	}
+
+	/**
+	 * This method returns the share of the opened calendars that were
+	 * cancelled.
+	 *
+	 * @return The cancel rate, from 0.0 to 1.0.
+	 */
+	public double getCancelRate() {
+		long cancellations = getCount(Metric.CANCELLATION);
+		long total = cancellations + getCount(Metric.SELECTION);
+		return (total == 0L) ? 0.0 : (double) cancellations / total;
+	}
+
+	public void reset() {
+		for (int index = 0; index < counts.length(); index++) {
+			counts.set(index, 0L);
+		}
+		for (int index = 0; index < sums.length(); index++) {
+			sums.set(index, 0L);
+		}
+	}
+
+	/**
+	 * This method writes the histograms in the Prometheus text format, one
+	 * histogram per metric, like <code>jcalendar_open_micros</code>, followed
+	 * by the cancel rate.
+	 *
+	 * @param appendable - The destination, like a <code>Writer</code> or a
+	 *                   <code>StringBuilder</code>.
+	 * @throws IOException if the destination can't be written.
+	 */
+	public void writeTo(Appendable appendable) throws IOException {
+		for (Metric metric : METRICS) {
+			String name = "jcalendar_"
+					+ metric.name().toLowerCase(Locale.ROOT) + "_micros";
+			appendable.append("# TYPE ").append(name).append(" histogram\n");
+			int offset = metric.ordinal() * BUCKET_COUNT;
+			long cumulative = 0L;
+			for (int bucket = 0; bucket < BUCKET_COUNT - 1; bucket++) {
+				cumulative += counts.get(offset + bucket);
+				appendable.append(name).append("_bucket{le=\"")
+						.append(Long.toString(getUpperBoundMicros(bucket)))
+						.append("\"} ").append(Long.toString(cumulative))
+						.append('\n');
+			}
+			cumulative += counts.get(offset + BUCKET_COUNT - 1);
+			appendable.append(name).append("_bucket{le=\"+Inf\"} ")
+					.append(Long.toString(cumulative)).append('\n');
+			appendable.append(name).append("_sum ")
+					.append(Long.toString(getSumMicros(metric))).append('\n');
+			appendable.append(name).append("_count ")
+					.append(Long.toString(cumulative)).append('\n');
+		}
+		appendable.append("# TYPE jcalendar_cancel_rate gauge\n");
+		appendable.append("jcalendar_cancel_rate ")
+				.append(Double.toString(getCancelRate())).append('\n');
+	}
+
+	private static long getUpperBoundMicros(int bucket) {
+		return (1L << bucket) - 1L;
+	}
+
+}
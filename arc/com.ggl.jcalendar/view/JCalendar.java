@@ -1,22 +1,50 @@
 package com.ggl.jcalendar.view;
 
 import java.awt.BorderLayout;
+import java.awt.CardLayout;
 import java.awt.Color;
+import java.awt.Component;
+import java.awt.Cursor;
 import java.awt.Font;
+import java.awt.Graphics;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
-import java.awt.GridLayout;
+import java.awt.Toolkit;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.security.InvalidParameterException;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.chrono.Chronology;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
 
 import javax.swing.JButton;
 import javax.swing.JDialog;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JPopupMenu;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.event.PopupMenuEvent;
+import javax.swing.event.PopupMenuListener;
+
+import com.ggl.jcalendar.model.CalendarModel;
+import com.ggl.jcalendar.model.ChronologyTable;
+import com.ggl.jcalendar.model.DateSelectionModel;
+import com.ggl.jcalendar.model.DateValidator;
+import com.ggl.jcalendar.model.DayAnnotationProvider;
+import com.ggl.jcalendar.model.DayDataIndex;
+import com.ggl.jcalendar.model.HolidayCalendar;
+import com.ggl.jcalendar.model.MonthGrid;
+import com.ggl.jcalendar.model.MonthGridCache;
 
 /**
  * <p>
@@ -40,11 +68,22 @@ import javax.swing.JPanel;
  * <li>Change the calendar day highlight color.</li>
  * <li>Change the font.</li>
  * <li>Change the month names, to accommodate other languages.</li>
+ * <li>Display the months of another <code>Chronology</code>, like the Hijrah,
+ * Japanese, Thai Buddhist or Minguo calendar.</li>
  * <li>Change the start day of the week. The default is the
  * <code> DayOfWeek SUNDAY</code>.</li>
  * <li>Change the three letter day of the week names, to accommodate other
  * languages and other start days of the week.</li>
  * <li>Exclude week days from being selected.</li>
+ * <li>Exclude holidays, blackout ranges and recurring holidays from being
+ * selected.</li>
+ * <li>Show per-day badges from a <code>DayAnnotationProvider</code>.</li>
+ * <li>Check each selected date with a slow <code>DateValidator</code>.</li>
+ * <li>Close days and show badges from a memory-mapped
+ * <code>DayDataIndex</code> file.</li>
+ * <li>Record the open, navigation and selection latencies in
+ * <code>PickerMetrics</code>.</li>
+ * <li>Select several dates, or a range of dates, instead of one date.</li>
  * <li>Set the earliest valid date for selection.</li>
  * <li>Set the latest valid date for selection.</li>
  * </ul>
@@ -70,6 +109,26 @@ import javax.swing.JPanel;
  * </p>
  * 
  * <p>
+ * The optional parameters can also be built once into an immutable
+ * <code>CalendarSpec</code>, and set at once with <code>applySpec</code>.
+ * </p>
+ * 
+ * <p>
+ * Clicking the month and year title switches to a view of the 12 months of
+ * the year, and clicking the year switches to a view of the 10 years of the
+ * decade. Selecting a year, then a month, returns to the days of that month,
+ * so a far away date is only a few clicks away.
+ * </p>
+ * 
+ * <p>
+ * The <code>startAsync</code> method displays the <code>JCalendar</code>
+ * without blocking the caller, and returns a
+ * <code>CompletableFuture</code> of the selected date. The
+ * <code>startPopup</code> method displays the same calendar in a lightweight
+ * popup anchored to a component, instead of in a <code>JDialog</code>.
+ * </p>
+ * 
+ * <p>
  * Here's one example of a "dark" <code>JCalendar</code>:
  * 
  * <pre>
@@ -94,36 +153,97 @@ import javax.swing.JPanel;
  * @see java.awt.event.ActionListener
  * @see java.time.DayOfWeek
  * @see java.time.LocalDate
+ * @see java.util.concurrent.CompletableFuture
  * @see javax.swing.JButton
  * @see javax.swing.JDialog
  * @see javax.swing.JFrame
+ * @see DayGridComponent
+ * @see CalendarSpec
+ * @see JCalendarPool
+ * @see com.ggl.jcalendar.model.MonthGrid
  * 
  */
 public class JCalendar extends JDialog {
 
 	private static final long serialVersionUID = 1L;
 	
+	private static final int NAVIGATION_FRAME_MILLIS = 16;
+	private static final int YEARS_PER_DECADE = 10;
+	
+	private static final String DAY_VIEW = "days";
+	private static final String MONTH_VIEW = "months";
+	private static final String YEAR_VIEW = "years";
+	
+	private static volatile PickerMetrics defaultPickerMetrics = PickerMetrics.NONE;
+	
+	/** The month grids shared by every calendar view. */
+	static final MonthGridCache MONTH_GRID_CACHE = new MonthGridCache(64);
+	
 	private Color panelBackGroundColor;
 	private Color panelForegroundColor;
 	private Color dayHighlightColor;
 	
-	private DayOfWeek startDayOfWeek;
+	private CalendarModel calendarModel;
+	
+	private CalendarSpec configuredSpec;
+	
+	private DayAnnotationLoader annotationLoader;
 	
-	private DayOfWeek[] daysToExclude;
+	private DateValidationLoader validationLoader;
+	
+	private DayDataIndex dayDataIndex;
 	
 	private Font font;
 	
-	private JButton[] dayButton;
+	private boolean annotating;
+	private boolean navigationPending;
+	private boolean validating;
+	private boolean reusable;
+	private boolean startPending;
+	
+	private CardLayout viewLayout;
+	
+	private DayGridComponent dayGrid;
+	
+	private PeriodGridComponent monthView;
+	private PeriodGridComponent yearView;
+	
+	private DateSelectionModel dateSelectionModel;
+	
+	private JButton doneButton;
+	
+	private JButton[] titleButtons;
 	
 	private JLabel dateLabel;
 	
 	private JFrame frame;
 	
+	private JPopupMenu popupMenu;
+	
+	private Timer navigationTimer;
+	
+	private JPanel mainPanel;
+	private JPanel titlePanel;
+	private JPanel viewPanel;
+	
 	private LocalDate calendarDate;
-	private LocalDate earliestDate;
-	private LocalDate latestDate;
 	private LocalDate selectedDate;
 	
+	private CompletableFuture<LocalDate> selection;
+	
+	private String view;
+	
+	private int validationSequence;
+	private int validationSession;
+	
+	private long openNanos;
+	
+	private PickerEvents.OpenEvent openEvent;
+	
+	private PickerEvents.SelectionEvent selectionEvent;
+	
+	private PickerMetrics pickerMetrics;
+	
 	private String[] dayNames;
 	private String[] monthNames;
 
@@ -142,20 +262,113 @@ public class JCalendar extends JDialog {
 		
 		this.frame = frame;
 		this.calendarDate = calendarDate;
+		this.reusable = false;
+		
+		setDefaults();
 		
-		this.monthNames = new String[] { "January", "February", "March", 
-				"April", "May", "June", "July", "August",
-				"September", "October", "November", "December" };
-		this.dayNames = new String[] { "Sun", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat" };
-		this.startDayOfWeek = DayOfWeek.SUNDAY;
-		this.daysToExclude = new DayOfWeek[0];
-		this.panelBackGroundColor = Color.WHITE;
-		this.dayHighlightColor = Color.YELLOW;
-		this.panelForegroundColor = Color.BLUE;
-		this.font = getFont().deriveFont(Font.BOLD);
+		addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowClosing(WindowEvent event) {
+				cancelSelection();
+			}
+		});
+	}
+	
+	/**
+	 * This method readies a reusable <code>JCalendar</code> for its next
+	 * <code>start</code>. The optional parameters are set back to their
+	 * defaults.
+	 * 
+	 * @param calendarDate - The date for which a calendar of the month and year is
+	 *                     displayed.
+	 * @param title        - The title of the <code>JDialog</code>.
+	 */
+	void reset(LocalDate calendarDate, String title) {
+		if (selection != null) {
+			cancelSelection();
+		}
+		this.startPending = false;
+		this.calendarDate = calendarDate;
+		setTitle(title);
+		setDefaults();
+	}
+	
+	void setReusable(boolean reusable) {
+		this.reusable = reusable;
+	}
+	
+	/**
+	 * This method returns whether the <code>JCalendar</code> is showing, or
+	 * is about to show for a <code>startAsync</code> call, so a pool must not
+	 * reset it.
+	 * 
+	 * @return <code>true</code> if the <code>JCalendar</code> is in use.
+	 */
+	boolean isInUse() {
+		return startPending || isVisible() || isPopupVisible();
+	}
+	
+	private void setDefaults() {
+		if (!isVisible()) {
+			setModal(true);
+		}
+		this.annotating = false;
+		this.dayDataIndex = null;
+		this.validating = false;
+		if (dayGrid != null) {
+			dayGrid.clearAnnotations();
+		}
+		this.pickerMetrics = defaultPickerMetrics;
 		this.selectedDate = null;
-		this.earliestDate = null;
-		this.latestDate = null;
+		this.view = DAY_VIEW;
+		applySpec(CalendarSpec.getDefault());
+	}
+	
+	/**
+	 * This method sets every optional parameter at once, from an immutable
+	 * <code>CalendarSpec</code>. If the calendar date is outside the earliest
+	 * and latest dates of the spec, the nearest valid date is displayed.
+	 * 
+	 * <p>
+	 * A pooled <code>JCalendar</code> that's given the same spec as the last
+	 * time it opened doesn't reconfigure its components, so it keeps its
+	 * painted months.
+	 * </p>
+	 * 
+	 * @param spec - The optional parameters.
+	 */
+	public void applySpec(CalendarSpec spec) {
+		this.panelBackGroundColor = spec.getPanelBackGroundColor();
+		this.panelForegroundColor = spec.getPanelForegroundColor();
+		this.dayHighlightColor = spec.getDayHighlightColor();
+		this.font = (spec.getFont() == null) ? getFont().deriveFont(Font.BOLD)
+				: spec.getFont();
+		this.dayNames = spec.getDayNames();
+		this.monthNames = spec.getMonthNames();
+		this.calendarModel = spec.getCalendarModel();
+		this.calendarDate = calendarModel.clamp(calendarDate);
+		this.dateSelectionModel = new DateSelectionModel(spec.getSelectionMode());
+	}
+	
+	/**
+	 * This method returns the current optional parameters as an immutable
+	 * <code>CalendarSpec</code>, for example to open another
+	 * <code>JCalendar</code> or a <code>CalendarExporter</code> with the same
+	 * settings.
+	 * 
+	 * @return A spec of the optional parameters.
+	 */
+	public CalendarSpec getCalendarSpec() {
+		return CalendarSpec.builder()
+				.setPanelBackGroundColor(panelBackGroundColor)
+				.setPanelForegroundColor(panelForegroundColor)
+				.setDayHighlightColor(dayHighlightColor)
+				.setFont(font)
+				.setDayNames(calendarModel.getStartDayOfWeek(), dayNames)
+				.setMonthNames(monthNames)
+				.setCalendarModel(calendarModel)
+				.setSelectionMode(dateSelectionModel.getMode())
+				.build();
 	}
 	
 	/**
@@ -163,15 +376,268 @@ public class JCalendar extends JDialog {
 	 * <code>JDialog</code>.
 	 */
 	public void start() {
-		add(createMainPanel(calendarDate), BorderLayout.CENTER);
+		beginOpen();
+		prepareMainPanel();
+		if (mainPanel.getParent() != getContentPane()) {
+			add(mainPanel, BorderLayout.CENTER);
+			pack();
+		} else if (!getPreferredSize().equals(getSize())) {
+			pack();
+		}
 		
-		pack();
 		setLocationRelativeTo(frame);
 		setVisible(true);
 	}
 	
+	private void prepareMainPanel() {
+		if (mainPanel == null) {
+			mainPanel = createMainPanel(calendarDate);
+		} else {
+			updateConfiguration();
+		}
+	}
+	
+	/**
+	 * This method creates the <code>JCalendar</code> and displays the
+	 * <code>JDialog</code> later on the Event Dispatch Thread, and returns at
+	 * once. The returned future completes on the Event Dispatch Thread with the
+	 * selected date, or with <code>null</code> if the user cancels the
+	 * <code>JCalendar</code>.
+	 * 
+	 * <p>
+	 * Since the dialog is shown after the caller's <code>ActionListener</code>
+	 * returns, the caller doesn't block inside a nested event loop. The
+	 * dialog is modal; call <code>startAsync(false)</code> to show it without
+	 * any modal event loop at all.
+	 * </p>
+	 * 
+	 * <pre>
+	 * <code>
+	 *    calendar.startAsync().thenAccept(selectedDate -&gt; {
+	 *        if (selectedDate != null) {
+	 *            ...
+	 *        }
+	 *    });
+	 * </code>
+	 * </pre>
+	 * 
+	 * @return A future of the selected date.
+	 */
+	public CompletableFuture<LocalDate> startAsync() {
+		return startAsync(true);
+	}
+	
+	/**
+	 * This method displays the <code>JCalendar</code> like
+	 * <code>startAsync()</code>, modal or not. A pooled
+	 * <code>JCalendar</code> is modal again the next time the pool hands it
+	 * out. A future of an earlier start that's still pending completes with
+	 * <code>null</code>, as if the user had cancelled it.
+	 * 
+	 * @param modal - <code>false</code> to show the <code>JDialog</code>
+	 *              without blocking input to the other windows.
+	 * @return A future of the selected date.
+	 */
+	public CompletableFuture<LocalDate> startAsync(boolean modal) {
+		if (selection != null) {
+			cancelSelection();
+		}
+		final CompletableFuture<LocalDate> future = new CompletableFuture<>();
+		selection = future;
+		startPending = true;
+		if (!isVisible()) {
+			setModal(modal);
+		}
+		beginOpen();
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				if (selection == future && startPending) {
+					startPending = false;
+					start();
+				}
+			}
+		});
+		return future;
+	}
+	
+	/**
+	 * This method displays the <code>JCalendar</code> in a lightweight popup
+	 * below the invoker, usually the calendar <code>JButton</code>, instead of
+	 * in a <code>JDialog</code>. No native window is created as long as the
+	 * popup fits inside the invoker's window; otherwise Swing falls back to a
+	 * heavyweight popup window. The optional parameters are the same as for
+	 * <code>start</code>.
+	 * 
+	 * <p>
+	 * The returned future completes on the Event Dispatch Thread with the
+	 * selected date, or with <code>null</code> if the user clicks outside the
+	 * popup. A future of an earlier start that's still pending completes with
+	 * <code>null</code>.
+	 * </p>
+	 * 
+	 * @param invoker - The component the popup is anchored to.
+	 * @return A future of the selected date.
+	 */
+	public CompletableFuture<LocalDate> startPopup(Component invoker) {
+		if (selection != null) {
+			cancelSelection();
+		}
+		CompletableFuture<LocalDate> future = new CompletableFuture<>();
+		selection = future;
+		selectedDate = null;
+		
+		beginOpen();
+		prepareMainPanel();
+		if (popupMenu == null) {
+			popupMenu = createPopupMenu();
+		}
+		if (mainPanel.getParent() != popupMenu) {
+			popupMenu.add(mainPanel, BorderLayout.CENTER);
+		}
+		popupMenu.pack();
+		popupMenu.show(invoker, 0, invoker.getHeight());
+		return future;
+	}
+	
+	private JPopupMenu createPopupMenu() {
+		JPopupMenu popupMenu = new JPopupMenu();
+		popupMenu.setLayout(new BorderLayout());
+		popupMenu.addPopupMenuListener(new PopupMenuListener() {
+			@Override
+			public void popupMenuWillBecomeVisible(PopupMenuEvent event) {
+				
+			}
+
+			@Override
+			public void popupMenuWillBecomeInvisible(PopupMenuEvent event) {
+				
+			}
+
+			@Override
+			public void popupMenuCanceled(PopupMenuEvent event) {
+				cancelSelection();
+			}
+		});
+		return popupMenu;
+	}
+	
+	boolean isPopupVisible() {
+		return (popupMenu != null) && popupMenu.isVisible();
+	}
+	
+	private void cancelSelection() {
+		cancelValidation();
+		selectedDate = null;
+		dateSelectionModel.clear();
+		completeSelection();
+	}
+	
+	private void completeSelection() {
+		endSelection();
+		CompletableFuture<LocalDate> future = selection;
+		selection = null;
+		if (future != null) {
+			future.complete(selectedDate);
+		}
+	}
+	
+	/**
+	 * This method starts the open, selection and cancellation timings, unless
+	 * <code>startAsync</code> already started them.
+	 */
+	private void beginOpen() {
+		if (openNanos != 0L) {
+			return;
+		}
+		openNanos = System.nanoTime();
+		openEvent = new PickerEvents.OpenEvent();
+		openEvent.title = getTitle();
+		openEvent.begin();
+		selectionEvent = new PickerEvents.SelectionEvent();
+		selectionEvent.title = getTitle();
+		selectionEvent.begin();
+	}
+	
+	private void endOpen() {
+		if (openEvent == null) {
+			return;
+		}
+		openEvent.commit();
+		openEvent = null;
+		pickerMetrics.record(PickerMetrics.Metric.OPEN, 
+				System.nanoTime() - openNanos);
+	}
+	
+	private void endSelection() {
+		if (openNanos == 0L) {
+			return;
+		}
+		boolean cancelled = (selectedDate == null);
+		selectionEvent.cancelled = cancelled;
+		selectionEvent.commit();
+		selectionEvent = null;
+		openEvent = null;
+		pickerMetrics.record(cancelled ? PickerMetrics.Metric.CANCELLATION 
+				: PickerMetrics.Metric.SELECTION, System.nanoTime() - openNanos);
+		openNanos = 0L;
+	}
+	
+	private void updateConfiguration() {
+		CalendarSpec spec = getCalendarSpec();
+		if (!spec.equals(configuredSpec)) {
+			updateStyle();
+			configuredSpec = spec;
+		}
+		
+		dayGrid.setDateSelectionModel(dateSelectionModel);
+		configureDoneButton();
+		viewLayout.show(viewPanel, view);
+		updateCalendar(calendarDate);
+	}
+	
+	private void updateStyle() {
+		mainPanel.setBackground(panelBackGroundColor);
+		titlePanel.setBackground(panelBackGroundColor);
+		for (JButton button : titleButtons) {
+			button.setBackground(panelBackGroundColor);
+			button.setForeground(panelForegroundColor);
+			button.setFont(font);
+		}
+		dateLabel.setBackground(panelBackGroundColor);
+		dateLabel.setForeground(panelForegroundColor);
+		dateLabel.setFont(font);
+		
+		dayGrid.setPanelBackGroundColor(panelBackGroundColor);
+		dayGrid.setPanelForegroundColor(panelForegroundColor);
+		dayGrid.setDayHighlightColor(dayHighlightColor);
+		dayGrid.setFont(font);
+		dayGrid.setDayNames(dayNames);
+		configurePeriodGrid(monthView);
+		configurePeriodGrid(yearView);
+	}
+	
+	private void closeCalendar() {
+		if (isPopupVisible()) {
+			popupMenu.setVisible(false);
+		} else if (reusable) {
+			setVisible(false);
+		} else {
+			dispose();
+		}
+		completeSelection();
+	}
+	
 	private JPanel createMainPanel(LocalDate calendarDate) {
-		JPanel panel = new JPanel(new GridBagLayout());
+		JPanel panel = new JPanel(new GridBagLayout()) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public void paint(Graphics g) {
+				super.paint(g);
+				endOpen();
+			}
+		};
 		panel.setBackground(panelBackGroundColor);
 		
 		GridBagConstraints gbc = new GridBagConstraints();
@@ -184,14 +650,86 @@ public class JCalendar extends JDialog {
 		panel.add(createTitlePanel(calendarDate), gbc);
 		
 		gbc.gridy++;
-		panel.add(createCalendarPanel(calendarDate), gbc);
+		panel.add(createViewPanel(calendarDate), gbc);
 		
+		gbc.gridy++;
+		gbc.fill = GridBagConstraints.NONE;
+		gbc.anchor = GridBagConstraints.CENTER;
+		doneButton = new JButton("Done");
+		configureDoneButton();
+		panel.add(doneButton, gbc);
+		
+		doneButton.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent event) {
+				selectedDate = dateSelectionModel.getFirstSelectedDate();
+				closeCalendar();
+			}
+		});
+		
+		configuredSpec = getCalendarSpec();
 		return panel;
 	}
 	
+	/**
+	 * The Done button is only shown when several dates can be selected.
+	 */
+	private void configureDoneButton() {
+		doneButton.setBackground(panelBackGroundColor);
+		doneButton.setForeground(panelForegroundColor);
+		doneButton.setFont(font);
+		doneButton.setVisible(dateSelectionModel.getMode() 
+				!= DateSelectionModel.Mode.SINGLE);
+	}
+	
+	private JPanel createViewPanel(LocalDate calendarDate) {
+		viewLayout = new CardLayout();
+		viewPanel = new JPanel(viewLayout);
+		
+		monthView = new PeriodGridComponent(3, 4);
+		configurePeriodGrid(monthView);
+		monthView.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent event) {
+				int month = Integer.valueOf(event.getActionCommand()) + 1;
+				JCalendar.this.calendarDate = withYearMonth(getCalendarYear(),
+						month);
+				showView(DAY_VIEW);
+			}
+		});
+		
+		yearView = new PeriodGridComponent(5, 2);
+		configurePeriodGrid(yearView);
+		yearView.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent event) {
+				int year = getDecadeStart(getCalendarYear()) 
+						+ Integer.valueOf(event.getActionCommand());
+				JCalendar.this.calendarDate = withYearMonth(year, 
+						getCalendarMonth());
+				showView(MONTH_VIEW);
+			}
+		});
+		
+		viewPanel.add(createCalendarPanel(calendarDate), DAY_VIEW);
+		viewPanel.add(monthView, MONTH_VIEW);
+		viewPanel.add(yearView, YEAR_VIEW);
+		viewLayout.show(viewPanel, view);
+		
+		return viewPanel;
+	}
+	
+	private void configurePeriodGrid(PeriodGridComponent periodGrid) {
+		periodGrid.setPanelBackGroundColor(panelBackGroundColor);
+		periodGrid.setPanelForegroundColor(panelForegroundColor);
+		periodGrid.setHighlightColor(dayHighlightColor);
+		periodGrid.setFont(font);
+	}
+	
 	private JPanel createTitlePanel(LocalDate calendarDate) {
 		JPanel panel = new JPanel(new GridBagLayout());
 		panel.setBackground(panelBackGroundColor);
+		titlePanel = panel;
 		
 		GridBagConstraints gbc = new GridBagConstraints();
 		gbc.anchor = GridBagConstraints.LINE_START;
@@ -206,17 +744,7 @@ public class JCalendar extends JDialog {
 		previousYearButton.setFont(font);
 		panel.add(previousYearButton, gbc);
 		
-		previousYearButton.addActionListener(new ActionListener() {
-			@Override
-			public void actionPerformed(ActionEvent event) {
-				LocalDate tempDate = JCalendar.this.calendarDate.minusYears(1L);
-				if (earliestDate == null) {
-					updateCalendar(tempDate);
-				} else if (isAfter(earliestDate, tempDate)) {
-					updateCalendar(tempDate);
-				}
-			}
-		});
+		previousYearButton.addActionListener(new NavigationListener(-1L, true));
 		
 		gbc.gridx++;
 		JButton previousMonthButton = new JButton("<");
@@ -225,17 +753,7 @@ public class JCalendar extends JDialog {
 		previousMonthButton.setFont(font);
 		panel.add(previousMonthButton, gbc);
 		
-		previousMonthButton.addActionListener(new ActionListener() {
-			@Override
-			public void actionPerformed(ActionEvent event) {
-				LocalDate tempDate = JCalendar.this.calendarDate.minusMonths(1L);
-				if (earliestDate == null) {
-					updateCalendar(tempDate);
-				} else if (isAfter(earliestDate, tempDate)) {
-					updateCalendar(tempDate);
-				}
-			}
-		});
+		previousMonthButton.addActionListener(new NavigationListener(-1L, false));
 		
 		gbc.gridx++;
 		gbc.weightx = 1.0;
@@ -245,8 +763,20 @@ public class JCalendar extends JDialog {
 		dateLabel.setForeground(panelForegroundColor);
 		dateLabel.setFont(font);
 		dateLabel.setHorizontalAlignment(JLabel.CENTER);
+		dateLabel.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
 		panel.add(dateLabel, gbc);
 		
+		dateLabel.addMouseListener(new MouseAdapter() {
+			@Override
+			public void mouseClicked(MouseEvent event) {
+				if (DAY_VIEW.equals(view)) {
+					showView(MONTH_VIEW);
+				} else if (MONTH_VIEW.equals(view)) {
+					showView(YEAR_VIEW);
+				}
+			}
+		});
+		
 		gbc.gridx++;
 		gbc.weightx = 0.0;
 		JButton nextMonthButton = new JButton(">");
@@ -255,17 +785,7 @@ public class JCalendar extends JDialog {
 		nextMonthButton.setFont(font);
 		panel.add(nextMonthButton, gbc);
 		
-		nextMonthButton.addActionListener(new ActionListener() {
-			@Override
-			public void actionPerformed(ActionEvent event) {
-				LocalDate tempDate = JCalendar.this.calendarDate.plusMonths(1L);
-				if (latestDate == null) {
-					updateCalendar(tempDate);
-				} else if (isBefore(tempDate, latestDate)) {
-					updateCalendar(tempDate);
-				}
-			}
-		});
+		nextMonthButton.addActionListener(new NavigationListener(1L, false));
 		
 		gbc.gridx++;
 		JButton nextYearButton = new JButton(">>");
@@ -274,128 +794,360 @@ public class JCalendar extends JDialog {
 		nextYearButton.setFont(font);
 		panel.add(nextYearButton, gbc);
 		
-		nextYearButton.addActionListener(new ActionListener() {
-			@Override
-			public void actionPerformed(ActionEvent event) {
-				LocalDate tempDate = JCalendar.this.calendarDate.plusYears(1L);
-				if (latestDate == null) {
-					updateCalendar(tempDate);
-				} else if (isBefore(tempDate, latestDate)) {
-					updateCalendar(tempDate);
-				}
-			}
-		});
+		nextYearButton.addActionListener(new NavigationListener(1L, true));
+		
+		titleButtons = new JButton[] { previousYearButton, 
+				previousMonthButton, nextMonthButton, nextYearButton };
 		
 		return panel;
 	}
 	
-	private boolean isAfter(LocalDate earliestDate, LocalDate calendarDate) {
-		int earliestMonth = earliestDate.getMonthValue();
-		int earliestYear = earliestDate.getYear();
-		LocalDate testDate = LocalDate.of(earliestYear, earliestMonth, 1);
-		return !testDate.isAfter(calendarDate);
+	private void navigate(long direction, boolean large) {
+		if (!DAY_VIEW.equals(view)) {
+			LocalDate tempDate = calendarModel.clamp(plusMonths(calendarDate,
+					direction * getNavigationMonths(large)));
+			if (!tempDate.equals(calendarDate)) {
+				calendarDate = tempDate;
+				requestCalendarUpdate();
+			}
+			return;
+		}
+		
+		LocalDate tempDate = plusMonths(calendarDate, direction 
+				* getNavigationMonths(large));
+		if (calendarModel.isMonthInBounds(tempDate)) {
+			calendarDate = tempDate;
+			requestCalendarUpdate();
+		}
 	}
 	
-	private boolean isBefore(LocalDate calendarDate, LocalDate latestDate) {
-		int latestMonth = latestDate.getMonthValue();
-		int latestYear = latestDate.getYear();
-		LocalDate testDate = LocalDate.of(latestYear, latestMonth, 1);
-		testDate = testDate.plusMonths(1L);
-		return !testDate.isBefore(calendarDate);
+	/**
+	 * The navigation buttons step by a month and a year in the day view, by a
+	 * year and a decade in the month view, and by a decade and a century in
+	 * the year view.
+	 */
+	private long getNavigationMonths(boolean large) {
+		if (MONTH_VIEW.equals(view)) {
+			return large ? 12L * YEARS_PER_DECADE : 12L;
+		} else if (YEAR_VIEW.equals(view)) {
+			return large ? 1200L : 12L * YEARS_PER_DECADE;
+		} else {
+			return large ? 12L : 1L;
+		}
 	}
 	
-	private void updateCalendar(LocalDate tempDate) {
-		calendarDate = tempDate;
-		updateTitleDate(calendarDate);
-		updateCalendarDays(calendarDate);
+	private void showView(String view) {
+		this.view = view;
+		viewLayout.show(viewPanel, view);
+		updateCalendar(calendarDate);
+		if (DAY_VIEW.equals(view)) {
+			dayGrid.requestFocusInWindow();
+		} else if (MONTH_VIEW.equals(view)) {
+			monthView.requestFocusInWindow();
+		} else {
+			yearView.requestFocusInWindow();
+		}
 	}
 	
-	private JPanel createCalendarPanel(LocalDate calendarDate) {
-		JPanel panel = new JPanel(new GridLayout(0, 7));
-		panel.setBackground(panelBackGroundColor);
-		
-		for (int index = 0; index < dayNames.length; index++) {
-			JLabel label = new JLabel(dayNames[index]);
-			label.setBackground(panelBackGroundColor);
-			label.setForeground(panelForegroundColor);
-			label.setFont(font);
-			label.setHorizontalAlignment(JLabel.CENTER);
-			panel.add(label);
-		}
-		
-		dayButton = new JButton[42];
-		for (int index = 0; index < dayButton.length; index++) {
-			dayButton[index] = new JButton();
-			dayButton[index].setFont(font);
-			panel.add(dayButton[index]);
-			
-			dayButton[index].addActionListener(new ActionListener() {
+	/**
+	 * The first navigation updates the calendar at once. Navigations that
+	 * arrive within the next frame only move the calendar date, and the
+	 * calendar is updated once, to the last month, when the frame ends.
+	 */
+	private void requestCalendarUpdate() {
+		if (navigationTimer == null) {
+			navigationTimer = new Timer(NAVIGATION_FRAME_MILLIS, new ActionListener() {
 				@Override
 				public void actionPerformed(ActionEvent event) {
-					JButton button = (JButton) event.getSource();
-					int dayOfMonth = Integer.valueOf(button.getText());
-					JCalendar.this.selectedDate = LocalDate.of(
-							JCalendar.this.calendarDate.getYear(), 
-							JCalendar.this.calendarDate.getMonth(), dayOfMonth);
-					JCalendar.this.dispose();
+					if (navigationPending) {
+						navigationPending = false;
+						updateCalendar(calendarDate);
+						navigationTimer.restart();
+					}
 				}
 			});
+			navigationTimer.setRepeats(false);
 		}
 		
-		updateCalendarDays(calendarDate);
+		if (navigationTimer.isRunning()) {
+			navigationPending = true;
+		} else {
+			updateCalendar(calendarDate);
+			navigationTimer.start();
+		}
+	}
+	
+	private void updateCalendar(LocalDate tempDate) {
+		long startNanos = System.nanoTime();
+		PickerEvents.NavigationEvent event = new PickerEvents.NavigationEvent();
+		event.begin();
 		
-		return panel;
+		calendarDate = tempDate;
+		updateTitleDate(calendarDate);
+		if (DAY_VIEW.equals(view)) {
+			updateCalendarDays(calendarDate);
+		} else if (MONTH_VIEW.equals(view)) {
+			updateMonthView(calendarDate);
+		} else {
+			updateYearView(calendarDate);
+		}
+		
+		if (event.shouldCommit()) {
+			event.view = view;
+			event.date = calendarDate.toString();
+			event.commit();
+		}
+		pickerMetrics.record(PickerMetrics.Metric.NAVIGATION, 
+				System.nanoTime() - startNanos);
 	}
 	
-	private void updateTitleDate(LocalDate calendarDate) {
-		int month = calendarDate.getMonthValue() - 1;
-		int year = calendarDate.getYear();
-		String dateString = monthNames[month] + " " + year;
-		dateLabel.setText(dateString);
+	private DayGridComponent createCalendarPanel(LocalDate calendarDate) {
+		dayGrid = new DayGridComponent(dayNames);
+		dayGrid.setPanelBackGroundColor(panelBackGroundColor);
+		dayGrid.setPanelForegroundColor(panelForegroundColor);
+		dayGrid.setDayHighlightColor(dayHighlightColor);
+		dayGrid.setFont(font);
+		dayGrid.setDateSelectionModel(dateSelectionModel);
+		
+		dayGrid.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent event) {
+				int dayOfMonth = Integer.valueOf(event.getActionCommand());
+				MonthGrid monthGrid = dayGrid.getMonthGrid();
+				int epochDay = monthGrid.getFirstEpochDay() + dayOfMonth - 1;
+				if (validating) {
+					validateDay(epochDay);
+				} else {
+					selectDay(epochDay);
+				}
+			}
+		});
+		
+		updateCalendarDays(calendarDate);
+		
+		return dayGrid;
 	}
 	
-	private void updateCalendarDays(LocalDate calendarDate) {
-		LocalDate startDate = LocalDate.of(calendarDate.getYear(), calendarDate.getMonth(), 1);
-		int dayOfWeek = startDayOfWeek.getValue() - 1;
-		long daysToSubtract = (long) startDate.getDayOfWeek().getValue();
-		if (dayOfWeek <= daysToSubtract) {
-			startDate = startDate.minusDays(daysToSubtract - dayOfWeek - 1);
+	private void selectDay(int epochDay) {
+		dateSelectionModel.select(epochDay, getSelectableDays());
+		if (dateSelectionModel.getMode() == DateSelectionModel.Mode.SINGLE) {
+			selectedDate = LocalDate.ofEpochDay(epochDay);
+			closeCalendar();
 		} else {
-			startDate = startDate.minusDays(daysToSubtract - dayOfWeek + 6);
+			dayGrid.repaint();
+		}
+	}
+	
+	/**
+	 * This method asks the <code>DateValidator</code> about a clicked day, and
+	 * selects it if it's valid. The day is marked as pending until the verdict
+	 * arrives. In the <code>SINGLE</code> mode, only the verdict of the last
+	 * click is used. In the other modes, every pending day gets its verdict,
+	 * and a selected day is toggled off without asking. The second click of a
+	 * range validates the whole range with one call. A day whose call is
+	 * cancelled, because it was paged out of view before the call started, is
+	 * neither selected nor rejected.
+	 */
+	private void validateDay(final int epochDay) {
+		final boolean single = 
+				dateSelectionModel.getMode() == DateSelectionModel.Mode.SINGLE;
+		if (!single) {
+			if (dayGrid.isPendingEpochDay(epochDay)) {
+				return;
+			}
+			if (dateSelectionModel.getMode() == DateSelectionModel.Mode.MULTIPLE
+					&& dateSelectionModel.isSelected(epochDay)) {
+				selectDay(epochDay);
+				return;
+			}
+			int anchorEpochDay = dateSelectionModel.getAnchorEpochDay();
+			if (anchorEpochDay != DateSelectionModel.NO_DATE) {
+				new RangeValidation(anchorEpochDay, epochDay).start();
+				return;
+			}
 		}
 		
-		for (int index = 0; index < dayButton.length; index++) {
-			dayButton[index].setBackground(panelBackGroundColor);
-			dayButton[index].setForeground(panelForegroundColor);
-			dayButton[index].setEnabled(false);
-			dayButton[index].setText(" ");
-			if ((earliestDate != null) && startDate.isBefore(earliestDate)) {
-
-			} else if ((latestDate != null) && startDate.isAfter(latestDate)) {
-
-			} else if (startDate.getYear() == calendarDate.getYear() 
-					&& startDate.getMonth().equals(calendarDate.getMonth())) {
-				int day = startDate.getDayOfMonth();
-				dayButton[index].setText(Integer.toString(day));
-				if (isIncludedDay(startDate)) {
-					dayButton[index].setEnabled(true);
+		final int session = validationSession;
+		final int sequence = ++validationSequence;
+		if (single) {
+			dayGrid.clearPendingEpochDays();
+		}
+		if (!validationLoader.isCached(epochDay)) {
+			dayGrid.addPendingEpochDay(epochDay);
+		}
+		validationLoader.validate(epochDay, new Consumer<Boolean>() {
+			@Override
+			public void accept(Boolean valid) {
+				if (session != validationSession 
+						|| (single && sequence != validationSequence)) {
+					return;
 				}
-				if (startDate.getDayOfMonth() == calendarDate.getDayOfMonth()) {
-					dayButton[index].setBackground(dayHighlightColor);
+				dayGrid.removePendingEpochDay(epochDay);
+				if (valid == null) {
+					return;
+				} else if (valid) {
+					selectDay(epochDay);
+				} else {
+					Toolkit.getDefaultToolkit().beep();
 				}
 			}
-			startDate = startDate.plusDays(1L);
+		});
+	}
+	
+	private void cancelValidation() {
+		validationSession++;
+		if (dayGrid != null) {
+			dayGrid.clearPendingEpochDays();
 		}
 	}
 	
-	private boolean isIncludedDay(LocalDate startDate) {
-		DayOfWeek startDay = startDate.getDayOfWeek();
-		for (DayOfWeek day : daysToExclude) {
-			if (startDay.equals(day)) {
-				return false;
+	private void updateTitleDate(LocalDate calendarDate) {
+		int epochDay = (int) calendarDate.toEpochDay();
+		int month = calendarModel.getMonth(epochDay) - 1;
+		int year = calendarModel.getYear(epochDay);
+		String dateString;
+		if (MONTH_VIEW.equals(view)) {
+			dateString = getYearText(epochDay, year);
+		} else if (YEAR_VIEW.equals(view)) {
+			int decadeStart = getDecadeStart(year);
+			dateString = decadeStart + " - " + (decadeStart + YEARS_PER_DECADE - 1);
+		} else {
+			dateString = monthNames[month] + " " + getYearText(epochDay, year);
+		}
+		dateLabel.setText(dateString);
+	}
+	
+	/**
+	 * The year of a non-ISO chronology is shown with its era, like "AH 1442"
+	 * or "Reiwa 3".
+	 */
+	private String getYearText(int epochDay, int year) {
+		ChronologyTable table = calendarModel.getChronologyTable();
+		if (table == null) {
+			return Integer.toString(year);
+		}
+		return table.getYearText(table.getMonthIndex(epochDay), Locale.US);
+	}
+	
+	private int getCalendarYear() {
+		return calendarModel.getYear((int) calendarDate.toEpochDay());
+	}
+	
+	private int getCalendarMonth() {
+		return calendarModel.getMonth((int) calendarDate.toEpochDay());
+	}
+	
+	private LocalDate plusMonths(LocalDate date, long months) {
+		return LocalDate.ofEpochDay(calendarModel.plusMonths(
+				(int) date.toEpochDay(), months));
+	}
+	
+	private LocalDate withYearMonth(int year, int month) {
+		return calendarModel.clamp(LocalDate.ofEpochDay(calendarModel
+				.withYearMonth((int) calendarDate.toEpochDay(), year, month)));
+	}
+	
+	/**
+	 * This method fills the month view with the 12 months of the year. Only
+	 * the months inside the earliest and latest dates can be selected. No
+	 * month grids are built until the user selects a month.
+	 */
+	private void updateMonthView(LocalDate calendarDate) {
+		int epochDay = (int) calendarDate.toEpochDay();
+		int year = calendarModel.getYear(epochDay);
+		int monthsInYear = calendarModel.getMonthsInYear(year);
+		int enabledMask = 0;
+		for (int month = 1; month <= monthsInYear; month++) {
+			if (calendarModel.isMonthInBounds(year, month)) {
+				enabledMask |= 1 << (month - 1);
+			}
+		}
+		monthView.setCells(monthNames, enabledMask, 
+				calendarModel.getMonth(epochDay) - 1);
+	}
+	
+	/**
+	 * This method fills the year view with the 10 years of the decade. Only
+	 * the years inside the earliest and latest dates can be selected.
+	 */
+	private void updateYearView(LocalDate calendarDate) {
+		int calendarYear = calendarModel.getYear((int) calendarDate.toEpochDay());
+		int decadeStart = getDecadeStart(calendarYear);
+		String[] years = new String[YEARS_PER_DECADE];
+		int enabledMask = 0;
+		for (int index = 0; index < YEARS_PER_DECADE; index++) {
+			int year = decadeStart + index;
+			years[index] = Integer.toString(year);
+			if (calendarModel.isYearInBounds(year)) {
+				enabledMask |= 1 << index;
 			}
 		}
-		return true;
+		yearView.setCells(years, enabledMask, calendarYear - decadeStart);
+	}
+	
+	private static int getDecadeStart(int year) {
+		return Math.floorDiv(year, YEARS_PER_DECADE) * YEARS_PER_DECADE;
+	}
+	
+	private void updateCalendarDays(LocalDate calendarDate) {
+		MonthGrid monthGrid = getMonthGrid(calendarDate);
+		
+		dayGrid.setMonthGrid(monthGrid);
+		dayGrid.prerender(getMonthGrid(plusMonths(calendarDate, -1L)),
+				getMonthGrid(plusMonths(calendarDate, 1L)));
+		
+		if (validationLoader != null) {
+			int firstEpochDay = monthGrid.getFirstEpochDay();
+			validationLoader.cancelWaitingCalls(firstEpochDay,
+					firstEpochDay + monthGrid.getMonthLength() - 1);
+		}
+		
+		if (annotating && calendarModel.getChronologyTable() == null) {
+			final DayAnnotationLoader loader = annotationLoader;
+			final int year = monthGrid.getYear();
+			final int month = monthGrid.getMonth();
+			loader.load(year, month, new Consumer<String[]>() {
+				@Override
+				public void accept(String[] annotations) {
+					// A result for a provider that's been replaced or turned
+					// off since the load started is dropped.
+					if (annotating && annotationLoader == loader) {
+						dayGrid.setAnnotations(year, month, annotations);
+					}
+				}
+			});
+		}
+	}
+	
+	private MonthGrid getMonthGrid(LocalDate calendarDate) {
+		int epochDay = (int) calendarDate.toEpochDay();
+		MonthGrid monthGrid = MONTH_GRID_CACHE.getMonthGrid(calendarModel, 
+				calendarModel.getYear(epochDay), calendarModel.getMonth(epochDay), 
+				calendarModel.getDayOfMonth(epochDay));
+		if (dayDataIndex != null) {
+			monthGrid = MONTH_GRID_CACHE.getMonthGrid(monthGrid, 
+					dayDataIndex.getClosedMask(monthGrid));
+		}
+		return monthGrid;
+	}
+	
+	/**
+	 * This method returns the days a range selection may include: the
+	 * selectable days of the calendar model that aren't closed in the day
+	 * data index.
+	 */
+	private IntPredicate getSelectableDays() {
+		if (dayDataIndex == null) {
+			return calendarModel;
+		}
+		final DayDataIndex index = dayDataIndex;
+		final CalendarModel model = calendarModel;
+		return new IntPredicate() {
+			@Override
+			public boolean test(int epochDay) {
+				return model.test(epochDay) && !index.isClosed(epochDay);
+			}
+		};
 	}
 
 	/**
@@ -408,6 +1160,45 @@ public class JCalendar extends JDialog {
 		return selectedDate;
 	}
 
+	/**
+	 * This method returns the calendar settings: the start day of the week,
+	 * the excluded days and the earliest and latest dates. The same immutable
+	 * model can be used off the Event Dispatch Thread, for example to compute
+	 * the same month grids on a server.
+	 * 
+	 * @return The calendar model.
+	 */
+	public CalendarModel getCalendarModel() {
+		return calendarModel;
+	}
+	
+	/**
+	 * This method returns the selected dates. In the <code>SINGLE</code>
+	 * selection mode, it holds the selected date. The model is emptied when
+	 * the <code>JCalendar</code> is cancelled.
+	 * 
+	 * @return The model of the selected dates.
+	 */
+	public DateSelectionModel getDateSelectionModel() {
+		return dateSelectionModel;
+	}
+
+	
+	/**
+	 * This method sets the selection mode. In the <code>MULTIPLE</code> mode,
+	 * each click toggles a date. In the <code>RANGE</code> mode, the first
+	 * click selects the start of the range and the second click the range,
+	 * skipping the days that can't be selected. In both modes, the user
+	 * closes the <code>JCalendar</code> with a Done button. The default is
+	 * <code>SINGLE</code>, where a click selects the date and closes the
+	 * <code>JCalendar</code>.
+	 * 
+	 * @param mode - The selection mode.
+	 */
+	public void setSelectionMode(DateSelectionModel.Mode mode) {
+		this.dateSelectionModel = new DateSelectionModel(mode);
+	}
+
 	/**
 	 * This method sets the font.
 	 * 
@@ -425,7 +1216,115 @@ public class JCalendar extends JDialog {
 	 *                      from selection.
 	 */
 	public void setDaysToExclude(DayOfWeek... daysToExclude) {
-		this.daysToExclude = daysToExclude;
+		this.calendarModel = calendarModel.toBuilder()
+				.setDaysToExclude(daysToExclude).build();
+	}
+
+	/**
+	 * This method sets the holidays, blackout ranges and recurring holidays to
+	 * exclude from selection. These rules are in addition to the days set by
+	 * <code>setDaysToExclude</code>.
+	 * 
+	 * @param holidayCalendar - The rules to exclude from selection, or
+	 *                        <code>null</code> for none.
+	 */
+	public void setHolidayCalendar(HolidayCalendar holidayCalendar) {
+		this.calendarModel = calendarModel.toBuilder()
+				.setHolidayCalendar(holidayCalendar).build();
+	}
+
+	/**
+	 * This method sets the source of the per-day badges painted in the day
+	 * cells. The provider is called off the Event Dispatch Thread, once per
+	 * month, and the months before and after the displayed month are loaded
+	 * ahead of time. The loaded months are cached, and kept while a pooled
+	 * <code>JCalendar</code> is given the same provider again.
+	 * 
+	 * @param provider - The source of the day annotations, or <code>null</code>
+	 *                 for no badges.
+	 */
+	public void setDayAnnotationProvider(DayAnnotationProvider provider) {
+		this.annotating = (provider != null);
+		if (provider == null) {
+			if (dayGrid != null) {
+				dayGrid.clearAnnotations();
+			}
+			return;
+		}
+		if (annotationLoader == null 
+				|| annotationLoader.getProvider() != provider) {
+			if (dayGrid != null) {
+				dayGrid.clearAnnotations();
+			}
+			annotationLoader = new DayAnnotationLoader(provider);
+		}
+	}
+
+	/**
+	 * This method sets a memory-mapped file of per-day data. The closed days
+	 * of the file can't be selected, and the count of each day is shown as
+	 * its badge. The closed days are read from the file each time a month is
+	 * displayed, so days written while the <code>JCalendar</code> is open are
+	 * closed the next time their month is displayed. The badges are loaded
+	 * and cached like those of a <code>DayAnnotationProvider</code>.
+	 * 
+	 * @param dayDataIndex - The day data, or <code>null</code> for none.
+	 */
+	public void setDayDataIndex(DayDataIndex dayDataIndex) {
+		this.dayDataIndex = dayDataIndex;
+		setDayAnnotationProvider(dayDataIndex);
+	}
+	
+	/**
+	 * This method sets a check of each selected date against rules the
+	 * calendar can't know, like a backend's cut-off times. The validator runs
+	 * off the Event Dispatch Thread, and the clicked day, or every selectable
+	 * day of a clicked range, is marked as pending until its verdict arrives.
+	 * A range is validated with one call of the validator's
+	 * <code>areValid</code> method. Verdicts are cached per date, and kept
+	 * while a pooled <code>JCalendar</code> is given the same validator again.
+	 * A date whose verdict doesn't arrive within the timeout of its click is
+	 * rejected, and its validator call is interrupted. The calls for the days
+	 * paged out of view that haven't started yet are cancelled.
+	 * 
+	 * @param validator     - The date validator, or <code>null</code> for
+	 *                      none.
+	 * @param timeoutMillis - The longest time a date may wait for its verdict,
+	 *                      in milliseconds.
+	 */
+	public void setDateValidator(DateValidator validator, int timeoutMillis) {
+		this.validating = (validator != null);
+		if (validator == null) {
+			return;
+		}
+		if (validationLoader == null 
+				|| validationLoader.getValidator() != validator) {
+			validationLoader = new DateValidationLoader(validator, timeoutMillis);
+		} else {
+			validationLoader.setTimeoutMillis(timeoutMillis);
+		}
+	}
+
+	/**
+	 * This method sets the metrics that receive the open, navigation,
+	 * selection and cancellation latencies of this <code>JCalendar</code>. The
+	 * same latencies are recorded as JDK Flight Recorder events in the
+	 * <code>JCalendar</code> category.
+	 * 
+	 * @param pickerMetrics - The metrics.
+	 */
+	public void setPickerMetrics(PickerMetrics pickerMetrics) {
+		this.pickerMetrics = pickerMetrics;
+	}
+	
+	/**
+	 * This method sets the metrics of every <code>JCalendar</code> that's
+	 * created or reset afterwards. The default is <code>PickerMetrics.NONE</code>.
+	 * 
+	 * @param pickerMetrics - The metrics.
+	 */
+	public static void setDefaultPickerMetrics(PickerMetrics pickerMetrics) {
+		defaultPickerMetrics = pickerMetrics;
 	}
 
 	/**
@@ -466,8 +1365,9 @@ public class JCalendar extends JDialog {
 	 * @param dayNames       - String array of three character weekday names.
 	 */
 	public void setDayNames(DayOfWeek startDayOfWeek, String[] dayNames) {
-		this.startDayOfWeek = startDayOfWeek;
 		if (dayNames.length == 7) {
+			this.calendarModel = calendarModel.toBuilder()
+					.setStartDayOfWeek(startDayOfWeek).build();
 			this.dayNames = dayNames;
 		} else {
 			String text = "There must be 7 three letter day names.  You have "
@@ -492,6 +1392,22 @@ public class JCalendar extends JDialog {
 		}
 	}
 
+	/**
+	 * This method sets the chronology of the years and months, like
+	 * <code>HijrahChronology.INSTANCE</code>, and replaces the month names
+	 * with the chronology's English month names. Call
+	 * <code>setMonthNames</code> afterwards for other names. The selected
+	 * date is still a <code>LocalDate</code>.
+	 * 
+	 * @param chronology - The chronology, or <code>null</code> for ISO.
+	 */
+	public void setChronology(Chronology chronology) {
+		this.calendarModel = calendarModel.toBuilder()
+				.setChronology(chronology).build();
+		this.monthNames = CalendarSpec.getDefaultMonthNames(chronology);
+		this.calendarDate = calendarModel.clamp(calendarDate);
+	}
+
 	/**
 	 * This method sets the earliest date that the <code>JCalendar</code> will show.
 	 * Useful for time sensitive dates like transaction dates.
@@ -502,7 +1418,8 @@ public class JCalendar extends JDialog {
 	 */
 	public void setEarliestDate(LocalDate earliestDate) {
 		if (earliestDate.isBefore(calendarDate) || earliestDate.isEqual(calendarDate)) {
-			this.earliestDate = earliestDate;
+			this.calendarModel = calendarModel.toBuilder()
+					.setEarliestDate(earliestDate).build();
 		} else {
 			String text = "Earliest date " + earliestDate + " must come "
 					+ "before the calendar date " + calendarDate;
@@ -519,7 +1436,8 @@ public class JCalendar extends JDialog {
 	 */
 	public void setLatestDate(LocalDate latestDate) {
 		if (latestDate.isAfter(calendarDate) || latestDate.isEqual(calendarDate)) {
-			this.latestDate = latestDate;
+			this.calendarModel = calendarModel.toBuilder()
+					.setLatestDate(latestDate).build();
 		} else {
 			String text = "Latest date " + latestDate + " must come "
 					+ "after the calendar date " + calendarDate;
@@ -527,4 +1445,94 @@ public class JCalendar extends JDialog {
 		}
 	}
 	
+	/**
+	 * <code>RangeValidation</code> validates a range with one validator call,
+	 * and selects the valid selectable days once the verdicts arrive. If the
+	 * second clicked day is rejected, the range isn't selected and the first
+	 * click is kept. A range whose call is cancelled by paging isn't selected.
+	 * Only the last range validation is used.
+	 */
+	private class RangeValidation {
+		
+		private final IntPredicate selectableDays;
+		
+		private final int clickedEpochDay;
+		private final int firstEpochDay;
+		private final int lastEpochDay;
+		private final int sequence;
+		private final int session;
+		
+		public RangeValidation(int anchorEpochDay, int clickedEpochDay) {
+			this.clickedEpochDay = clickedEpochDay;
+			this.firstEpochDay = Math.min(anchorEpochDay, clickedEpochDay);
+			this.lastEpochDay = Math.max(anchorEpochDay, clickedEpochDay);
+			this.selectableDays = getSelectableDays();
+			this.session = validationSession;
+			this.sequence = ++validationSequence;
+		}
+		
+		public void start() {
+			dayGrid.clearPendingEpochDays();
+			dayGrid.addPendingEpochDays(firstEpochDay, lastEpochDay, 
+					selectableDays);
+			validationLoader.validateRange(firstEpochDay, lastEpochDay, 
+					new Consumer<boolean[]>() {
+						@Override
+						public void accept(boolean[] verdicts) {
+							if (isCurrent()) {
+								dayGrid.clearPendingEpochDays();
+								if (verdicts != null) {
+									select(verdicts);
+								}
+							}
+						}
+					});
+		}
+		
+		private boolean isCurrent() {
+			return session == validationSession 
+					&& sequence == validationSequence;
+		}
+		
+		private void select(final boolean[] verdicts) {
+			for (int epochDay = firstEpochDay; epochDay <= lastEpochDay; 
+					epochDay++) {
+				if (selectableDays.test(epochDay) 
+						&& !verdicts[epochDay - firstEpochDay]) {
+					Toolkit.getDefaultToolkit().beep();
+					break;
+				}
+			}
+			if (verdicts[clickedEpochDay - firstEpochDay]) {
+				dateSelectionModel.select(clickedEpochDay, new IntPredicate() {
+					@Override
+					public boolean test(int epochDay) {
+						return selectableDays.test(epochDay) 
+								&& verdicts[epochDay - firstEpochDay];
+					}
+				});
+				dayGrid.repaint();
+			}
+		}
+		
+	}
+	
+	private class NavigationListener implements ActionListener {
+		
+		private final boolean large;
+		
+		private final long direction;
+		
+		public NavigationListener(long direction, boolean large) {
+			this.direction = direction;
+			this.large = large;
+		}
+
+		@Override
+		public void actionPerformed(ActionEvent event) {
+			navigate(direction, large);
+		}
+		
+	}
+	
 }
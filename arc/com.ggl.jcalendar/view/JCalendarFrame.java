@@ -11,7 +11,8 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.function.Consumer;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
@@ -19,16 +20,53 @@ import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JTextField;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+import com.ggl.jcalendar.model.DateTextService;
 
 public class JCalendarFrame {
 	
+	private static final String DATE_FIELD_PATTERN = "M/d/yy";
+	private static final String DATE_LABEL_PATTERN = "EEEE, MMMM d, yyyy";
+	
+	private final DateTextService dateTextService;
+	
 	private final JFrame frame;
 	
+	private final JCalendarPool calendarPool;
+	
+	private CalendarSpec birthDateSpec;
+	private CalendarSpec subscriptionDateSpec;
+	private CalendarSpec transactionDateSpec;
+	
+	private LocalDate specDate;
+	
 	private DateButtonField birthDateButtonField;
 	private DateButtonField subscriptionDateButtonField;
 	private DateButtonField transactionDateButtonField;
 	
 	public JCalendarFrame() {
+		calendarPool = new JCalendarPool();
+		dateTextService = DateTextService.getInstance(
+				Locale.getDefault(Locale.Category.FORMAT));
+		
+		birthDateSpec = CalendarSpec.builder()
+				.setPanelBackGroundColor(new Color(0xA52A2A))
+				.setPanelForegroundColor(new Color(0xC0C0C0))
+				.setDayHighlightColor(new Color(0x808000))
+				.setFont(new Font(Font.DIALOG, Font.BOLD, 24))
+				.build();
+		subscriptionDateSpec = CalendarSpec.builder()
+				.setPanelBackGroundColor(Color.BLACK)
+				.setPanelForegroundColor(Color.WHITE)
+				.setDayHighlightColor(Color.RED)
+				.build();
+		transactionDateSpec = CalendarSpec.builder()
+				.setDaysToExclude(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY)
+				.build();
+		updateSpecs();
+		
 		frame = new JFrame("JCalendar Test GUI");
 		frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 		
@@ -57,28 +95,22 @@ public class JCalendarFrame {
 		LocalDate birthDate = LocalDate.now().minusYears(21L);
 		
 		birthDateButtonField = new DateButtonField(panel, gbc,
-				"Birth Date:", birthDate);
+				"Birth Date:", birthDate, birthDateSpec);
 		panel = birthDateButtonField.getPanel();
 		birthDateButtonField.getCalendarButton()
 				.addActionListener(new BirthDateListener());
 		
 		subscriptionDateButtonField = new DateButtonField(panel, gbc,
-				"Subscription Date:", currentDate);
+				"Subscription Date:", currentDate, subscriptionDateSpec);
 		panel = subscriptionDateButtonField.getPanel();
-		String df = updateDateField(currentDate);
-		String dl = updateDateLabel(currentDate);
-		subscriptionDateButtonField.getDateField().setText(df);
-		subscriptionDateButtonField.getDateLabel().setText(dl);
+		subscriptionDateButtonField.setDate(currentDate);
 		subscriptionDateButtonField.getCalendarButton()
 				.addActionListener(new SubscriptionDateListener());
 		
 		transactionDateButtonField = new DateButtonField(panel, gbc,
-				"Transaction Date:", currentDate);
+				"Transaction Date:", currentDate, transactionDateSpec);
 		panel = transactionDateButtonField.getPanel();
-		df = updateDateField(currentDate);
-		dl = updateDateLabel(currentDate);
-		transactionDateButtonField.getDateField().setText(df);
-		transactionDateButtonField.getDateLabel().setText(dl);
+		transactionDateButtonField.setDate(currentDate);
 		transactionDateButtonField.getCalendarButton()
 				.addActionListener(new TransactionDateListener());
 		
@@ -88,20 +120,53 @@ public class JCalendarFrame {
 		return panel;
 	}
 	
+	/**
+	 * This method sets the date limits of the calendar specs from today's
+	 * date. The specs are built again only when the date has changed since
+	 * they were last built, so a frame left open past midnight keeps its
+	 * limits current.
+	 */
+	private void updateSpecs() {
+		LocalDate today = LocalDate.now();
+		if (today.equals(specDate)) {
+			return;
+		}
+		
+		specDate = today;
+		birthDateSpec = birthDateSpec.toBuilder()
+				.setLatestDate(today.minusYears(21L))
+				.build();
+		subscriptionDateSpec = subscriptionDateSpec.toBuilder()
+				.setEarliestDate(today)
+				.setLatestDate(today.plusYears(1L))
+				.build();
+		transactionDateSpec = transactionDateSpec.toBuilder()
+				.setEarliestDate(today.minusMonths(3L))
+				.setLatestDate(today.plusMonths(1L))
+				.build();
+		
+		if (birthDateButtonField != null) {
+			birthDateButtonField.setSpec(birthDateSpec);
+			subscriptionDateButtonField.setSpec(subscriptionDateSpec);
+			transactionDateButtonField.setSpec(transactionDateSpec);
+		}
+	}
+	
+	public JFrame getFrame() {
+		return frame;
+	}
+	
+	public DateButtonField getSubscriptionDateButtonField() {
+		return subscriptionDateButtonField;
+	}
+	
 	public String updateDateField(LocalDate date) {
-		DateTimeFormatter formatter = DateTimeFormatter.ofPattern("M/d/yy");
-		String dateString = date.format(formatter);
-		return dateString;
+		return dateTextService.format(date, DATE_FIELD_PATTERN);
 	}
 	
 	public String updateDateLabel(LocalDate date) {
-		StringBuilder builder = new StringBuilder();
-		builder.append("The date selected is ");
-		DateTimeFormatter formatter = DateTimeFormatter.ofPattern("EEEE, MMMM d, yyyy");
-		String dateString = date.format(formatter);
-		builder.append(dateString);
-		builder.append(".");
-		return builder.toString();
+		return "The date selected is " 
+				+ dateTextService.format(date, DATE_LABEL_PATTERN) + ".";
 	}
 	
 	public class DateButtonField {
@@ -114,8 +179,10 @@ public class JCalendarFrame {
 		
 		private final JTextField dateField;
 		
+		private final TypedDateEntry typedEntry;
+		
 		public DateButtonField(JPanel panel, GridBagConstraints gbc, 
-				String labelText, LocalDate currentDate) {
+				String labelText, LocalDate currentDate, CalendarSpec spec) {
 			this.panel = panel;
 			
 			gbc.gridwidth = 1;
@@ -141,6 +208,36 @@ public class JCalendarFrame {
 			gbc.weightx = 1.0;
 			dateLabel = new JLabel(" ");
 			panel.add(dateLabel, gbc);
+			
+			typedEntry = new TypedDateEntry(dateField, spec.getCalendarModel());
+			typedEntry.addChangeListener(new ChangeListener() {
+				@Override
+				public void stateChanged(ChangeEvent event) {
+					updateLabel();
+				}
+			});
+		}
+		
+		public void setDate(LocalDate date) {
+			typedEntry.setDate(date);
+		}
+		
+		public void setSpec(CalendarSpec spec) {
+			typedEntry.setCalendarModel(spec.getCalendarModel());
+		}
+		
+		private void updateLabel() {
+			switch (typedEntry.getStatus()) {
+			case EMPTY:
+				dateLabel.setText(" ");
+				break;
+			case VALID:
+				dateLabel.setText(updateDateLabel(typedEntry.getDate()));
+				break;
+			default:
+				dateLabel.setText(typedEntry.getStatusText());
+				break;
+			}
 		}
 
 		public JButton getCalendarButton() {
@@ -165,21 +262,14 @@ public class JCalendarFrame {
 
 		@Override
 		public void actionPerformed(ActionEvent event) {
-			JCalendar calendar = new JCalendar(frame, 
+			updateSpecs();
+			JCalendar calendar = calendarPool.getCalendar(frame, 
 					LocalDate.now().minusYears(65L), 
-					"Birth Date");
-			calendar.setPanelBackGroundColor(new Color(0xA52A2A));
-			calendar.setPanelForegroundColor(new Color(0xC0C0C0));
-			calendar.setDayHighlightColor(new Color(0x808000));
-			calendar.setFont(frame.getFont().deriveFont(Font.BOLD, 24f));
-			calendar.setLatestDate(LocalDate.now().minusYears(21L));
+					"Birth Date", birthDateSpec);
 			calendar.start();
 			LocalDate selectedDate = calendar.getSelectedDate();
 			if (selectedDate != null) {
-				String df = updateDateField(selectedDate);
-				String dl = updateDateLabel(selectedDate);
-				birthDateButtonField.getDateField().setText(df);
-				birthDateButtonField.getDateLabel().setText(dl);
+				birthDateButtonField.setDate(selectedDate);
 			}
 		}
 		
@@ -189,20 +279,13 @@ public class JCalendarFrame {
 
 		@Override
 		public void actionPerformed(ActionEvent event) {
-			JCalendar calendar = new JCalendar(frame, LocalDate.now(), 
-					"Subscription Date");
-			calendar.setPanelBackGroundColor(Color.BLACK);
-			calendar.setPanelForegroundColor(Color.WHITE);
-			calendar.setDayHighlightColor(Color.RED);
-			calendar.setEarliestDate(LocalDate.now());
-			calendar.setLatestDate(LocalDate.now().plusYears(1L));
+			updateSpecs();
+			JCalendar calendar = calendarPool.getCalendar(frame, LocalDate.now(), 
+					"Subscription Date", subscriptionDateSpec);
 			calendar.start();
 			LocalDate selectedDate = calendar.getSelectedDate();
 			if (selectedDate != null) {
-				String df = updateDateField(selectedDate);
-				String dl = updateDateLabel(selectedDate);
-				subscriptionDateButtonField.getDateField().setText(df);
-				subscriptionDateButtonField.getDateLabel().setText(dl);
+				subscriptionDateButtonField.setDate(selectedDate);
 			}
 		}
 		
@@ -212,18 +295,27 @@ public class JCalendarFrame {
 
 		@Override
 		public void actionPerformed(ActionEvent event) {
-			JCalendar calendar = new JCalendar(frame, LocalDate.now(), 
-					"Transaction Date");
-			calendar.setEarliestDate(LocalDate.now().minusMonths(3L));
-			calendar.setLatestDate(LocalDate.now().plusMonths(1L));
-			calendar.setDaysToExclude(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
-			calendar.start();
-			LocalDate selectedDate = calendar.getSelectedDate();
+			updateSpecs();
+			JCalendar calendar = calendarPool.getCalendar(frame, LocalDate.now(), 
+					"Transaction Date", transactionDateSpec);
+			calendar.startAsync().thenAccept(
+					new DateFieldUpdater(transactionDateButtonField));
+		}
+		
+	}
+	
+	public class DateFieldUpdater implements Consumer<LocalDate> {
+		
+		private final DateButtonField dateButtonField;
+		
+		public DateFieldUpdater(DateButtonField dateButtonField) {
+			this.dateButtonField = dateButtonField;
+		}
+
+		@Override
+		public void accept(LocalDate selectedDate) {
 			if (selectedDate != null) {
-				String df = updateDateField(selectedDate);
-				String dl = updateDateLabel(selectedDate);
-				transactionDateButtonField.getDateField().setText(df);
-				transactionDateButtonField.getDateLabel().setText(dl);
+				dateButtonField.setDate(selectedDate);
 			}
 		}
 		
@@ -0,0 +1,124 @@
+package com.ggl.jcalendar.view;
+
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.swing.JFrame;
+
+/**
+ * <p>
+ * <code>JCalendarPool</code> keeps one reusable <code>JCalendar</code> per
+ * owner <code>JFrame</code>. The first request for a frame creates the
+ * <code>JDialog</code>. Later requests reset the same dialog to its defaults,
+ * so the native window, the <code>pack</code> and the component tree are only
+ * paid for once.
+ * </p>
+ *
+ * <p>
+ * A pooled <code>JCalendar</code> is hidden, rather than disposed, when the
+ * user selects a date. It's in use from the moment it's started, even before
+ * a <code>startAsync</code> dialog shows, so a second request meanwhile gets
+ * a new <code>JCalendar</code>. Resetting the pooled one completes any
+ * pending selection with <code>null</code> and makes it modal again. It's
+ * disposed when its owner frame is closed. The pool must be used on the Event
+ * Dispatch Thread.
+ * </p>
+ *
+ * <pre>
+ * <code>
+ *    JCalendar calendar = calendarPool.getCalendar(frame, LocalDate.now(),
+ *            "Transaction Date");
+ *    calendar.setDayHighlightColor(Color.RED);
+ *    calendar.start();
+ *    LocalDate selectedDate = calendar.getSelectedDate();
+ * </code>
+ * </pre>
+ *
+ * @see JCalendar
+ */
+public class JCalendarPool {
+
+	private final Map<JFrame, JCalendar> calendars;
+
+	public JCalendarPool() {
+		this.calendars = new HashMap<>();
+	}
+
+	/**
+	 * This method returns the pooled <code>JCalendar</code> for a frame, set to
+	 * its defaults. Set the optional parameters and call <code>start</code>, just
+	 * like a new <code>JCalendar</code>.
+	 *
+	 * @param frame        - The <code>JFrame</code> that owns the
+	 *                     <code>JCalendar</code>. If <code>null</code>, a new,
+	 *                     non-pooled <code>JCalendar</code> is returned.
+	 * @param calendarDate - The date for which a calendar of the month and year is
+	 *                     displayed.
+	 * @param title        - The title of the <code>JDialog</code>.
+	 * @return The pooled <code>JCalendar</code>, or a new, non-pooled
+	 *         <code>JCalendar</code> if the pooled one is in use.
+	 */
+	public JCalendar getCalendar(final JFrame frame, LocalDate calendarDate,
+			String title) {
+		if (frame == null) {
+			return new JCalendar(frame, calendarDate, title);
+		}
+		
+		JCalendar calendar = calendars.get(frame);
+		if (calendar == null) {
+			calendar = new JCalendar(frame, calendarDate, title);
+			calendar.setReusable(true);
+			calendars.put(frame, calendar);
+			frame.addWindowListener(new WindowAdapter() {
+				@Override
+				public void windowClosed(WindowEvent event) {
+					remove(frame);
+				}
+			});
+			return calendar;
+		}
+
+		if (calendar.isInUse()) {
+			return new JCalendar(frame, calendarDate, title);
+		}
+
+		calendar.reset(calendarDate, title);
+		return calendar;
+	}
+
+	/**
+	 * This method returns the pooled <code>JCalendar</code> for a frame, set to
+	 * the optional parameters of a spec. Call <code>start</code> to display it.
+	 *
+	 * @param frame        - The <code>JFrame</code> that owns the
+	 *                     <code>JCalendar</code>.
+	 * @param calendarDate - The date for which a calendar of the month and year is
+	 *                     displayed.
+	 * @param title        - The title of the <code>JDialog</code>.
+	 * @param spec         - The optional parameters.
+	 * @return The pooled <code>JCalendar</code>, or a new, non-pooled
+	 *         <code>JCalendar</code> if the pooled one is in use.
+	 */
+	public JCalendar getCalendar(JFrame frame, LocalDate calendarDate,
+			String title, CalendarSpec spec) {
+		JCalendar calendar = getCalendar(frame, calendarDate, title);
+		calendar.applySpec(spec);
+		return calendar;
+	}
+
+	/**
+	 * This method disposes of the pooled <code>JCalendar</code> for a frame.
+	 *
+	 * @param frame - The <code>JFrame</code> that owns the <code>JCalendar</code>.
+	 */
+	public void remove(JFrame frame) {
+		JCalendar calendar = calendars.remove(frame);
+		if (calendar != null) {
+			calendar.dispose();
+		}
+	}
+
+}
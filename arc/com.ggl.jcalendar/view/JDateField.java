@@ -0,0 +1,289 @@
+package com.ggl.jcalendar.view;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.Window;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import javax.swing.JButton;
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+import com.ggl.jcalendar.model.CalendarModel;
+import com.ggl.jcalendar.model.DateTextService;
+
+/**
+ * <p>
+ * <code>JDateField</code> is a reusable date field: a <code>JTextField</code>
+ * that displays the date, and a square <code>JButton</code> that opens a
+ * <code>JCalendar</code> to select the date.
+ * </p>
+ *
+ * <p>
+ * The <code>JCalendar</code> comes from a <code>JCalendarPool</code>, so all
+ * of the date fields in a frame share one dialog. The date text is rendered
+ * through the shared <code>DateTextService</code>. A change of date fires a
+ * <code>"date"</code> property change.
+ * </p>
+ *
+ * <p>
+ * With typed entry on, the user may also type the date, in the
+ * <code>M/d/yy</code> format. Each keystroke is checked against the rules of
+ * the field's <code>CalendarSpec</code>, and the date changes as soon as the
+ * text is a date the <code>JCalendar</code> would let the user select.
+ * </p>
+ *
+ * @see JCalendar
+ * @see JCalendarPool
+ * @see TypedDateEntry
+ * @see com.ggl.jcalendar.model.DateTextService
+ */
+public class JDateField extends JPanel {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final JCalendarPool SHARED_CALENDAR_POOL = new JCalendarPool();
+
+	private final JButton calendarButton;
+
+	private final JTextField dateField;
+
+	private CalendarSpec calendarSpec;
+
+	private Consumer<JCalendar> calendarConfigurer;
+
+	private boolean popupMode;
+
+	private DateTextService dateTextService;
+
+	private JCalendarPool calendarPool;
+
+	private LocalDate date;
+
+	private String pattern;
+	private String title;
+
+	private TypedDateEntry typedEntry;
+
+	/**
+	 * This constructor creates an empty <code>JDateField</code>.
+	 *
+	 * @param title - The title of the <code>JCalendar</code> opened by this
+	 *              field.
+	 */
+	public JDateField(String title) {
+		super(new BorderLayout());
+
+		this.title = title;
+		this.pattern = "M/d/yy";
+		this.dateTextService = DateTextService.getInstance(
+				Locale.getDefault(Locale.Category.FORMAT));
+		this.calendarPool = SHARED_CALENDAR_POOL;
+		this.calendarSpec = null;
+		this.calendarConfigurer = null;
+		this.typedEntry = null;
+		this.popupMode = false;
+		this.date = null;
+
+		dateField = new JTextField(6);
+		dateField.setEditable(false);
+		add(dateField, BorderLayout.CENTER);
+
+		calendarButton = new JButton();
+		Dimension d = dateField.getPreferredSize();
+		calendarButton.setPreferredSize(new Dimension(d.height, d.height));
+		add(calendarButton, BorderLayout.LINE_END);
+
+		calendarButton.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent event) {
+				openCalendar();
+			}
+		});
+	}
+
+	/**
+	 * This method opens the shared <code>JCalendar</code> for this field. The
+	 * selected date, if any, becomes the date of this field.
+	 */
+	public void openCalendar() {
+		Window window = SwingUtilities.getWindowAncestor(this);
+		JFrame frame = (window instanceof JFrame) ? (JFrame) window : null;
+		LocalDate calendarDate = (date == null) ? LocalDate.now() : date;
+
+		JCalendar calendar = (calendarSpec == null)
+				? calendarPool.getCalendar(frame, calendarDate, title)
+				: calendarPool.getCalendar(frame, calendarDate, title, calendarSpec);
+		if (calendarConfigurer != null) {
+			calendarConfigurer.accept(calendar);
+		}
+		CompletableFuture<LocalDate> selection = popupMode
+				? calendar.startPopup(calendarButton) : calendar.startAsync();
+		selection.thenAccept(new Consumer<LocalDate>() {
+			@Override
+			public void accept(LocalDate selectedDate) {
+				if (selectedDate != null) {
+					setDate(selectedDate);
+				}
+				calendarClosed(selectedDate);
+			}
+		});
+	}
+
+	/**
+	 * This method is called on the Event Dispatch Thread when the
+	 * <code>JCalendar</code> opened by this field closes.
+	 *
+	 * @param selectedDate - The selected date, or <code>null</code> if the
+	 *                     <code>JCalendar</code> was cancelled.
+	 */
+	protected void calendarClosed(LocalDate selectedDate) {
+
+	}
+
+	public LocalDate getDate() {
+		return date;
+	}
+
+	/**
+	 * This method sets the date, and fires a <code>"date"</code> property
+	 * change.
+	 *
+	 * @param date - The date, or <code>null</code> for no date.
+	 */
+	public void setDate(LocalDate date) {
+		LocalDate oldDate = this.date;
+		this.date = date;
+		if (typedEntry == null) {
+			dateField.setText((date == null) ? ""
+					: dateTextService.format(date, pattern));
+		} else {
+			typedEntry.setDate(date);
+		}
+		firePropertyChange("date", oldDate, date);
+	}
+
+	/**
+	 * This method sets the optional parameters of the <code>JCalendar</code>
+	 * opened by this field. The typed entry follows the same earliest date,
+	 * latest date and excluded days. The calendar configurer, if any, is
+	 * called after the spec is applied.
+	 *
+	 * @param calendarSpec - The optional parameters, or <code>null</code> for
+	 *                     the defaults.
+	 */
+	public void setCalendarSpec(CalendarSpec calendarSpec) {
+		this.calendarSpec = calendarSpec;
+		if (typedEntry != null) {
+			typedEntry.setCalendarModel(getCalendarModel());
+		}
+	}
+
+	/**
+	 * This method lets the user type the date, as well as select it. The
+	 * typed text is parsed as <code>M/d/yy</code>, and the date is written
+	 * in the <code>TypedDateEntry</code> form, whatever the pattern.
+	 *
+	 * @param typedEntryOn - <code>true</code> to make the text field editable.
+	 */
+	public void setTypedEntry(boolean typedEntryOn) {
+		if (typedEntryOn && typedEntry == null) {
+			typedEntry = new TypedDateEntry(dateField, getCalendarModel());
+			typedEntry.addChangeListener(new ChangeListener() {
+				@Override
+				public void stateChanged(ChangeEvent event) {
+					typedDateChanged();
+				}
+			});
+		}
+		dateField.setEditable(typedEntryOn);
+	}
+
+	/**
+	 * This method returns the typed entry of this field.
+	 *
+	 * @return The typed entry, or <code>null</code> if typed entry was never
+	 *         turned on.
+	 */
+	public TypedDateEntry getTypedEntry() {
+		return typedEntry;
+	}
+
+	private void typedDateChanged() {
+		TypedDateEntry.Status status = typedEntry.getStatus();
+		if (status == TypedDateEntry.Status.VALID
+				|| status == TypedDateEntry.Status.EMPTY) {
+			LocalDate typedDate = typedEntry.getDate();
+			if (typedDate == null ? date != null : !typedDate.equals(date)) {
+				LocalDate oldDate = date;
+				date = typedDate;
+				firePropertyChange("date", oldDate, date);
+			}
+		}
+	}
+
+	private CalendarModel getCalendarModel() {
+		return (calendarSpec == null) ? null : calendarSpec.getCalendarModel();
+	}
+
+	/**
+	 * This method sets the code that configures the <code>JCalendar</code>
+	 * each time it is opened, for example to set its colors and its earliest
+	 * date.
+	 *
+	 * @param calendarConfigurer - Called with the <code>JCalendar</code> before
+	 *                           it starts, or <code>null</code> for the
+	 *                           defaults.
+	 */
+	public void setCalendarConfigurer(Consumer<JCalendar> calendarConfigurer) {
+		this.calendarConfigurer = calendarConfigurer;
+	}
+
+	/**
+	 * This method chooses how the <code>JCalendar</code> is displayed.
+	 *
+	 * @param popupMode - <code>true</code> to display the <code>JCalendar</code>
+	 *                  in a lightweight popup below the calendar button,
+	 *                  <code>false</code> to display it in a <code>JDialog</code>.
+	 */
+	public void setPopupMode(boolean popupMode) {
+		this.popupMode = popupMode;
+	}
+
+	public void setCalendarPool(JCalendarPool calendarPool) {
+		this.calendarPool = calendarPool;
+	}
+
+	/**
+	 * This method sets the <code>DateTimeFormatter</code> pattern of the date
+	 * text. The default is <code>M/d/yy</code>.
+	 *
+	 * @param pattern - The date pattern.
+	 */
+	public void setPattern(String pattern) {
+		this.pattern = pattern;
+		setDate(date);
+	}
+
+	public void setTitle(String title) {
+		this.title = title;
+	}
+
+	public JButton getCalendarButton() {
+		return calendarButton;
+	}
+
+	public JTextField getDateField() {
+		return dateField;
+	}
+
+}
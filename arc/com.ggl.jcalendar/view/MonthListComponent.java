@@ -0,0 +1,528 @@
+package com.ggl.jcalendar.view;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.security.InvalidParameterException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Locale;
+
+import javax.swing.AbstractListModel;
+import javax.swing.JComponent;
+import javax.swing.JList;
+import javax.swing.ListCellRenderer;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.UIManager;
+
+import com.ggl.jcalendar.model.CalendarModel;
+import com.ggl.jcalendar.model.DateSelectionModel;
+import com.ggl.jcalendar.model.DateTextService;
+import com.ggl.jcalendar.model.HolidayCalendar;
+import com.ggl.jcalendar.model.MonthGrid;
+
+/**
+ * <p>
+ * <code>MonthListComponent</code> is a continuous, vertically scrolling
+ * calendar of many months. Put it in a <code>JScrollPane</code>.
+ * </p>
+ *
+ * <p>
+ * The list is virtual. Its model only holds the first month and the number of
+ * months, and builds a <code>MonthGrid</code> from the shared
+ * <code>MonthGridCache</code> when a row is painted. The rows have a fixed
+ * height, so the list never measures the rows it doesn't paint. One renderer
+ * paints every row with a <code>DayGridPainter</code>. A range of decades
+ * costs no more memory or painting time than a range of a few months.
+ * </p>
+ *
+ * <p>
+ * When the user selects an enabled day, an <code>ActionEvent</code> is fired
+ * whose action command is the ISO text of the selected date.
+ * </p>
+ *
+ * <pre>
+ * <code>
+ *    MonthListComponent monthList = new MonthListComponent(LocalDate.now());
+ *    monthList.setEarliestDate(LocalDate.of(1950, 1, 1));
+ *    monthList.setLatestDate(LocalDate.now());
+ *    panel.add(new JScrollPane(monthList));
+ * </code>
+ * </pre>
+ *
+ * @see DayGridPainter
+ * @see com.ggl.jcalendar.model.MonthGrid
+ * @see com.ggl.jcalendar.model.MonthGridCache
+ */
+public class MonthListComponent extends JList<MonthGrid> {
+
+	private static final long serialVersionUID = 1L;
+
+	/** The months before and after the visible months kept warm in the cache. */
+	private static final int OVERSCAN_MONTHS = 2;
+
+	/** The number of years shown before and after an unbounded date. */
+	private static final int DEFAULT_YEAR_SPAN = 100;
+
+	private Color panelBackGroundColor;
+	private Color panelForegroundColor;
+	private Color dayHighlightColor;
+	private Color disabledTextColor;
+
+	private DateSelectionModel dateSelectionModel;
+
+	private DayGridPainter painter;
+
+	private CalendarModel calendarModel;
+
+	private final MonthListModel monthListModel;
+
+	private LocalDate calendarDate;
+	private LocalDate selectedDate;
+
+	private String[] dayNames;
+	private String[] monthNames;
+
+	/**
+	 * This constructor creates a <code>MonthListComponent</code>.
+	 *
+	 * @param calendarDate - The date whose month is scrolled into view. The day
+	 *                     of the month is highlighted.
+	 */
+	public MonthListComponent(LocalDate calendarDate) {
+		this.calendarDate = calendarDate;
+		this.panelBackGroundColor = Color.WHITE;
+		this.panelForegroundColor = Color.BLUE;
+		this.dayHighlightColor = Color.YELLOW;
+		this.disabledTextColor = UIManager.getColor("Button.disabledText");
+		if (this.disabledTextColor == null) {
+			this.disabledTextColor = Color.GRAY;
+		}
+		this.calendarModel = CalendarModel.getDefault();
+		this.selectedDate = null;
+
+		DateTextService dateTextService = DateTextService.getInstance(Locale.US);
+		this.dayNames = dateTextService.getDayNames(DayOfWeek.SUNDAY);
+		this.monthNames = dateTextService.getMonthNames();
+
+		this.monthListModel = new MonthListModel();
+		setModel(monthListModel);
+		setCellRenderer(new MonthRenderer());
+		setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		setVisibleRowCount(2);
+		setFont(getFont().deriveFont(Font.BOLD));
+
+		addMouseListener(new MouseAdapter() {
+			@Override
+			public void mouseReleased(MouseEvent event) {
+				if (event.getButton() == MouseEvent.BUTTON1) {
+					selectDay(event.getPoint());
+				}
+			}
+		});
+
+		updateMonths();
+	}
+
+	/**
+	 * This method scrolls a month into view.
+	 *
+	 * @param date - A date in the month to show.
+	 */
+	public void ensureMonthIsVisible(LocalDate date) {
+		int index = monthListModel.indexOf(date);
+		if (index >= 0) {
+			ensureIndexIsVisible(index);
+		}
+	}
+
+	/**
+	 * The month of the calendar date is scrolled into view once the list is in
+	 * its <code>JScrollPane</code>.
+	 */
+	@Override
+	public void addNotify() {
+		super.addNotify();
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				ensureMonthIsVisible(calendarDate);
+			}
+		});
+	}
+
+	/**
+	 * This method returns the selected date.
+	 *
+	 * @return The selected date, or <code>null</code> if no date has been
+	 *         selected.
+	 */
+	public LocalDate getSelectedDate() {
+		return selectedDate;
+	}
+
+	/**
+	 * This method sets the model of the selected dates. With a model, a click
+	 * on a day updates the model according to its mode, and the selected days
+	 * of every month are painted.
+	 *
+	 * @param dateSelectionModel - The selected dates, or <code>null</code> to
+	 *                           highlight just the last clicked date.
+	 */
+	public void setDateSelectionModel(DateSelectionModel dateSelectionModel) {
+		this.dateSelectionModel = dateSelectionModel;
+		repaint();
+	}
+
+	public DateSelectionModel getDateSelectionModel() {
+		return dateSelectionModel;
+	}
+
+	public void addActionListener(ActionListener listener) {
+		listenerList.add(ActionListener.class, listener);
+	}
+
+	public void removeActionListener(ActionListener listener) {
+		listenerList.remove(ActionListener.class, listener);
+	}
+
+	@Override
+	public void setFont(Font font) {
+		super.setFont(font);
+		updateLayout();
+	}
+
+	public void setPanelBackGroundColor(Color panelBackGroundColor) {
+		this.panelBackGroundColor = panelBackGroundColor;
+		updateLayout();
+	}
+
+	public void setPanelForegroundColor(Color panelForegroundColor) {
+		this.panelForegroundColor = panelForegroundColor;
+		updateLayout();
+	}
+
+	public void setDayHighlightColor(Color dayHighlightColor) {
+		this.dayHighlightColor = dayHighlightColor;
+		updateLayout();
+	}
+
+	/**
+	 * This method allows for the day names to be in a different language, or
+	 * allows for the calendar week to start on any <code>DayOfWeek</code>.
+	 *
+	 * @param startDayOfWeek - <code>DayOfWeek</code> that starts the week.
+	 * @param dayNames       - String array of three character weekday names.
+	 */
+	public void setDayNames(DayOfWeek startDayOfWeek, String[] dayNames) {
+		if (dayNames.length != 7) {
+			String text = "There must be 7 three letter day names.  You have "
+					+ "provided " + dayNames.length;
+			throw new InvalidParameterException(text);
+		}
+		this.calendarModel = calendarModel.toBuilder()
+				.setStartDayOfWeek(startDayOfWeek).build();
+		this.dayNames = dayNames;
+		updateLayout();
+		updateMonths();
+	}
+
+	/**
+	 * This method allows for the month names to be in a different language.
+	 *
+	 * @param monthNames - String array of the 12 month names, starting with
+	 *                   January.
+	 */
+	public void setMonthNames(String[] monthNames) {
+		if (monthNames.length != 12) {
+			String text = "There must be 12 month names.  You have "
+					+ "provided " + monthNames.length;
+			throw new InvalidParameterException(text);
+		}
+		this.monthNames = monthNames;
+		repaint();
+	}
+
+	/**
+	 * This method sets the days to exclude from selection.
+	 *
+	 * @param daysToExclude - One or more <code>DayOfWeek</code> values to
+	 *                      exclude from selection.
+	 */
+	public void setDaysToExclude(DayOfWeek... daysToExclude) {
+		this.calendarModel = calendarModel.toBuilder()
+				.setDaysToExclude(daysToExclude).build();
+		updateMonths();
+	}
+
+	/**
+	 * This method sets the holidays, blackout ranges and recurring holidays to
+	 * exclude from selection.
+	 *
+	 * @param holidayCalendar - The rules to exclude from selection, or
+	 *                        <code>null</code> for none.
+	 */
+	public void setHolidayCalendar(HolidayCalendar holidayCalendar) {
+		this.calendarModel = calendarModel.toBuilder()
+				.setHolidayCalendar(holidayCalendar).build();
+		updateMonths();
+	}
+
+	/**
+	 * This method sets the earliest date that can be selected. The list starts
+	 * with the month of the earliest date. Without an earliest date, the list
+	 * starts 100 years before the calendar date.
+	 *
+	 * @param earliestDate - Earliest date that can be selected, or
+	 *                     <code>null</code>.
+	 */
+	public void setEarliestDate(LocalDate earliestDate) {
+		this.calendarModel = calendarModel.toBuilder()
+				.setEarliestDate(earliestDate).build();
+		updateMonths();
+	}
+
+	/**
+	 * This method sets the latest date that can be selected. The list ends with
+	 * the month of the latest date. Without a latest date, the list ends 100
+	 * years after the calendar date.
+	 *
+	 * @param latestDate - Latest date that can be selected, or
+	 *                   <code>null</code>.
+	 */
+	public void setLatestDate(LocalDate latestDate) {
+		this.calendarModel = calendarModel.toBuilder()
+				.setLatestDate(latestDate).build();
+		updateMonths();
+	}
+
+	/**
+	 * This method throws away the painter and sets the fixed row size, so the
+	 * list never asks the renderer to measure a row.
+	 */
+	private void updateLayout() {
+		this.painter = null;
+		if (getFont() == null || dayNames == null) {
+			return;
+		}
+		FontMetrics metrics = getFontMetrics(getFont());
+		int rowHeight = metrics.getHeight() + 10;
+		setFixedCellWidth((getPainter().getMaximumTextWidth(metrics) + 32)
+				* DayGridPainter.COLUMNS);
+		setFixedCellHeight(rowHeight * (DayGridPainter.ROWS + 1));
+		repaint();
+	}
+
+	private DayGridPainter getPainter() {
+		if (painter == null) {
+			painter = new DayGridPainter(panelBackGroundColor,
+					panelForegroundColor, dayHighlightColor, disabledTextColor,
+					getFont(), dayNames);
+		}
+		return painter;
+	}
+
+	private void updateMonths() {
+		LocalDate firstDate = calendarModel.getEarliestDate();
+		if (firstDate == null) {
+			firstDate = calendarDate.minusYears(DEFAULT_YEAR_SPAN);
+		}
+		LocalDate lastDate = calendarModel.getLatestDate();
+		if (lastDate == null) {
+			lastDate = calendarDate.plusYears(DEFAULT_YEAR_SPAN);
+		}
+		monthListModel.setMonths(getMonthIndex(firstDate),
+				getMonthIndex(lastDate) - getMonthIndex(firstDate) + 1);
+	}
+
+	private static int getMonthIndex(LocalDate date) {
+		return date.getYear() * 12 + date.getMonthValue() - 1;
+	}
+
+	private void selectDay(Point point) {
+		int index = locationToIndex(point);
+		if (index < 0) {
+			return;
+		}
+		Rectangle bounds = getCellBounds(index, index);
+		if (bounds == null || !bounds.contains(point)) {
+			return;
+		}
+
+		int titleHeight = bounds.height / (DayGridPainter.ROWS + 1);
+		int cellWidth = bounds.width / DayGridPainter.COLUMNS;
+		int cellHeight = (bounds.height - titleHeight) / DayGridPainter.ROWS;
+		int column = (point.x - bounds.x) / cellWidth;
+		int row = (point.y - bounds.y - titleHeight) / cellHeight - 1;
+		if (point.y - bounds.y < titleHeight || row < 0
+				|| row >= DayGridPainter.ROWS - 1
+				|| column >= DayGridPainter.COLUMNS) {
+			return;
+		}
+
+		MonthGrid monthGrid = monthListModel.getElementAt(index);
+		int cellIndex = row * DayGridPainter.COLUMNS + column;
+		if (!monthGrid.isEnabled(cellIndex)) {
+			return;
+		}
+
+		if (dateSelectionModel != null) {
+			dateSelectionModel.select(monthGrid.getEpochDay(cellIndex),
+					calendarModel);
+			repaint();
+		}
+
+		LocalDate oldDate = calendarDate;
+		this.selectedDate = LocalDate.ofEpochDay(monthGrid.getEpochDay(cellIndex));
+		this.calendarDate = selectedDate;
+		monthListModel.fireMonthChanged(oldDate);
+		monthListModel.fireMonthChanged(calendarDate);
+
+		ActionEvent event = new ActionEvent(this, ActionEvent.ACTION_PERFORMED,
+				selectedDate.toString());
+		Object[] listeners = listenerList.getListenerList();
+		for (int i = listeners.length - 2; i >= 0; i -= 2) {
+			if (listeners[i] == ActionListener.class) {
+				((ActionListener) listeners[i + 1]).actionPerformed(event);
+			}
+		}
+	}
+
+	/**
+	 * After the visible rows are painted, the months just above and below them
+	 * are looked up, so the first scroll step finds them in the cache.
+	 */
+	@Override
+	protected void paintComponent(Graphics g) {
+		super.paintComponent(g);
+		int firstIndex = getFirstVisibleIndex();
+		int lastIndex = getLastVisibleIndex();
+		if (firstIndex < 0) {
+			return;
+		}
+		for (int offset = 1; offset <= OVERSCAN_MONTHS; offset++) {
+			if (firstIndex - offset >= 0) {
+				monthListModel.getElementAt(firstIndex - offset);
+			}
+			if (lastIndex + offset < monthListModel.getSize()) {
+				monthListModel.getElementAt(lastIndex + offset);
+			}
+		}
+	}
+
+	private class MonthListModel extends AbstractListModel<MonthGrid> {
+
+		private static final long serialVersionUID = 1L;
+
+		private int firstMonthIndex;
+		private int size;
+
+		public void setMonths(int firstMonthIndex, int size) {
+			int oldSize = this.size;
+			this.firstMonthIndex = firstMonthIndex;
+			this.size = Math.max(0, size);
+			if (oldSize > 0) {
+				fireIntervalRemoved(this, 0, oldSize - 1);
+			}
+			if (this.size > 0) {
+				fireIntervalAdded(this, 0, this.size - 1);
+			}
+		}
+
+		public int indexOf(LocalDate date) {
+			int index = getMonthIndex(date) - firstMonthIndex;
+			return (index >= 0 && index < size) ? index : -1;
+		}
+
+		public void fireMonthChanged(LocalDate date) {
+			int index = indexOf(date);
+			if (index >= 0) {
+				fireContentsChanged(this, index, index);
+			}
+		}
+
+		@Override
+		public int getSize() {
+			return size;
+		}
+
+		@Override
+		public MonthGrid getElementAt(int index) {
+			int monthIndex = firstMonthIndex + index;
+			int year = Math.floorDiv(monthIndex, 12);
+			int month = Math.floorMod(monthIndex, 12) + 1;
+			int highlightDay = (calendarDate.getYear() == year
+					&& calendarDate.getMonthValue() == month)
+					? calendarDate.getDayOfMonth() : 0;
+			return JCalendar.MONTH_GRID_CACHE.getMonthGrid(calendarModel, year,
+					month, highlightDay);
+		}
+
+	}
+
+	/**
+	 * One renderer paints every month: the month and year title, then the
+	 * weekday names and the day cells.
+	 */
+	private class MonthRenderer extends JComponent
+			implements ListCellRenderer<MonthGrid> {
+
+		private static final long serialVersionUID = 1L;
+
+		private MonthGrid monthGrid;
+
+		@Override
+		public Component getListCellRendererComponent(
+				JList<? extends MonthGrid> list, MonthGrid monthGrid, int index,
+				boolean isSelected, boolean cellHasFocus) {
+			this.monthGrid = monthGrid;
+			return this;
+		}
+
+		@Override
+		protected void paintComponent(Graphics g) {
+			Graphics2D g2d = (Graphics2D) g.create();
+			DayGridPainter painter = getPainter();
+			int width = getWidth();
+			int titleHeight = getHeight() / (DayGridPainter.ROWS + 1);
+
+			g2d.setColor(painter.getPanelBackGroundColor());
+			g2d.fillRect(0, 0, width, titleHeight);
+			g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+					RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+			g2d.setFont(painter.getFont());
+			g2d.setColor(painter.getPanelForegroundColor());
+			FontMetrics metrics = g2d.getFontMetrics();
+			String title = monthNames[monthGrid.getMonth() - 1] + " "
+					+ monthGrid.getYear();
+			g2d.drawString(title, (width - metrics.stringWidth(title)) / 2,
+					(titleHeight - metrics.getHeight()) / 2 + metrics.getAscent());
+
+			g2d.translate(0, titleHeight);
+			long selectedMask = (dateSelectionModel == null) ? 0L
+					: dateSelectionModel.getSelectionMask(monthGrid);
+			painter.paint(g2d, width, getHeight() - titleHeight, monthGrid, null,
+					selectedMask, -1, -1);
+			g2d.dispose();
+		}
+
+		@Override
+		public Dimension getPreferredSize() {
+			return new Dimension(getFixedCellWidth(), getFixedCellHeight());
+		}
+
+	}
+
+}
@@ -0,0 +1,181 @@
+package com.ggl.jcalendar.view;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+
+import javax.swing.UIManager;
+
+/**
+ * <p>
+ * <code>PeriodGridComponent</code> paints a small grid of labelled cells, like
+ * the 12 months of a year or the 10 years of a decade, in one
+ * <code>paintComponent</code> pass. It's the drill-down view of the
+ * <code>JCalendar</code>, so the user can jump to a far away month in a few
+ * clicks.
+ * </p>
+ *
+ * <p>
+ * When the user selects an enabled cell, an <code>ActionEvent</code> is fired
+ * whose action command is the cell index. The arrow keys move the focus cell
+ * and the Enter or Space key selects it; <code>CellGridComponent</code> does
+ * the hit-testing, the focus and the events.
+ * </p>
+ *
+ * @see CellGridComponent
+ * @see JCalendar
+ */
+public class PeriodGridComponent extends CellGridComponent {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int columns;
+	private final int rows;
+
+	private Color panelBackGroundColor;
+	private Color panelForegroundColor;
+	private Color highlightColor;
+	private Color disabledTextColor;
+
+	private int enabledMask;
+	private int highlightIndex;
+
+	private String[] cellText;
+
+	/**
+	 * This constructor creates an empty <code>PeriodGridComponent</code>.
+	 *
+	 * @param columns - The number of columns of the grid.
+	 * @param rows    - The number of rows of the grid.
+	 */
+	public PeriodGridComponent(int columns, int rows) {
+		super(columns, rows, 0);
+		this.columns = columns;
+		this.rows = rows;
+		this.panelBackGroundColor = Color.WHITE;
+		this.panelForegroundColor = Color.BLUE;
+		this.highlightColor = Color.YELLOW;
+		this.disabledTextColor = UIManager.getColor("Button.disabledText");
+		if (this.disabledTextColor == null) {
+			this.disabledTextColor = Color.GRAY;
+		}
+		this.cellText = new String[0];
+		this.enabledMask = 0;
+		this.highlightIndex = -1;
+	}
+
+	/**
+	 * This method sets the cells, and repaints the grid once.
+	 *
+	 * @param cellText       - The text of each cell, at most columns times rows.
+	 * @param enabledMask    - A bitmask of the cells that can be selected, bit
+	 *                       0 for the first cell.
+	 * @param highlightIndex - The highlighted cell, or -1 for none.
+	 */
+	public void setCells(String[] cellText, int enabledMask, int highlightIndex) {
+		this.cellText = cellText;
+		this.enabledMask = enabledMask;
+		this.highlightIndex = highlightIndex;
+		resetFocusIndex();
+		repaint();
+	}
+
+	public void setPanelBackGroundColor(Color panelBackGroundColor) {
+		this.panelBackGroundColor = panelBackGroundColor;
+		repaint();
+	}
+
+	public void setPanelForegroundColor(Color panelForegroundColor) {
+		this.panelForegroundColor = panelForegroundColor;
+		repaint();
+	}
+
+	public void setHighlightColor(Color highlightColor) {
+		this.highlightColor = highlightColor;
+		repaint();
+	}
+
+	@Override
+	public Dimension getPreferredSize() {
+		if (isPreferredSizeSet()) {
+			return super.getPreferredSize();
+		}
+		FontMetrics metrics = getFontMetrics(getFont());
+		int textWidth = metrics.stringWidth("0000");
+		for (String text : cellText) {
+			textWidth = Math.max(textWidth, metrics.stringWidth(text));
+		}
+		return new Dimension((textWidth + 16) * columns,
+				(metrics.getHeight() + 10) * rows);
+	}
+
+	@Override
+	protected void paintComponent(Graphics g) {
+		Graphics2D g2d = (Graphics2D) g.create();
+		g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+				RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+		g2d.setColor(panelBackGroundColor);
+		g2d.fillRect(0, 0, getWidth(), getHeight());
+
+		g2d.setFont(getFont());
+		FontMetrics metrics = g2d.getFontMetrics();
+		int cellWidth = getWidth() / columns;
+		int cellHeight = getHeight() / rows;
+		int baseline = (cellHeight - metrics.getHeight()) / 2 + metrics.getAscent();
+		int focusIndex = hasFocus() ? getFocusIndex() : -1;
+		int rolloverIndex = getRolloverIndex();
+
+		for (int index = 0; index < cellText.length; index++) {
+			int x = (index % columns) * cellWidth;
+			int y = (index / columns) * cellHeight;
+			boolean enabled = isCellEnabled(index);
+
+			g2d.setColor((index == highlightIndex) ? highlightColor
+					: panelBackGroundColor);
+			g2d.fillRect(x + 1, y + 1, cellWidth - 2, cellHeight - 2);
+
+			g2d.setColor(enabled && index == rolloverIndex ? panelForegroundColor
+					: disabledTextColor);
+			g2d.drawRect(x + 1, y + 1, cellWidth - 3, cellHeight - 3);
+
+			g2d.setColor(enabled ? panelForegroundColor : disabledTextColor);
+			int textWidth = metrics.stringWidth(cellText[index]);
+			g2d.drawString(cellText[index], x + (cellWidth - textWidth) / 2,
+					y + baseline);
+
+			if (index == focusIndex) {
+				g2d.setColor(panelForegroundColor);
+				g2d.drawRect(x + 3, y + 3, cellWidth - 7, cellHeight - 7);
+			}
+		}
+
+		g2d.dispose();
+	}
+
+	@Override
+	protected int getCellCount() {
+		return cellText.length;
+	}
+
+	@Override
+	protected boolean isCellEnabled(int index) {
+		return (enabledMask & (1 << index)) != 0;
+	}
+
+	@Override
+	protected int getFirstFocusIndex() {
+		if (highlightIndex >= 0 && isCellEnabled(highlightIndex)) {
+			return highlightIndex;
+		}
+		return (enabledMask == 0) ? -1 : Integer.numberOfTrailingZeros(enabledMask);
+	}
+
+	@Override
+	protected String getActionCommand(int index) {
+		return Integer.toString(index);
+	}
+
+}
@@ -0,0 +1,71 @@
+package com.ggl.jcalendar.view;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * <p>
+ * <code>PickerEvents</code> holds the JDK Flight Recorder events of a
+ * <code>JCalendar</code>. They're recorded on the Event Dispatch Thread, so a
+ * recording shows them next to the rest of the EDT activity. When no
+ * recording is running, an event is only an allocation and a flag check.
+ * </p>
+ *
+ * <pre>
+ * <code>
+ *    java -XX:StartFlightRecording=filename=picker.jfr ...
+ *    jfr print --categories JCalendar picker.jfr
+ * </code>
+ * </pre>
+ *
+ * @see PickerMetrics
+ */
+final class PickerEvents {
+
+	private PickerEvents() {
+
+	}
+
+	@Name("com.ggl.jcalendar.Open")
+	@Label("Calendar Open")
+	@Category("JCalendar")
+	@Description("From start to the first paint of the calendar")
+	static class OpenEvent extends Event {
+
+		@Label("Title")
+		String title;
+
+	}
+
+	@Name("com.ggl.jcalendar.Navigation")
+	@Label("Calendar Navigation")
+	@Category("JCalendar")
+	@Description("The update of the calendar to another month, year or decade")
+	static class NavigationEvent extends Event {
+
+		@Label("View")
+		String view;
+
+		@Label("Date")
+		String date;
+
+	}
+
+	@Name("com.ggl.jcalendar.Selection")
+	@Label("Calendar Selection")
+	@Category("JCalendar")
+	@Description("From start to the selection or the cancellation of a date")
+	static class SelectionEvent extends Event {
+
+		@Label("Title")
+		String title;
+
+		@Label("Cancelled")
+		boolean cancelled;
+
+	}
+
+}
@@ -0,0 +1,52 @@
+package com.ggl.jcalendar.view;
+
+/**
+ * <p>
+ * <code>PickerMetrics</code> receives the latencies of a
+ * <code>JCalendar</code>, so they can be watched on production desktops. The
+ * <code>JCalendar</code> calls it on the Event Dispatch Thread, so an
+ * implementation must be quick and mustn't block.
+ * </p>
+ *
+ * <p>
+ * The cancel rate is the number of <code>CANCELLATION</code> records divided
+ * by the number of <code>SELECTION</code> and <code>CANCELLATION</code>
+ * records.
+ * </p>
+ *
+ * @see HistogramPickerMetrics
+ * @see JCalendar#setPickerMetrics(PickerMetrics)
+ */
+public interface PickerMetrics {
+
+	/**
+	 * The measured latencies.
+	 */
+	public enum Metric {
+		/** From <code>start</code> to the first paint of the calendar. */
+		OPEN,
+		/** The update of the calendar to another month, year or decade. */
+		NAVIGATION,
+		/** From <code>start</code> to the selection of a date. */
+		SELECTION,
+		/** From <code>start</code> to the cancellation of the calendar. */
+		CANCELLATION
+	}
+
+	/** Metrics that ignore every record. */
+	public static final PickerMetrics NONE = new PickerMetrics() {
+		@Override
+		public void record(Metric metric, long nanos) {
+
+		}
+	};
+
+	/**
+	 * This method records one latency.
+	 *
+	 * @param metric - The measured latency.
+	 * @param nanos  - The latency, in nanoseconds.
+	 */
+	void record(Metric metric, long nanos);
+
+}
@@ -0,0 +1,354 @@
+package com.ggl.jcalendar.view;
+
+import java.awt.Color;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.time.LocalDate;
+import java.util.Locale;
+
+import javax.swing.JTextField;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.EventListenerList;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Segment;
+
+import com.ggl.jcalendar.model.CalendarModel;
+import com.ggl.jcalendar.model.DateSelectionModel;
+import com.ggl.jcalendar.model.DateTextService;
+import com.ggl.jcalendar.model.ShortDateParser;
+
+/**
+ * <p>
+ * <code>TypedDateEntry</code> lets the user type a date into a
+ * <code>JTextField</code>, in the <code>M/d/yy</code> format. Every
+ * keystroke is parsed and checked against the earliest date, the latest date
+ * and the excluded days of a <code>CalendarModel</code>, the same rules a
+ * <code>JCalendar</code> enforces. A date that breaks a rule turns the field
+ * pink, and the tool tip of the field says why.
+ * </p>
+ *
+ * <p>
+ * The text is read from the field's <code>Document</code> through a reused
+ * <code>Segment</code> and parsed by a <code>ShortDateParser</code>, so a
+ * keystroke creates no objects unless the status or the date changes. When
+ * either changes, the change listeners are notified. Pressing Enter, or
+ * leaving the field, rewrites a valid date in the <code>M/d/yy</code> form,
+ * or in the <code>M/d/yyyy</code> form when a two digit year would be read
+ * as another century.
+ * A <code>TypedDateEntry</code> must be used on the Event Dispatch Thread.
+ * </p>
+ *
+ * <pre>
+ * <code>
+ *    TypedDateEntry entry = new TypedDateEntry(dateField, spec.getCalendarModel());
+ *    entry.addChangeListener(new ChangeListener() {
+ *        ...
+ *    });
+ * </code>
+ * </pre>
+ *
+ * @see com.ggl.jcalendar.model.ShortDateParser
+ * @see JDateField
+ */
+public class TypedDateEntry implements DocumentListener {
+
+	public enum Status {
+		/** The field is blank. */
+		EMPTY,
+		/** The text could still become a date. */
+		INCOMPLETE,
+		/** The text is a date the user may select. */
+		VALID,
+		/** The text can't become a date. */
+		INVALID,
+		/** The date comes before the earliest date. */
+		TOO_EARLY,
+		/** The date comes after the latest date. */
+		TOO_LATE,
+		/** The date is an excluded day of the week, or a holiday. */
+		EXCLUDED
+	}
+
+	public static final String PATTERN = "M/d/yy";
+
+	/** The pattern of a date whose two digit year would be ambiguous. */
+	public static final String FULL_YEAR_PATTERN = "M/d/yyyy";
+
+	private static final Color REJECTED_BACKGROUND = new Color(0xFFD8D8);
+
+	private final Color background;
+
+	private final DateTextService dateTextService;
+
+	private final EventListenerList listenerList;
+
+	private final JTextField field;
+
+	private final Segment segment;
+
+	private boolean adjusting;
+
+	private CalendarModel calendarModel;
+
+	private int epochDay;
+
+	private Status status;
+
+	/**
+	 * This constructor makes a text field editable, and starts checking what
+	 * the user types.
+	 *
+	 * @param field         - The text field.
+	 * @param calendarModel - The rules a date must follow, or
+	 *                      <code>null</code> for the default rules.
+	 */
+	public TypedDateEntry(JTextField field, CalendarModel calendarModel) {
+		this.field = field;
+		this.calendarModel = (calendarModel == null) ? CalendarModel.getDefault()
+				: calendarModel;
+		this.background = field.getBackground();
+		this.dateTextService = DateTextService.getInstance(
+				Locale.getDefault(Locale.Category.FORMAT));
+		this.listenerList = new EventListenerList();
+		this.segment = new Segment();
+		this.adjusting = false;
+		this.epochDay = DateSelectionModel.NO_DATE;
+		this.status = Status.EMPTY;
+
+		field.setEditable(true);
+		field.getDocument().addDocumentListener(this);
+		field.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent event) {
+				commit();
+			}
+		});
+		field.addFocusListener(new FocusAdapter() {
+			@Override
+			public void focusLost(FocusEvent event) {
+				commit();
+			}
+		});
+		checkText();
+	}
+
+	@Override
+	public void insertUpdate(DocumentEvent event) {
+		checkText();
+	}
+
+	@Override
+	public void removeUpdate(DocumentEvent event) {
+		checkText();
+	}
+
+	@Override
+	public void changedUpdate(DocumentEvent event) {
+
+	}
+
+	/**
+	 * This method sets the rules a date must follow, and checks the text
+	 * again.
+	 *
+	 * @param calendarModel - The rules, or <code>null</code> for the default
+	 *                      rules.
+	 */
+	public void setCalendarModel(CalendarModel calendarModel) {
+		this.calendarModel = (calendarModel == null) ? CalendarModel.getDefault()
+				: calendarModel;
+		checkText();
+	}
+
+	public CalendarModel getCalendarModel() {
+		return calendarModel;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * This method returns the typed date.
+	 *
+	 * @return The date, or <code>null</code> unless the status is
+	 *         <code>VALID</code>.
+	 */
+	public LocalDate getDate() {
+		return (status == Status.VALID) ? LocalDate.ofEpochDay(epochDay) : null;
+	}
+
+	/**
+	 * This method sets the date, written in the <code>M/d/yy</code> form, or
+	 * the <code>M/d/yyyy</code> form when two digits would read back as
+	 * another century.
+	 *
+	 * @param date - The date, or <code>null</code> to clear the field.
+	 */
+	public void setDate(LocalDate date) {
+		setText((date == null) ? "" : format(date));
+	}
+
+	/**
+	 * This method replaces the text of the field. The listeners are notified
+	 * once, of the new text, rather than of the empty field in between.
+	 *
+	 * @param text - The new text.
+	 */
+	public void setText(String text) {
+		adjusting = true;
+		try {
+			field.setText(text);
+		} finally {
+			adjusting = false;
+		}
+		checkText();
+	}
+
+	/**
+	 * This method rewrites a valid date in the <code>M/d/yy</code> form, or
+	 * the <code>M/d/yyyy</code> form when two digits would read back as
+	 * another century. It's called when the user presses Enter or leaves the
+	 * field.
+	 */
+	public void commit() {
+		if (status == Status.VALID) {
+			String text = format(LocalDate.ofEpochDay(epochDay));
+			if (!text.contentEquals(readText())) {
+				setText(text);
+			}
+		}
+	}
+
+	/**
+	 * This method returns a sentence describing the status, for a tool tip or
+	 * a label.
+	 *
+	 * @return The status text.
+	 */
+	public String getStatusText() {
+		switch (status) {
+		case EMPTY:
+			return "Type a date as " + PATTERN + ".";
+		case INCOMPLETE:
+			return "Finish the date as " + PATTERN + ".";
+		case VALID:
+			return null;
+		case TOO_EARLY:
+			return "The date must not come before "
+					+ format(calendarModel.getEarliestDate())
+					+ ".";
+		case TOO_LATE:
+			return "The date must not come after "
+					+ format(calendarModel.getLatestDate())
+					+ ".";
+		case EXCLUDED:
+			return "The date can't be selected.";
+		default:
+			return "The text is not a date.";
+		}
+	}
+
+	public void addChangeListener(ChangeListener listener) {
+		listenerList.add(ChangeListener.class, listener);
+	}
+
+	public void removeChangeListener(ChangeListener listener) {
+		listenerList.remove(ChangeListener.class, listener);
+	}
+
+	/**
+	 * This method parses the text and updates the status. It's called on
+	 * every keystroke.
+	 */
+	private void checkText() {
+		if (adjusting) {
+			return;
+		}
+
+		CharSequence text = readText();
+		int parsedEpochDay = ShortDateParser.parse(text, calendarModel);
+		Status newStatus;
+		if (parsedEpochDay == ShortDateParser.INCOMPLETE) {
+			newStatus = isBlank(text) ? Status.EMPTY : Status.INCOMPLETE;
+			parsedEpochDay = DateSelectionModel.NO_DATE;
+		} else if (parsedEpochDay == ShortDateParser.INVALID) {
+			newStatus = Status.INVALID;
+			parsedEpochDay = DateSelectionModel.NO_DATE;
+		} else if (parsedEpochDay < calendarModel.getEarliestEpochDay()) {
+			newStatus = Status.TOO_EARLY;
+		} else if (parsedEpochDay > calendarModel.getLatestEpochDay()) {
+			newStatus = Status.TOO_LATE;
+		} else if (!calendarModel.isSelectable(parsedEpochDay)) {
+			newStatus = Status.EXCLUDED;
+		} else {
+			newStatus = Status.VALID;
+		}
+
+		if (newStatus != status || parsedEpochDay != epochDay) {
+			boolean rejected = isRejected(newStatus);
+			if (rejected != isRejected(status)) {
+				field.setBackground(rejected ? REJECTED_BACKGROUND : background);
+			}
+			status = newStatus;
+			epochDay = parsedEpochDay;
+			field.setToolTipText(getStatusText());
+			fireStateChanged();
+		}
+	}
+
+	/**
+	 * This method writes a date with a two digit year, unless the parser
+	 * would read the two digits as another century under the current rules.
+	 */
+	private String format(LocalDate date) {
+		String text = dateTextService.format(date, PATTERN);
+		if (ShortDateParser.parse(text, calendarModel) != date.toEpochDay()) {
+			text = dateTextService.format(date, FULL_YEAR_PATTERN);
+		}
+		return text;
+	}
+
+	/**
+	 * This method reads the text of the field without copying it, unless the
+	 * text is split around the document's insertion gap.
+	 */
+	private CharSequence readText() {
+		Document document = field.getDocument();
+		try {
+			document.getText(0, document.getLength(), segment);
+		} catch (BadLocationException e) {
+			segment.count = 0;
+		}
+		return segment;
+	}
+
+	private static boolean isBlank(CharSequence text) {
+		for (int index = 0; index < text.length(); index++) {
+			if (text.charAt(index) != ' ') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isRejected(Status status) {
+		return status != Status.EMPTY && status != Status.INCOMPLETE
+				&& status != Status.VALID;
+	}
+
+	private void fireStateChanged() {
+		ChangeEvent event = new ChangeEvent(this);
+		for (ChangeListener listener : listenerList
+				.getListeners(ChangeListener.class)) {
+			listener.stateChanged(event);
+		}
+	}
+
+}
@@ -0,0 +1,121 @@
+package com.ggl.jcalendar.jmh;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.chrono.HijrahChronology;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ggl.jcalendar.model.CalendarModel;
+import com.ggl.jcalendar.model.HolidayCalendar;
+import com.ggl.jcalendar.model.MonthGrid;
+
+/**
+ * <p>
+ * <code>CalendarModelBenchmark</code> measures the checks of a
+ * <code>CalendarModel</code> with a 20000 rule <code>HolidayCalendar</code>:
+ * the holiday rules, the month layout, the month bounds checks of the
+ * navigation buttons and the selectable day check.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(2)
+@State(Scope.Thread)
+public class CalendarModelBenchmark {
+
+	private CalendarModel hijrahModel;
+	private CalendarModel model;
+
+	private HolidayCalendar holidays;
+
+	private LocalDate boundsDate;
+
+	private int firstEpochDay;
+	private int iteration;
+
+	@Setup
+	public void setUp() {
+		holidays = createLargeHolidayCalendar();
+		model = CalendarModel.builder()
+				.setDaysToExclude(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY)
+				.setHolidayCalendar(holidays)
+				.setEarliestDate(LocalDate.of(1995, 3, 15))
+				.setLatestDate(LocalDate.of(2040, 9, 15))
+				.build();
+		hijrahModel = model.toBuilder()
+				.setChronology(HijrahChronology.INSTANCE).build();
+		boundsDate = LocalDate.of(1990, 1, 15);
+		firstEpochDay = MonthGrid.epochDay(1990, 1, 1);
+		iteration = 0;
+	}
+
+	private static HolidayCalendar createLargeHolidayCalendar() {
+		HolidayCalendar.Builder builder = HolidayCalendar.builder("Benchmark")
+				.addAnnualHoliday(Month.JULY, 4)
+				.addDayOfWeekInMonth(Month.MAY, -1, DayOfWeek.MONDAY)
+				.addDayOfWeekInMonth(Month.NOVEMBER, 4, DayOfWeek.THURSDAY);
+		LocalDate date = LocalDate.of(1990, 1, 1);
+		for (int index = 0; index < 20000; index++) {
+			if (index % 3 == 0) {
+				builder.addHoliday(date.plusDays(index));
+			}
+		}
+		return builder.build();
+	}
+
+	@Benchmark
+	public boolean holidayIsExcluded() {
+		return holidays.isExcluded(firstEpochDay + (iteration++ % 20000));
+	}
+
+	@Benchmark
+	public int getMonthGrid() {
+		int index = iteration++;
+		MonthGrid monthGrid = model.getMonthGrid(2000 + (index & 31),
+				(index % 12) + 1, 0);
+		return monthGrid.getDayOfMonth(index % MonthGrid.CELL_COUNT);
+	}
+
+	@Benchmark
+	public int getMonthGridHijrah() {
+		int index = iteration++;
+		MonthGrid monthGrid = hijrahModel.getMonthGrid(1420 + (index & 31),
+				(index % 12) + 1, 0);
+		return monthGrid.getDayOfMonth(index % MonthGrid.CELL_COUNT);
+	}
+
+	@Benchmark
+	public boolean isMonthInBounds() {
+		int index = iteration++;
+		return model.isMonthInBounds(1990 + (index & 63), (index % 12) + 1);
+	}
+
+	/**
+	 * The month bounds check that replaced the <code>JCalendar</code>
+	 * <code>isAfter</code> and <code>isBefore</code> methods.
+	 */
+	@Benchmark
+	public boolean isMonthInBoundsDate() {
+		return model.isMonthInBounds(boundsDate.plusMonths(iteration++ & 1023));
+	}
+
+	@Benchmark
+	public boolean isSelectable() {
+		return model.isSelectable(firstEpochDay + (iteration++ % 20000));
+	}
+
+}
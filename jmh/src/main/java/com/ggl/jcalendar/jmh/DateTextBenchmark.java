@@ -0,0 +1,74 @@
+package com.ggl.jcalendar.jmh;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ggl.jcalendar.model.CalendarModel;
+import com.ggl.jcalendar.model.DateTextService;
+import com.ggl.jcalendar.model.ShortDateParser;
+
+/**
+ * <p>
+ * <code>DateTextBenchmark</code> measures the date text of the
+ * <code>JCalendarFrame</code> date fields and labels, with the same patterns
+ * as its <code>updateDateField</code> and <code>updateDateLabel</code>
+ * methods, and the parse of one typed keystroke.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(2)
+@State(Scope.Thread)
+public class DateTextBenchmark {
+
+	private static final String[] TYPED_TEXT = { "7", "7/", "7/1", "7/16",
+			"7/16/", "7/16/2", "7/16/21", "13/", "2/30/21", "2/29/00" };
+
+	private CalendarModel model;
+
+	private DateTextService dateTextService;
+
+	private LocalDate date;
+
+	private int iteration;
+
+	@Setup
+	public void setUp() {
+		model = CalendarModel.getDefault();
+		dateTextService = DateTextService.getInstance(Locale.US);
+		date = LocalDate.of(2021, 7, 16);
+		iteration = 0;
+	}
+
+	@Benchmark
+	public String formatDateField() {
+		return dateTextService.format(date.plusDays(iteration++ & 255), "M/d/yy");
+	}
+
+	@Benchmark
+	public String formatDateLabel() {
+		return "The date selected is " + dateTextService.format(
+				date.plusDays(iteration++ & 255), "EEEE, MMMM d, yyyy") + ".";
+	}
+
+	@Benchmark
+	public int parseKeystroke() {
+		return ShortDateParser.parse(TYPED_TEXT[iteration++ % TYPED_TEXT.length],
+				model);
+	}
+
+}
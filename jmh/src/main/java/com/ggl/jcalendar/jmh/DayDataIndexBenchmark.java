@@ -0,0 +1,78 @@
+package com.ggl.jcalendar.jmh;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ggl.jcalendar.model.CalendarModel;
+import com.ggl.jcalendar.model.DayDataIndex;
+import com.ggl.jcalendar.model.DayDataWriter;
+import com.ggl.jcalendar.model.MonthGrid;
+
+/**
+ * <p>
+ * <code>DayDataIndexBenchmark</code> measures reading the closed days of a
+ * month from a memory-mapped file of 20000 days.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(2)
+@State(Scope.Thread)
+public class DayDataIndexBenchmark {
+
+	private CalendarModel model;
+
+	private DayDataIndex index;
+
+	private Path path;
+
+	private int iteration;
+
+	@Setup
+	public void setUp() throws IOException {
+		path = Files.createTempFile("benchmark", ".jcdi");
+		Files.delete(path);
+		try (DayDataWriter writer = DayDataWriter.create(path,
+				LocalDate.of(1990, 1, 1))) {
+			for (int day = 0; day < 20000; day++) {
+				writer.put(MonthGrid.epochDay(1990, 1, 1) + day, day % 60, 50,
+						(day % 97 == 0) ? DayDataIndex.FLAG_CLOSED : 0);
+			}
+		}
+		index = DayDataIndex.open(path);
+		model = CalendarModel.getDefault();
+		iteration = 0;
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		index.close();
+		Files.delete(path);
+	}
+
+	@Benchmark
+	public long getClosedMask() {
+		int count = iteration++;
+		MonthGrid monthGrid = model.getMonthGrid(1995 + (count & 31),
+				(count % 12) + 1, 0);
+		return index.getClosedMask(monthGrid);
+	}
+
+}
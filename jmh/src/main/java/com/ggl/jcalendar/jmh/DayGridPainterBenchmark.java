@@ -0,0 +1,84 @@
+package com.ggl.jcalendar.jmh;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ggl.jcalendar.model.CalendarModel;
+import com.ggl.jcalendar.model.MonthGrid;
+import com.ggl.jcalendar.view.DayGridPainter;
+
+/**
+ * <p>
+ * <code>DayGridPainterBenchmark</code> paints a month the way a HiDPI screen
+ * does, at twice the size, with the 24 point font of the birth date calendar.
+ * It paints into an image, so it runs headless.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(value = 2, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class DayGridPainterBenchmark {
+
+	private BufferedImage image;
+
+	private CalendarModel model;
+
+	private DayGridPainter painter;
+
+	private int height;
+	private int iteration;
+	private int width;
+
+	@Setup
+	public void setUp() {
+		Font font = new Font(Font.DIALOG, Font.BOLD, 24);
+		painter = new DayGridPainter(Color.WHITE, Color.BLUE, Color.YELLOW,
+				Color.GRAY, font, new String[] { "Sun", "Mon", "Tue", "Wed",
+						"Thu", "Fri", "Sat" });
+		BufferedImage scratch = new BufferedImage(1, 1,
+				BufferedImage.TYPE_INT_RGB);
+		Graphics2D scratchGraphics = scratch.createGraphics();
+		FontMetrics metrics = scratchGraphics.getFontMetrics(font);
+		width = (painter.getMaximumTextWidth(metrics) + 32)
+				* DayGridPainter.COLUMNS;
+		height = (metrics.getHeight() + 10) * DayGridPainter.ROWS;
+		scratchGraphics.dispose();
+
+		model = CalendarModel.getDefault();
+		image = new BufferedImage(width * 2, height * 2,
+				BufferedImage.TYPE_INT_RGB);
+		iteration = 0;
+	}
+
+	@Benchmark
+	public int paint() {
+		int index = iteration++;
+		MonthGrid monthGrid = model.getMonthGrid(2000 + (index & 31),
+				(index % 12) + 1, 0);
+		Graphics2D g2d = image.createGraphics();
+		g2d.scale(2.0, 2.0);
+		painter.paint(g2d, width, height, monthGrid, null,
+				1L << (index % MonthGrid.CELL_COUNT), -1, -1);
+		g2d.dispose();
+		return image.getRGB(index % image.getWidth(), 0);
+	}
+
+}
@@ -0,0 +1,81 @@
+package com.ggl.jcalendar.jmh;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ggl.jcalendar.view.JCalendar;
+
+/**
+ * <p>
+ * <code>JCalendarDialogBenchmark</code> measures constructing, showing and
+ * disposing a non-modal <code>JCalendar</code> on the Event Dispatch Thread.
+ * The time includes the hand-off to the Event Dispatch Thread. It needs a
+ * display, so exclude it when running headless.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(2)
+@State(Scope.Benchmark)
+public class JCalendarDialogBenchmark {
+
+	private JFrame frame;
+
+	private LocalDate date;
+
+	private final int[] width = new int[1];
+
+	@Setup
+	public void setUp() throws Exception {
+		date = LocalDate.of(2021, 7, 16);
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				frame = new JFrame("JCalendar Benchmark");
+			}
+		});
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				frame.dispose();
+			}
+		});
+	}
+
+	@Benchmark
+	public int start() throws Exception {
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				JCalendar calendar = new JCalendar(frame, date, "Benchmark Date");
+				calendar.setModal(false);
+				calendar.start();
+				width[0] = calendar.getWidth();
+				calendar.dispose();
+			}
+		});
+		return width[0];
+	}
+
+}
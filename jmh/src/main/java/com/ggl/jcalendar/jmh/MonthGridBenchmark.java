@@ -0,0 +1,66 @@
+package com.ggl.jcalendar.jmh;
+
+import java.time.DayOfWeek;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ggl.jcalendar.model.MonthGrid;
+import com.ggl.jcalendar.model.MonthGridCache;
+
+/**
+ * <p>
+ * <code>MonthGridBenchmark</code> measures computing a month layout, the work
+ * behind each month <code>JCalendar</code> displays, and paging between two
+ * months through the <code>MonthGridCache</code>.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(2)
+@State(Scope.Thread)
+public class MonthGridBenchmark {
+
+	private static final int WEEKEND_MASK = MonthGrid.weekdayMask(
+			DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+
+	private MonthGridCache cache;
+
+	private int iteration;
+
+	@Setup
+	public void setUp() {
+		cache = new MonthGridCache(64);
+		iteration = 0;
+	}
+
+	@Benchmark
+	public int monthGridOf() {
+		int index = iteration++;
+		MonthGrid monthGrid = MonthGrid.of(2000 + (index & 31), (index % 12) + 1,
+				15, DayOfWeek.SUNDAY, WEEKEND_MASK, null,
+				MonthGrid.NO_EARLIEST_DATE, MonthGrid.NO_LATEST_DATE);
+		return monthGrid.getDayOfMonth(index % MonthGrid.CELL_COUNT);
+	}
+
+	@Benchmark
+	public int monthGridCachePaging() {
+		int index = iteration++;
+		MonthGrid monthGrid = cache.getMonthGrid(2021, (index & 1) + 7, 16,
+				DayOfWeek.SUNDAY, 0, null, MonthGrid.NO_EARLIEST_DATE,
+				MonthGrid.NO_LATEST_DATE);
+		return monthGrid.getDayOfMonth(index % MonthGrid.CELL_COUNT);
+	}
+
+}